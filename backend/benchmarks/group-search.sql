@@ -0,0 +1,74 @@
+-- Group discovery search on 1M groups: substring scan versus trigram indexes with rank keyset pagination.
+--
+-- Run against any PostgreSQL 13+ database with the pg_trgm extension available:
+--   psql "$DATABASE_URL" -f benchmarks/group-search.sql
+--
+-- The data lives in a throwaway "bench" schema, so application tables are left untouched.
+-- For p99 latency, run the last query through pgbench with a few hundred random terms:
+--   pgbench -n -T 60 -c 16 -f <file with the search query and \set term ...> "$DATABASE_URL"
+
+\timing on
+
+create extension if not exists pg_trgm;
+drop schema if exists bench cascade;
+create schema bench;
+
+-- 1M groups with names built from a small vocabulary, 2% soft-deleted, long-tailed member and message counts
+create table bench.groups (
+    id bigint primary key,
+    name varchar(50) not null,
+    description varchar(5000) not null,
+    deleted boolean not null,
+    member_count integer not null,
+    recent_messages integer not null,
+    rank_score bigint not null
+);
+
+insert into bench.groups (id, name, description, deleted, member_count, recent_messages, rank_score)
+select g,
+       (array['algebra','biology','chemistry','physics','history','databases','networks','compilers','statistics','literature'])[1 + g % 10]
+           || ' ' || (array['study','exam prep','notes','lab','reading','project'])[1 + (g / 10) % 6] || ' ' || g,
+       'Group ' || g || ' for ' || (array['first','second','third','final'])[1 + g % 4] || ' year students',
+       g % 50 = 0,
+       (1000 / (1 + (g % 997)))::int,
+       (g * 7919) % 300,
+       (1000 / (1 + (g % 997)))::int + (g * 7919) % 300
+from generate_series(1, 1000000) g;
+
+analyze bench.groups;
+
+-- Before: what findByNameContainingIgnoreCase does, with no usable index and no limit
+explain (analyze, buffers)
+select id from bench.groups where upper(name) like upper('%compilers lab%');
+
+create index idx_bench_groups_name_trgm on bench.groups using gin (lower(name) gin_trgm_ops) where deleted = false;
+create index idx_bench_groups_description_trgm on bench.groups using gin (lower(description) gin_trgm_ops) where deleted = false;
+create index idx_bench_groups_rank_score on bench.groups (rank_score desc, id desc) where deleted = false;
+analyze bench.groups;
+
+-- After: first page of a search, as GroupRepository.searchActiveGroupIdsByRank issues it
+explain (analyze, buffers)
+select g.id from bench.groups g where g.deleted = false
+  and (lower(g.name) like '%compilers lab%' or lower(g.description) like '%compilers lab%')
+  and (g.rank_score, g.id) < (9223372036854775807, 9223372036854775807)
+order by g.rank_score desc, g.id desc limit 21;
+
+-- After: a later page, the cursor is the rank score and id of the last group on the previous page
+explain (analyze, buffers)
+select g.id from bench.groups g where g.deleted = false
+  and (lower(g.name) like '%compilers lab%' or lower(g.description) like '%compilers lab%')
+  and (g.rank_score, g.id) < (150, 500000)
+order by g.rank_score desc, g.id desc limit 21;
+
+-- After: browsing without a query walks idx_bench_groups_rank_score
+explain (analyze, buffers)
+select g.id from bench.groups g where g.deleted = false
+  and (g.rank_score, g.id) < (150, 500000)
+order by g.rank_score desc, g.id desc limit 21;
+
+-- Terms shorter than 3 characters have no trigram to look up, so this walks the rank index and filters every row
+explain (analyze, buffers)
+select g.id from bench.groups g where g.deleted = false
+  and (lower(g.name) like '%zq%' or lower(g.description) like '%zq%')
+  and (g.rank_score, g.id) < (9223372036854775807, 9223372036854775807)
+order by g.rank_score desc, g.id desc limit 21;
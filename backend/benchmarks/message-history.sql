@@ -0,0 +1,42 @@
+-- Message history paging benchmark: OFFSET + COUNT(*) versus keyset (before={messageId}).
+--
+-- Run against a database the application has already initialised (the messages table must exist):
+--   psql "$DATABASE_URL" -f benchmarks/message-history.sql
+--
+-- The data lives in a throwaway "bench" schema, so application tables are left untouched.
+
+\timing on
+
+drop schema if exists bench cascade;
+create schema bench;
+create table bench.messages (like public.messages including defaults);
+
+-- 5M messages in one busy group plus 1M spread over 1000 other groups
+insert into bench.messages (id, group_id, user_id, content, created_at)
+select g, 1, 1, 'message ' || g, timestamp '2024-01-01' + g * interval '1 second'
+from generate_series(1, 5000000) g;
+
+insert into bench.messages (id, group_id, user_id, content, created_at)
+select 5000000 + g, 2 + g % 1000, 1, 'message ' || g, timestamp '2024-01-01' + g * interval '1 second'
+from generate_series(1, 1000000) g;
+
+alter table bench.messages add primary key (id);
+create index idx_bench_messages_group_id_id on bench.messages (group_id, id);
+analyze bench.messages;
+
+-- Old endpoint: page 200000 of size 20 (deep history) and the count query behind Page
+explain (analyze, buffers)
+select * from bench.messages where group_id = 1 order by created_at asc offset 4000000 limit 20;
+
+explain (analyze, buffers)
+select count(*) from bench.messages where group_id = 1;
+
+-- Keyset endpoint: the same depth reached with a cursor, newest first, one extra row for Slice.hasNext
+explain (analyze, buffers)
+select * from bench.messages where group_id = 1 and id < 1000021 order by id desc limit 21;
+
+-- Keyset endpoint: newest page
+explain (analyze, buffers)
+select * from bench.messages where group_id = 1 order by id desc limit 21;
+
+drop schema bench cascade;
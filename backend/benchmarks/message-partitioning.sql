@@ -0,0 +1,83 @@
+-- Recent message history on 50M rows: one plain table versus monthly range partitions on created_at.
+--
+-- Run against any PostgreSQL 13+ database (no application tables are needed):
+--   psql "$DATABASE_URL" -f benchmarks/message-partitioning.sql
+--
+-- The data lives in a throwaway "bench" schema, so application tables are left untouched.
+-- Loading takes several minutes and needs roughly 12 GB of disk for both copies.
+
+\timing on
+
+drop schema if exists bench cascade;
+create schema bench;
+
+-- 50M messages over 25 months in 10000 groups, group 1 is a busy group with 10% of the traffic
+create table bench.messages_plain (
+    id bigint not null,
+    group_id bigint not null,
+    user_id bigint not null,
+    content varchar(500) not null,
+    created_at timestamp(6) not null
+);
+
+insert into bench.messages_plain (id, group_id, user_id, content, created_at)
+select g, case when g % 10 = 0 then 1 else 2 + g % 9999 end, 1 + g % 5000, 'message ' || g,
+       timestamp '2024-10-01' + (g * interval '1.3 seconds')
+from generate_series(1, 50000000) g;
+
+alter table bench.messages_plain add primary key (id);
+create index idx_bench_messages_plain_group_id_id on bench.messages_plain (group_id, id);
+analyze bench.messages_plain;
+
+create table bench.messages_partitioned (like bench.messages_plain) partition by range (created_at);
+alter table bench.messages_partitioned add primary key (id, created_at);
+create index idx_bench_messages_partitioned_group_id_id on bench.messages_partitioned (group_id, id);
+
+do $$
+declare
+    month_start timestamp := timestamp '2024-10-01';
+begin
+    while month_start < timestamp '2026-12-01' loop
+        execute format('create table bench.%I partition of bench.messages_partitioned for values from (%L) to (%L)',
+                       'messages_p' || to_char(month_start, 'YYYY_MM'), month_start, month_start + interval '1 month');
+        month_start := month_start + interval '1 month';
+    end loop;
+end
+$$;
+
+insert into bench.messages_partitioned select * from bench.messages_plain;
+analyze bench.messages_partitioned;
+
+-- The newest created_at in the data set, the "recent" window starts at the previous month
+select date_trunc('month', max(created_at)) - interval '1 month' as since from bench.messages_plain \gset
+
+-- Newest page of the busy group (one extra row for Slice.hasNext)
+explain (analyze, buffers)
+select * from bench.messages_plain where group_id = 1 order by id desc limit 21;
+
+explain (analyze, buffers)
+select * from bench.messages_partitioned where group_id = 1 order by id desc limit 21;
+
+explain (analyze, buffers)
+select * from bench.messages_partitioned where group_id = 1 and created_at >= :'since' order by id desc limit 21;
+
+-- Newest page of a quiet group, where an unbounded scan has to visit every partition
+explain (analyze, buffers)
+select * from bench.messages_plain where group_id = 4242 order by id desc limit 21;
+
+explain (analyze, buffers)
+select * from bench.messages_partitioned where group_id = 4242 order by id desc limit 21;
+
+explain (analyze, buffers)
+select * from bench.messages_partitioned where group_id = 4242 and created_at >= :'since' order by id desc limit 21;
+
+-- Cursor page about 500 messages back in the busy group
+select max(id) - 5000 as cursor from bench.messages_plain where group_id = 1 \gset
+
+explain (analyze, buffers)
+select * from bench.messages_plain where group_id = 1 and id < :cursor order by id desc limit 21;
+
+explain (analyze, buffers)
+select * from bench.messages_partitioned where group_id = 1 and id < :cursor and created_at >= :'since' order by id desc limit 21;
+
+drop schema bench cascade;
@@ -0,0 +1,194 @@
+package com.notex.student_notes.ai.cache;
+
+import com.notex.student_notes.ai.summary.cache.SummaryCache;
+import com.notex.student_notes.ai.summary.repository.SummaryChunkRepository;
+import com.notex.student_notes.ai.summary.repository.SummaryRepository;
+import com.notex.student_notes.ai.summary.repository.SummaryRepository.SummaryRef;
+import com.notex.student_notes.ai.translations.repository.TranslationRepository;
+import com.notex.student_notes.ai.translations.repository.TranslationRepository.EditedTranslationRef;
+import com.notex.student_notes.ai.translations.repository.TranslationRepository.TranslationRef;
+import com.notex.student_notes.ai.translations.service.TranslationService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class AiResultPurgeService {
+
+    private final SummaryRepository summaryRepository;
+    private final TranslationRepository translationRepository;
+    private final SummaryChunkRepository summaryChunkRepository;
+    private final SummaryCache summaryCache;
+    private final CacheManager cacheManager;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Duration translationGracePeriod;
+    private final Duration chunkTtl;
+
+    private final Counter removedSummaries;
+    private final Counter removedTranslations;
+    private final Counter removedChunks;
+    private final Timer purgeTimer;
+
+    public AiResultPurgeService(SummaryRepository summaryRepository,
+                                TranslationRepository translationRepository,
+                                SummaryChunkRepository summaryChunkRepository,
+                                SummaryCache summaryCache,
+                                CacheManager cacheManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${ai.purge.enabled:true}") boolean enabled,
+                                @Value("${ai.purge.batch-size:500}") int batchSize,
+                                @Value("${ai.purge.max-batches:20}") int maxBatches,
+                                @Value("${ai.purge.translation-grace-period:P7D}") Duration translationGracePeriod,
+                                @Value("${ai.purge.chunk-ttl:P30D}") Duration chunkTtl) {
+        this.summaryRepository = summaryRepository;
+        this.translationRepository = translationRepository;
+        this.summaryChunkRepository = summaryChunkRepository;
+        this.summaryCache = summaryCache;
+        this.cacheManager = cacheManager;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.translationGracePeriod = translationGracePeriod;
+        this.chunkTtl = chunkTtl;
+        this.removedSummaries = Counter.builder("ai.purge.removed")
+                .tag("table", "summaries")
+                .register(meterRegistry);
+        this.removedTranslations = Counter.builder("ai.purge.removed")
+                .tag("table", "translations")
+                .register(meterRegistry);
+        this.removedChunks = Counter.builder("ai.purge.removed")
+                .tag("table", "summary_chunks")
+                .register(meterRegistry);
+        this.purgeTimer = Timer.builder("ai.purge.time").register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${ai.purge.cron:0 15 3 * * *}")
+    public void purge() {
+        if (!enabled) {
+            return;
+        }
+        log.info("Purging expired summaries, summary chunks and superseded translations");
+        purgeTimer.record(() -> {
+            int summaries = purgeExpiredSummaries();
+            int chunks = purgeExpiredChunks();
+            int translations = purgeSupersededTranslations();
+            log.info("Success - Purged {} expired summaries, {} expired summary chunks and {} superseded translations",
+                    summaries, chunks, translations);
+        });
+    }
+
+    int purgeExpiredSummaries() {
+        int removed = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            LocalDateTime now = LocalDateTime.now();
+            List<SummaryRef> expired = summaryRepository.findExpired(now, firstBatch());
+            if (expired.isEmpty()) {
+                break;
+            }
+            removed += summaryRepository.deleteExpiredByIdIn(expired.stream().map(SummaryRef::getId).toList(), now);
+            expired.forEach(summary -> summaryCache.evict(summary.getNoteId()));
+            if (expired.size() < batchSize) {
+                break;
+            }
+        }
+        removedSummaries.increment(removed);
+        return removed;
+    }
+
+    int purgeExpiredChunks() {
+        LocalDateTime createdBefore = LocalDateTime.now().minus(chunkTtl);
+        int removed = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            List<Long> expired = summaryChunkRepository.findIdsCreatedBefore(createdBefore, firstBatch());
+            if (expired.isEmpty()) {
+                break;
+            }
+            removed += summaryChunkRepository.deleteByIdIn(expired);
+            if (expired.size() < batchSize) {
+                break;
+            }
+        }
+        removedChunks.increment(removed);
+        return removed;
+    }
+
+    int purgeSupersededTranslations() {
+        LocalDateTime editedBefore = LocalDateTime.now().minus(translationGracePeriod);
+        int removed = purgeTranslationsOfDeletedNotes();
+        removed += purgeTranslationsOfEditedNotes(editedBefore);
+        removedTranslations.increment(removed);
+        return removed;
+    }
+
+    private int purgeTranslationsOfDeletedNotes() {
+        int removed = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            List<TranslationRef> superseded = translationRepository.findOfDeletedNotes(firstBatch());
+            if (superseded.isEmpty()) {
+                break;
+            }
+            removed += deleteTranslations(superseded);
+            if (superseded.size() < batchSize) {
+                break;
+            }
+        }
+        return removed;
+    }
+
+    private int purgeTranslationsOfEditedNotes(LocalDateTime editedBefore) {
+        int removed = 0;
+        long afterId = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            List<EditedTranslationRef> candidates = translationRepository.findOlderThanNoteEdit(afterId, editedBefore, firstBatch());
+            if (candidates.isEmpty()) {
+                break;
+            }
+            Map<Boolean, List<EditedTranslationRef>> byCurrent = candidates.stream()
+                    .collect(Collectors.partitioningBy(translation -> TranslationService
+                            .contentHash(translation.getNoteContent(), translation.getLanguage())
+                            .equals(translation.getContentHash())));
+            if (!byCurrent.get(false).isEmpty()) {
+                removed += deleteTranslations(byCurrent.get(false));
+            }
+            if (!byCurrent.get(true).isEmpty()) {
+                translationRepository.markCheckedByIdIn(byCurrent.get(true).stream().map(TranslationRef::getId).toList(),
+                        LocalDateTime.now());
+            }
+            if (candidates.size() < batchSize) {
+                break;
+            }
+            afterId = candidates.getLast().getId();
+        }
+        return removed;
+    }
+
+    private int deleteTranslations(List<? extends TranslationRef> superseded) {
+        int removed = translationRepository.deleteSupersededByIdIn(superseded.stream().map(TranslationRef::getId).toList());
+        Cache cache = cacheManager.getCache("translations");
+        if (cache != null) {
+            superseded.forEach(translation -> cache.evict(translation.getNoteId() + ":" + translation.getLanguage()));
+        }
+        return removed;
+    }
+
+    private Pageable firstBatch() {
+        return PageRequest.of(0, batchSize);
+    }
+}
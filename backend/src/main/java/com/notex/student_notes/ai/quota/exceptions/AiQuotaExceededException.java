@@ -0,0 +1,7 @@
+package com.notex.student_notes.ai.quota.exceptions;
+
+public class AiQuotaExceededException extends RuntimeException {
+    public AiQuotaExceededException(String message) {
+        super(message);
+    }
+}
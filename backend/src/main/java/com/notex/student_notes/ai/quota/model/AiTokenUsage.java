@@ -0,0 +1,33 @@
+package com.notex.student_notes.ai.quota.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "ai_token_usage",
+        uniqueConstraints = @UniqueConstraint(name = "uk_ai_token_usage_user_day", columnNames = {"user_id", "usage_date"}))
+public class AiTokenUsage {
+
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "usage_date", nullable = false)
+    private LocalDate usageDate;
+
+    @Column(nullable = false)
+    private long promptTokens;
+
+    @Column(nullable = false)
+    private long completionTokens;
+}
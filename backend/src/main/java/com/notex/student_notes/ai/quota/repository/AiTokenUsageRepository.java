@@ -0,0 +1,28 @@
+package com.notex.student_notes.ai.quota.repository;
+
+import com.notex.student_notes.ai.quota.model.AiTokenUsage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+public interface AiTokenUsageRepository extends JpaRepository<AiTokenUsage, Long> {
+
+    @Query("select coalesce(sum(u.promptTokens + u.completionTokens), 0) from AiTokenUsage u " +
+            "where u.userId = :userId and u.usageDate between :from and :to")
+    long sumTokensByUserIdAndUsageDateBetween(@Param("userId") Long userId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Transactional
+    @Modifying
+    @Query(value = "insert into ai_token_usage (user_id, usage_date, prompt_tokens, completion_tokens) " +
+            "values (:userId, :usageDate, :promptTokens, :completionTokens) " +
+            "on conflict (user_id, usage_date) do update set " +
+            "prompt_tokens = ai_token_usage.prompt_tokens + excluded.prompt_tokens, " +
+            "completion_tokens = ai_token_usage.completion_tokens + excluded.completion_tokens",
+            nativeQuery = true)
+    void addUsage(@Param("userId") Long userId, @Param("usageDate") LocalDate usageDate,
+                  @Param("promptTokens") long promptTokens, @Param("completionTokens") long completionTokens);
+}
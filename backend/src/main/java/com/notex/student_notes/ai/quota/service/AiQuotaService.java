@@ -0,0 +1,201 @@
+package com.notex.student_notes.ai.quota.service;
+
+import com.notex.student_notes.ai.quota.exceptions.AiQuotaExceededException;
+import com.notex.student_notes.ai.quota.repository.AiTokenUsageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@Slf4j
+public class AiQuotaService {
+
+    private final AiTokenUsageRepository aiTokenUsageRepository;
+    private final long dailyTokenBudget;
+    private final long monthlyTokenBudget;
+
+    private final Map<Long, UserSpend> userSpends = new ConcurrentHashMap<>();
+    private final Map<UsageKey, TokenCount> pendingUsage = new ConcurrentHashMap<>();
+
+    private final Counter promptTokens;
+    private final Counter completionTokens;
+    private final Counter dailyRejections;
+    private final Counter monthlyRejections;
+    private final MultiGauge userDailyTokens;
+
+    public AiQuotaService(AiTokenUsageRepository aiTokenUsageRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${ai.quota.daily-token-budget:50000}") long dailyTokenBudget,
+                          @Value("${ai.quota.monthly-token-budget:500000}") long monthlyTokenBudget) {
+        this.aiTokenUsageRepository = aiTokenUsageRepository;
+        this.dailyTokenBudget = dailyTokenBudget;
+        this.monthlyTokenBudget = monthlyTokenBudget;
+
+        this.promptTokens = Counter.builder("ai.tokens.used")
+                .tag("type", "prompt")
+                .description("Tokens spent on AI calls")
+                .register(meterRegistry);
+        this.completionTokens = Counter.builder("ai.tokens.used")
+                .tag("type", "completion")
+                .description("Tokens spent on AI calls")
+                .register(meterRegistry);
+        this.dailyRejections = Counter.builder("ai.quota.rejected")
+                .tag("period", "daily")
+                .description("AI calls rejected because the user's token budget is spent")
+                .register(meterRegistry);
+        this.monthlyRejections = Counter.builder("ai.quota.rejected")
+                .tag("period", "monthly")
+                .description("AI calls rejected because the user's token budget is spent")
+                .register(meterRegistry);
+        this.userDailyTokens = MultiGauge.builder("ai.tokens.user.daily")
+                .description("Tokens spent today by each active user")
+                .register(meterRegistry);
+    }
+
+    public void checkQuota(Long userId) {
+        UserSpend spend = getUserSpend(userId);
+        synchronized (spend) {
+            spend.rollOver(LocalDate.now());
+            if (spend.dailyTokens >= dailyTokenBudget) {
+                dailyRejections.increment();
+                log.warn("Fail - User {} spent the daily AI token budget ({} tokens)", userId, spend.dailyTokens);
+                throw new AiQuotaExceededException("Daily AI token budget exceeded");
+            }
+            if (spend.monthlyTokens >= monthlyTokenBudget) {
+                monthlyRejections.increment();
+                log.warn("Fail - User {} spent the monthly AI token budget ({} tokens)", userId, spend.monthlyTokens);
+                throw new AiQuotaExceededException("Monthly AI token budget exceeded");
+            }
+        }
+    }
+
+    public void recordUsage(Long userId, ChatResponse response) {
+        Usage usage = response == null || response.getMetadata() == null ? null : response.getMetadata().getUsage();
+        if (usage == null) {
+            return;
+        }
+        long prompt = toLong(usage.getPromptTokens());
+        long completion = toLong(usage.getCompletionTokens());
+        if (prompt + completion == 0) {
+            return;
+        }
+        promptTokens.increment(prompt);
+        completionTokens.increment(completion);
+        if (userId == null) {
+            return;
+        }
+
+        LocalDate today = LocalDate.now();
+        UserSpend spend = getUserSpend(userId);
+        synchronized (spend) {
+            spend.rollOver(today);
+            spend.dailyTokens += prompt + completion;
+            spend.monthlyTokens += prompt + completion;
+        }
+        pendingUsage.merge(new UsageKey(userId, today), new TokenCount(prompt, completion), TokenCount::plus);
+    }
+
+    @Scheduled(fixedDelayString = "${ai.quota.flush-interval:PT30S}")
+    public void flushUsage() {
+        int flushed = 0;
+        for (UsageKey key : new ArrayList<>(pendingUsage.keySet())) {
+            TokenCount count = pendingUsage.remove(key);
+            if (count == null) {
+                continue;
+            }
+            try {
+                aiTokenUsageRepository.addUsage(key.userId(), key.usageDate(), count.prompt(), count.completion());
+                flushed++;
+            } catch (RuntimeException e) {
+                pendingUsage.merge(key, count, TokenCount::plus);
+                log.warn("Fail - Could not flush AI token usage, {} entries kept for the next flush", pendingUsage.size(), e);
+                break;
+            }
+        }
+        if (flushed > 0) {
+            log.debug("Success - Flushed AI token usage of {} users", flushed);
+        }
+
+        LocalDate today = LocalDate.now();
+        userSpends.values().removeIf(spend -> spend.isIdleSince(today));
+        List<MultiGauge.Row<?>> rows = new ArrayList<>();
+        userSpends.forEach((userId, spend) -> rows.add(MultiGauge.Row.of(Tags.of("user_id", userId.toString()), spend, UserSpend::getDailyTokens)));
+        userDailyTokens.register(rows, true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushUsage();
+    }
+
+    private UserSpend getUserSpend(Long userId) {
+        UserSpend spend = userSpends.get(userId);
+        if (spend != null) {
+            return spend;
+        }
+        LocalDate today = LocalDate.now();
+        long dailyTokens = aiTokenUsageRepository.sumTokensByUserIdAndUsageDateBetween(userId, today, today);
+        long monthlyTokens = aiTokenUsageRepository.sumTokensByUserIdAndUsageDateBetween(userId, today.withDayOfMonth(1), today);
+        UserSpend existing = userSpends.putIfAbsent(userId, new UserSpend(today, dailyTokens, monthlyTokens));
+        return existing != null ? existing : userSpends.get(userId);
+    }
+
+    private static long toLong(Integer tokens) {
+        return tokens == null ? 0 : tokens;
+    }
+
+    private record UsageKey(Long userId, LocalDate usageDate) {
+    }
+
+    private record TokenCount(long prompt, long completion) {
+        TokenCount plus(TokenCount other) {
+            return new TokenCount(prompt + other.prompt, completion + other.completion);
+        }
+    }
+
+    private static final class UserSpend {
+        private LocalDate day;
+        private long dailyTokens;
+        private long monthlyTokens;
+
+        private UserSpend(LocalDate day, long dailyTokens, long monthlyTokens) {
+            this.day = day;
+            this.dailyTokens = dailyTokens;
+            this.monthlyTokens = monthlyTokens;
+        }
+
+        private void rollOver(LocalDate today) {
+            if (today.equals(day)) {
+                return;
+            }
+            if (!YearMonth.from(today).equals(YearMonth.from(day))) {
+                monthlyTokens = 0;
+            }
+            dailyTokens = 0;
+            day = today;
+        }
+
+        private synchronized boolean isIdleSince(LocalDate today) {
+            return day.isBefore(today);
+        }
+
+        private synchronized long getDailyTokens() {
+            return dailyTokens;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.notex.student_notes.ai.summary.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+@Component
+@Slf4j
+public class SummaryCache {
+
+    private static final int BYTES_PER_CHAR = 2;
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+
+    private final long capacityBytes;
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+    private long generation;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter expiredEvictions;
+    private final Counter sizeEvictions;
+    private final Counter invalidatedEvictions;
+
+    public SummaryCache(MeterRegistry meterRegistry,
+                        @Value("${ai.summary.cache.size-mb:16}") int cacheSizeMb) {
+        this.capacityBytes = cacheSizeMb * 1024L * 1024L;
+        this.hits = Counter.builder("ai.cache.requests").tag("cache", "summaries").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("ai.cache.requests").tag("cache", "summaries").tag("result", "miss").register(meterRegistry);
+        this.expiredEvictions = evictionCounter(meterRegistry, "expired");
+        this.sizeEvictions = evictionCounter(meterRegistry, "size");
+        this.invalidatedEvictions = evictionCounter(meterRegistry, "invalidated");
+        Gauge.builder("ai.cache.size", this, SummaryCache::size)
+                .tag("cache", "summaries")
+                .register(meterRegistry);
+    }
+
+    public synchronized long generation() {
+        return generation;
+    }
+
+    public synchronized Optional<String> get(Long noteId) {
+        Entry entry = entries.get(noteId);
+        if (entry == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        if (!entry.expiresAt().isAfter(LocalDateTime.now())) {
+            remove(noteId);
+            expiredEvictions.increment();
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(entry.text());
+    }
+
+    public synchronized void put(Long noteId, String text, LocalDateTime expiresAt, long loadedAtGeneration) {
+        if (loadedAtGeneration != generation || text == null || !expiresAt.isAfter(LocalDateTime.now())) {
+            return;
+        }
+        long weight = weightOf(text);
+        if (weight > capacityBytes) {
+            return;
+        }
+        remove(noteId);
+        entries.put(noteId, new Entry(text, expiresAt, weight));
+        cachedBytes += weight;
+        Iterator<Map.Entry<Long, Entry>> iterator = entries.entrySet().iterator();
+        while (cachedBytes > capacityBytes && iterator.hasNext()) {
+            cachedBytes -= iterator.next().getValue().weight();
+            iterator.remove();
+            sizeEvictions.increment();
+        }
+    }
+
+    public synchronized void evict(Long noteId) {
+        generation++;
+        if (remove(noteId) != null) {
+            invalidatedEvictions.increment();
+        }
+    }
+
+    public void evictAfterCommit(Long noteId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(noteId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(noteId);
+                log.debug("Success - Evicted cached summary of note {}", noteId);
+            }
+        });
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private Entry remove(Long noteId) {
+        Entry removed = entries.remove(noteId);
+        if (removed != null) {
+            cachedBytes -= removed.weight();
+        }
+        return removed;
+    }
+
+    private static long weightOf(String text) {
+        return (long) text.length() * BYTES_PER_CHAR + ENTRY_OVERHEAD_BYTES;
+    }
+
+    private static Counter evictionCounter(MeterRegistry meterRegistry, String cause) {
+        return Counter.builder("ai.cache.evictions")
+                .tag("cache", "summaries")
+                .tag("cause", cause)
+                .register(meterRegistry);
+    }
+
+    private record Entry(String text, LocalDateTime expiresAt, long weight) {
+    }
+}
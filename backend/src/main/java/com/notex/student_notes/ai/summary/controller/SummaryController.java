@@ -3,9 +3,13 @@ package com.notex.student_notes.ai.summary.controller;
 import com.notex.student_notes.ai.summary.service.SummaryService;
 import com.notex.student_notes.config.ratelimiting.RateLimitingService;
 import com.notex.student_notes.group.dto.ApiResponse;
+import com.notex.student_notes.user.model.User;
+import com.notex.student_notes.user.service.UserService;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -17,11 +21,17 @@ import org.springframework.web.bind.annotation.RestController;
 public class SummaryController {
     private final SummaryService summaryService;
     private final RateLimitingService rateLimitingService;
+    private final UserService userService;
 
     @GetMapping
     public ResponseEntity<ApiResponse> summarizeNote(@PathVariable Long noteId, HttpServletRequest request){
         String remoteAddress = request.getRemoteAddr();
         rateLimitingService.checkRateLimit(remoteAddress,"/notes/{noteId}/summarize", 5, 1);
-        return ResponseEntity.ok(new ApiResponse(summaryService.summarizeNote(noteId, remoteAddress)));
+        return ResponseEntity.ok(new ApiResponse(summaryService.summarizeNote(noteId, getCurrentUser())));
+    }
+
+    private User getCurrentUser(){
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return userService.getUserEntityByUsername(auth.getName());
     }
 }
@@ -12,7 +12,10 @@ import java.time.LocalDateTime;
 @Getter
 @Setter
 @NoArgsConstructor
-@Table(name = "summaries")
+@Table(name = "summaries", indexes = {
+        @Index(name = "idx_summaries_content_hash", columnList = "content_hash"),
+        @Index(name = "idx_summaries_expires_at", columnList = "expires_at")
+})
 public class Summary {
 
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -26,10 +29,17 @@ public class Summary {
     @JoinColumn(name = "note_id", nullable = false)
     private Note note;
 
+    @Column(length = 64)
+    private String contentHash;
+
     LocalDateTime expiresAt;
 
     @PrePersist
     protected void onCreate() {
+        renew();
+    }
+
+    public void renew() {
         this.expiresAt = LocalDateTime.now().plusDays(1);
     }
 }
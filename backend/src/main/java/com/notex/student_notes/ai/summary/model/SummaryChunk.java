@@ -0,0 +1,38 @@
+package com.notex.student_notes.ai.summary.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "summary_chunks", indexes = @Index(name = "idx_summary_chunks_content_hash", columnList = "content_hash"))
+public class SummaryChunk {
+
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String contentHash;
+
+    @Column(nullable = false, length = 5000)
+    private String text;
+
+    private LocalDateTime createdAt;
+
+    public SummaryChunk(String contentHash, String text) {
+        this.contentHash = contentHash;
+        this.text = text;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
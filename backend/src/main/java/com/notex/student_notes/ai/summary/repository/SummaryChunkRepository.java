@@ -0,0 +1,30 @@
+package com.notex.student_notes.ai.summary.repository;
+
+import com.notex.student_notes.ai.summary.model.SummaryChunk;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface SummaryChunkRepository extends JpaRepository<SummaryChunk, Long> {
+    List<SummaryChunk> findAllByContentHashIn(Collection<String> contentHashes);
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    <S extends SummaryChunk> List<S> saveAll(Iterable<S> chunks);
+
+    @Query("select c.id from SummaryChunk c where c.createdAt < :createdBefore order by c.id")
+    List<Long> findIdsCreatedBefore(@Param("createdBefore") LocalDateTime createdBefore, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("delete from SummaryChunk c where c.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -1,16 +1,37 @@
 package com.notex.student_notes.ai.summary.repository;
 
 import com.notex.student_notes.ai.summary.model.Summary;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface SummaryRepository extends JpaRepository<Summary, Long> {
     Optional<Summary> findByNoteId(Long noteId);
+    Optional<Summary> findFirstByContentHash(String contentHash);
+    List<Summary> findAllByNoteIdIn(Collection<Long> noteIds);
 
     @Transactional
     @Modifying
     void deleteByNoteId(Long id);
+
+    @Query("select s.id as id, s.note.id as noteId from Summary s where s.expiresAt < :now order by s.expiresAt")
+    List<SummaryRef> findExpired(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Summary s where s.id in :ids and s.expiresAt < :now")
+    int deleteExpiredByIdIn(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    interface SummaryRef {
+        Long getId();
+        Long getNoteId();
+    }
 }
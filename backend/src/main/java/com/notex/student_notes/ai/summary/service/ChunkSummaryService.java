@@ -0,0 +1,237 @@
+package com.notex.student_notes.ai.summary.service;
+
+import com.notex.student_notes.ai.cache.ContentHasher;
+import com.notex.student_notes.ai.quota.service.AiQuotaService;
+import com.notex.student_notes.ai.summary.exceptions.SummaryGenerationFailedException;
+import com.notex.student_notes.ai.summary.model.SummaryChunk;
+import com.notex.student_notes.ai.summary.repository.SummaryChunkRepository;
+import com.notex.student_notes.config.ai.AiUnavailableException;
+import com.notex.student_notes.config.ai.ChatResponses;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.text.BreakIterator;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@Slf4j
+public class ChunkSummaryService {
+
+    private static final int CHARS_PER_TOKEN = 4;
+    private static final String CHUNK_PROMPT_VERSION = "summary-chunk-v1";
+    private static final String CHUNK_PROMPT = """
+        You are a professional university teacher.
+        The following text is a fragment of a longer note.
+        Summarize this fragment clearly in English, keeping only its main points.
+        Output only the summary text, nothing else.
+
+        If the fragment contains illegal content, slurs, or anything non-educational,
+        do not summarize. Instead reply exactly with:
+        "Sorry, I cannot summarize this text. Reason: <explanation>"
+
+        Fragment:
+        ---
+        %s
+        ---
+        """;
+
+    private final ChatClient chatClient;
+    private final SummaryChunkRepository summaryChunkRepository;
+    private final AiQuotaService aiQuotaService;
+    private final ExecutorService executor;
+    private final int chunkSize;
+    private final int chunkingThreshold;
+
+    public ChunkSummaryService(ChatClient chatClient,
+                               SummaryChunkRepository summaryChunkRepository,
+                               AiQuotaService aiQuotaService,
+                               @Value("${ai.summary.chunk-size:2000}") int chunkSize,
+                               @Value("${ai.summary.chunking-threshold:4000}") int chunkingThreshold,
+                               @Value("${ai.summary.chunk-parallelism:4}") int parallelism) {
+        this.chatClient = chatClient;
+        this.summaryChunkRepository = summaryChunkRepository;
+        this.aiQuotaService = aiQuotaService;
+        this.chunkSize = chunkSize;
+        this.chunkingThreshold = chunkingThreshold;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                parallelism, parallelism,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(parallelism * 8),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "summary-chunk-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public boolean needsChunking(String content) {
+        return content.length() > chunkingThreshold;
+    }
+
+    public long estimateTokens(String content) {
+        int chunks = splitIntoChunks(content, chunkSize).size();
+        long promptTokens = ((long) chunks * CHUNK_PROMPT.length() + content.length()) / CHARS_PER_TOKEN;
+        return promptTokens + promptTokens / 5;
+    }
+
+    public List<String> summarizeChunks(String content, Long userId, AtomicLong usedTokens) {
+        List<String> chunks = splitIntoChunks(content, chunkSize);
+        List<String> chunkHashes = chunks.stream()
+                .map(chunk -> ContentHasher.hash(CHUNK_PROMPT_VERSION, chunk))
+                .toList();
+
+        Map<String, String> cachedSummaries = new HashMap<>();
+        summaryChunkRepository.findAllByContentHashIn(new HashSet<>(chunkHashes))
+                .forEach(c -> cachedSummaries.putIfAbsent(c.getContentHash(), c.getText()));
+
+        Map<String, CompletableFuture<String>> pendingSummaries = new LinkedHashMap<>();
+        for (int i = 0; i < chunks.size(); i++) {
+            String chunk = chunks.get(i);
+            String chunkHash = chunkHashes.get(i);
+            if (!cachedSummaries.containsKey(chunkHash) && !pendingSummaries.containsKey(chunkHash)) {
+                pendingSummaries.put(chunkHash, CompletableFuture.supplyAsync(() -> callForChunkSummary(chunk, userId, usedTokens), executor));
+            }
+        }
+        log.info("Summarizing {} chunks, {} served from cache", chunks.size(), chunks.size() - pendingSummaries.size());
+
+        List<CompletableFuture<String>> futures = List.copyOf(pendingSummaries.values());
+        futures.forEach(future -> future.whenComplete((text, failure) -> {
+            if (failure != null) {
+                futures.forEach(sibling -> sibling.cancel(false));
+            }
+        }));
+
+        List<SummaryChunk> newChunks = new ArrayList<>();
+        RuntimeException failure = null;
+        for (Map.Entry<String, CompletableFuture<String>> pending : pendingSummaries.entrySet()) {
+            try {
+                String text = joinChunk(pending.getValue());
+                if (text != null) {
+                    cachedSummaries.put(pending.getKey(), text);
+                    newChunks.add(new SummaryChunk(pending.getKey(), text));
+                }
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+        if (!newChunks.isEmpty()) {
+            summaryChunkRepository.saveAll(newChunks);
+        }
+        if (failure != null) {
+            log.warn("Fail - Summarized {} of {} chunks before a chunk failed", newChunks.size(), pendingSummaries.size());
+            throw failure;
+        }
+
+        return chunkHashes.stream().map(cachedSummaries::get).toList();
+    }
+
+    static List<String> splitIntoChunks(String content, int chunkSize) {
+        List<String> chunks = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String paragraph : content.split("\\n\\s*\\n")) {
+            String trimmed = paragraph.strip();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (trimmed.length() > chunkSize) {
+                flush(current, chunks);
+                appendSentences(trimmed, chunkSize, current, chunks);
+                continue;
+            }
+            if (!current.isEmpty() && current.length() + trimmed.length() + 2 > chunkSize) {
+                flush(current, chunks);
+            }
+            if (!current.isEmpty()) {
+                current.append("\n\n");
+            }
+            current.append(trimmed);
+        }
+        flush(current, chunks);
+        return chunks;
+    }
+
+    private static void appendSentences(String paragraph, int chunkSize, StringBuilder current, List<String> chunks) {
+        BreakIterator sentences = BreakIterator.getSentenceInstance(Locale.ROOT);
+        sentences.setText(paragraph);
+        int start = sentences.first();
+        for (int end = sentences.next(); end != BreakIterator.DONE; start = end, end = sentences.next()) {
+            String sentence = paragraph.substring(start, end);
+            while (sentence.length() > chunkSize) {
+                flush(current, chunks);
+                chunks.add(sentence.substring(0, chunkSize).strip());
+                sentence = sentence.substring(chunkSize);
+            }
+            if (current.length() + sentence.length() > chunkSize) {
+                flush(current, chunks);
+            }
+            current.append(sentence);
+        }
+        flush(current, chunks);
+    }
+
+    private static void flush(StringBuilder current, List<String> chunks) {
+        String chunk = current.toString().strip();
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        current.setLength(0);
+    }
+
+    private String callForChunkSummary(String chunk, Long userId, AtomicLong usedTokens) {
+        String prompt = CHUNK_PROMPT.formatted(chunk);
+        ChatResponse response = chatClient
+                .prompt()
+                .user(user -> user.text(prompt))
+                .call()
+                .chatResponse();
+        aiQuotaService.recordUsage(userId, response);
+        usedTokens.addAndGet(ChatResponses.totalTokens(response));
+        String summary = ChatResponses.text(response);
+        if (summary == null || summary.isBlank()) {
+            throw new SummaryGenerationFailedException("Empty chunk summary response");
+        }
+        return summary;
+    }
+
+    private String joinChunk(CompletableFuture<String> future) {
+        try {
+            return future.join();
+        } catch (CancellationException e) {
+            return null;
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof AiUnavailableException aiUnavailable) {
+                throw aiUnavailable;
+            }
+            log.error("Error - Failed to summarize note chunk", e.getCause());
+            throw new SummaryGenerationFailedException("Failed to summarize note");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,185 @@
+package com.notex.student_notes.ai.summary.service;
+
+import com.notex.student_notes.ai.summary.exceptions.SummaryGenerationFailedException;
+import com.notex.student_notes.minio.service.MinioService;
+import com.notex.student_notes.note.model.NoteImage;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.model.Media;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+@Slf4j
+public class ImagePayloadService {
+
+    private static final float JPEG_QUALITY = 0.85f;
+
+    private final MinioService minioService;
+    private final ExecutorService executor;
+    private final int maxDimension;
+    private final long cacheCapacityBytes;
+
+    private final LinkedHashMap<String, ImagePayload> resizedImages = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+
+    public ImagePayloadService(MinioService minioService,
+                               @Value("${ai.summary.image.max-dimension:768}") int maxDimension,
+                               @Value("${ai.summary.image.cache-size-mb:32}") int cacheSizeMb,
+                               @Value("${ai.summary.image.fetch-parallelism:4}") int parallelism) {
+        this.minioService = minioService;
+        this.maxDimension = maxDimension;
+        this.cacheCapacityBytes = cacheSizeMb * 1024L * 1024L;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                parallelism, parallelism,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(parallelism * 8),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "summary-image-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public List<Media> loadImages(List<NoteImage> noteImages) {
+        List<CompletableFuture<ImagePayload>> payloads = noteImages.stream()
+                .map(noteImage -> CompletableFuture.supplyAsync(() -> loadResized(noteImage), executor))
+                .toList();
+        try {
+            return payloads.stream()
+                    .map(CompletableFuture::join)
+                    .map(payload -> new Media(payload.mimeType(), new ByteArrayResource(payload.bytes())))
+                    .toList();
+        } catch (CompletionException e) {
+            log.error("Error - Failed to prepare note images for summary", e.getCause());
+            throw new SummaryGenerationFailedException("Failed to generate summary - Could not load note images");
+        }
+    }
+
+    private ImagePayload loadResized(NoteImage noteImage) {
+        String key = noteImage.getContentKey();
+        ImagePayload cached = getCached(key);
+        if (cached != null) {
+            return cached;
+        }
+        byte[] original = minioService.downloadFile(noteImage.getFilename());
+        byte[] resized = resize(original, maxDimension);
+        ImagePayload payload;
+        if (resized == null) {
+            log.warn("Image {} cannot be decoded for resizing, sending it unchanged", noteImage.getId());
+            payload = new ImagePayload(mimeTypeOf(noteImage.getFilename()), original);
+        } else {
+            log.debug("Success - Resized image {} for summary to {} bytes", noteImage.getId(), resized.length);
+            payload = new ImagePayload(MimeTypeUtils.IMAGE_JPEG, resized);
+        }
+        putCached(key, payload);
+        return payload;
+    }
+
+    static byte[] resize(byte[] original, int maxDimension) {
+        try {
+            BufferedImage source = ImageIO.read(new ByteArrayInputStream(original));
+            if (source == null) {
+                return null;
+            }
+            double scale = Math.min(1.0, (double) maxDimension / Math.max(source.getWidth(), source.getHeight()));
+            int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+            int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+            BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = target.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(source, 0, 0, width, height, Color.WHITE, null);
+            } finally {
+                graphics.dispose();
+            }
+            return encodeJpeg(target);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to resize image", e);
+        }
+    }
+
+    private static MimeType mimeTypeOf(String filename) {
+        String extension = filename.substring(filename.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+        return switch (extension) {
+            case "jpg", "jpeg" -> MimeTypeUtils.IMAGE_JPEG;
+            case "png" -> MimeTypeUtils.IMAGE_PNG;
+            case "gif" -> MimeTypeUtils.IMAGE_GIF;
+            case "webp" -> MimeTypeUtils.parseMimeType("image/webp");
+            default -> MimeTypeUtils.APPLICATION_OCTET_STREAM;
+        };
+    }
+
+    private static byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(JPEG_QUALITY);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ImageOutputStream imageOutput = ImageIO.createImageOutputStream(output)) {
+            writer.setOutput(imageOutput);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return output.toByteArray();
+    }
+
+    private synchronized ImagePayload getCached(String key) {
+        return resizedImages.get(key);
+    }
+
+    private synchronized void putCached(String key, ImagePayload payload) {
+        if (payload.bytes().length > cacheCapacityBytes) {
+            return;
+        }
+        ImagePayload previous = resizedImages.put(key, payload);
+        cachedBytes += payload.bytes().length - (previous != null ? previous.bytes().length : 0);
+        Iterator<Map.Entry<String, ImagePayload>> iterator = resizedImages.entrySet().iterator();
+        while (cachedBytes > cacheCapacityBytes && iterator.hasNext()) {
+            Map.Entry<String, ImagePayload> eldest = iterator.next();
+            cachedBytes -= eldest.getValue().bytes().length;
+            iterator.remove();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private record ImagePayload(MimeType mimeType, byte[] bytes) {
+    }
+}
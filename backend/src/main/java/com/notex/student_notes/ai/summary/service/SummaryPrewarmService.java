@@ -0,0 +1,92 @@
+package com.notex.student_notes.ai.summary.service;
+
+import com.notex.student_notes.ai.summary.model.Summary;
+import com.notex.student_notes.ai.summary.repository.SummaryRepository;
+import com.notex.student_notes.ai.summary.trending.TrendingNotesTracker;
+import com.notex.student_notes.config.ai.CallsLimitExceededException;
+import com.notex.student_notes.note.exceptions.EmptyNoteException;
+import com.notex.student_notes.note.exceptions.NoteDeletedException;
+import com.notex.student_notes.note.exceptions.NoteNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class SummaryPrewarmService {
+
+    private final TrendingNotesTracker trendingNotesTracker;
+    private final SummaryService summaryService;
+    private final SummaryRepository summaryRepository;
+    private final boolean enabled;
+    private final Duration refreshAhead;
+    private final long dailyTokenBudget;
+
+    private LocalDate budgetDay = LocalDate.now();
+    private long tokensSpentToday;
+
+    public SummaryPrewarmService(TrendingNotesTracker trendingNotesTracker,
+                                 SummaryService summaryService,
+                                 SummaryRepository summaryRepository,
+                                 @Value("${ai.summary.prewarm.enabled:true}") boolean enabled,
+                                 @Value("${ai.summary.prewarm.refresh-ahead:PT6H}") Duration refreshAhead,
+                                 @Value("${ai.summary.prewarm.daily-token-budget:200000}") long dailyTokenBudget) {
+        this.trendingNotesTracker = trendingNotesTracker;
+        this.summaryService = summaryService;
+        this.summaryRepository = summaryRepository;
+        this.enabled = enabled;
+        this.refreshAhead = refreshAhead;
+        this.dailyTokenBudget = dailyTokenBudget;
+    }
+
+    @Scheduled(cron = "${ai.summary.prewarm.cron:0 0/30 1-5 * * *}")
+    public synchronized void prewarmTrendingSummaries() {
+        if (!enabled) {
+            return;
+        }
+        if (!budgetDay.equals(LocalDate.now())) {
+            budgetDay = LocalDate.now();
+            tokensSpentToday = 0;
+        }
+
+        List<Long> trendingNoteIds = trendingNotesTracker.getTrendingNotes();
+        if (trendingNoteIds.isEmpty()) {
+            return;
+        }
+        log.info("Pre-warming summaries of {} trending notes", trendingNoteIds.size());
+
+        Map<Long, Summary> summaries = summaryRepository.findAllByNoteIdIn(trendingNoteIds).stream()
+                .collect(Collectors.toMap(summary -> summary.getNote().getId(), Function.identity()));
+        LocalDateTime refreshBefore = LocalDateTime.now().plus(refreshAhead);
+
+        int refreshed = 0;
+        for (Long noteId : trendingNoteIds) {
+            Summary summary = summaries.get(noteId);
+            if (summary != null && summary.getExpiresAt().isAfter(refreshBefore)) {
+                continue;
+            }
+            try {
+                tokensSpentToday += summaryService.refreshSummary(noteId, dailyTokenBudget - tokensSpentToday);
+                refreshed++;
+            } catch (NoteNotFoundException | NoteDeletedException | EmptyNoteException e) {
+                trendingNotesTracker.forget(noteId);
+            } catch (CallsLimitExceededException e) {
+                log.info("Daily summary pre-warming budget reached, {} tokens spent", tokensSpentToday);
+                break;
+            } catch (RuntimeException e) {
+                log.warn("Fail - Stopping summary pre-warming after note {} failed", noteId, e);
+                break;
+            }
+        }
+        log.debug("Success - Pre-warmed {} summaries, {} of {} daily tokens spent", refreshed, tokensSpentToday, dailyTokenBudget);
+    }
+}
@@ -1,26 +1,34 @@
 package com.notex.student_notes.ai.summary.service;
 
+import com.notex.student_notes.ai.cache.ContentHasher;
+import com.notex.student_notes.ai.quota.service.AiQuotaService;
+import com.notex.student_notes.ai.summary.cache.SummaryCache;
 import com.notex.student_notes.ai.summary.exceptions.SummaryGenerationFailedException;
 import com.notex.student_notes.ai.summary.model.Summary;
 import com.notex.student_notes.ai.summary.repository.SummaryRepository;
 import com.notex.student_notes.config.ai.AiCallsLimitingService;
+import com.notex.student_notes.config.ai.AiUnavailableException;
+import com.notex.student_notes.config.ai.CallsLimitExceededException;
+import com.notex.student_notes.config.ai.ChatResponses;
 import com.notex.student_notes.note.exceptions.EmptyNoteException;
 import com.notex.student_notes.note.exceptions.NoteDeletedException;
 import com.notex.student_notes.note.exceptions.NoteNotFoundException;
 import com.notex.student_notes.note.model.Note;
 import com.notex.student_notes.note.model.NoteImage;
 import com.notex.student_notes.note.repository.NoteRepository;
+import com.notex.student_notes.user.model.User;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.model.Media;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.net.MalformedURLException;
-import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 @RequiredArgsConstructor
@@ -31,7 +39,14 @@ public class SummaryService {
     private final NoteRepository noteRepository;
     private final SummaryRepository summaryRepository;
     private final AiCallsLimitingService aiCallsLimitingService;
-
+    private final ChunkSummaryService chunkSummaryService;
+    private final AiQuotaService aiQuotaService;
+    private final ImagePayloadService imagePayloadService;
+    private final SummaryCache summaryCache;
+
+    private static final int CHARS_PER_TOKEN = 4;
+    private static final int TOKENS_PER_IMAGE = 1000;
+    private static final String SUMMARY_PROMPT_VERSION = "summary-v1";
     private static final String SUMMARY_PROMPT = """
         You are a professional university teacher.
         Summarize the following note clearly and comprehensively in English,
@@ -54,42 +69,132 @@ public class SummaryService {
         ---
         """;
 
-    @Cacheable(value = "summaries", key = "#id")
+    private static final String REDUCE_PROMPT = """
+        You are a professional university teacher.
+        Below are summaries of consecutive fragments of one note.
+        Merge them into a single summary written clearly and comprehensively in English,
+        so that it is easy to understand for a university student.
+
+        Follow these rules strictly:
+        - The summary must focus only on the main points.
+        - Do not include every detail, only the essential ideas.
+        - Do not repeat points that appear in more than one fragment summary.
+        - Output only the summary text, nothing else.
+
+        If any fragment summary starts with "Sorry, I cannot summarize this text",
+        do not summarize. Instead reply exactly with that fragment summary.
+
+        Fragment summaries:
+        ---
+        %s
+        ---
+        """;
+
     @Transactional
-    public String summarizeNote(Long id, String address){
+    public String summarizeNote(Long id, User user){
         log.info("Summarizing note {}", id);
-        Optional<Summary> summary = summaryRepository.findByNoteId(id);
-        if(summary.isPresent()){
-            Summary existingSummary = summary.get();
-            if(existingSummary.getExpiresAt().isBefore(LocalDateTime.now())){
-                log.info("Note {} was not summarized in the last 24 hours. Re-summarizing.", id);
-                summaryRepository.deleteByNoteId(id);
-                summaryRepository.flush();
-                log.info("Note {} deleted from cache", id);
-            }else{
-                log.debug("Success - Note {} already summarized", id);
-                return existingSummary.getText();
-            }
+        long cacheGeneration = summaryCache.generation();
+        Optional<String> cachedSummary = summaryCache.get(id);
+        if (cachedSummary.isPresent()){
+            log.debug("Success - Summary of note {} served from cache", id);
+            return cachedSummary.get();
         }
+        Note note = getNoteIfValid(id);
+        Summary summary = summarize(note, user.getId(), () -> {
+            aiQuotaService.checkQuota(user.getId());
+            aiCallsLimitingService.checkAiCalls(user.getUsername());
+        }, new AtomicLong());
+        summaryCache.put(id, summary.getText(), summary.getExpiresAt(), cacheGeneration);
+        return summary.getText();
+    }
 
+    @Transactional
+    public long refreshSummary(Long id, long tokenBudget){
+        log.info("Refreshing summary of note {}", id);
+        long cacheGeneration = summaryCache.generation();
         Note note = getNoteIfValid(id);
+        long estimatedTokens = estimateTokens(note);
+        AtomicLong spentTokens = new AtomicLong();
+        AtomicLong usedTokens = new AtomicLong();
+        Summary summary = summarize(note, null, () -> {
+            if (estimatedTokens > tokenBudget){
+                log.warn("Fail - Refreshing note {} needs about {} tokens, {} left in budget", id, estimatedTokens, tokenBudget);
+                throw new CallsLimitExceededException("Summary token budget exhausted");
+            }
+            spentTokens.set(estimatedTokens);
+        }, usedTokens);
+        summaryCache.put(id, summary.getText(), summary.getExpiresAt(), cacheGeneration);
+        if (usedTokens.get() > 0){
+            log.debug("Refreshing note {} used {} tokens, {} estimated", id, usedTokens.get(), estimatedTokens);
+            return usedTokens.get();
+        }
+        return spentTokens.get();
+    }
 
-        aiCallsLimitingService.checkAiCalls(address);
+    private Summary summarize(Note note, Long userId, Runnable beforeModelCall, AtomicLong usedTokens){
+        String contentHash = computeContentHash(note);
 
-        String newSummaryText = generateSummary(note);
-        log.info("Note {} summarized successfully.", id);
-        return newSummaryText;
+        Summary summary = summaryRepository.findByNoteId(note.getId()).orElseGet(Summary::new);
+        if (contentHash.equals(summary.getContentHash())){
+            summary.renew();
+            log.debug("Success - Note {} already summarized", note.getId());
+            return summary;
+        }
+
+        Optional<Summary> matchingSummary = summaryRepository.findFirstByContentHash(contentHash);
+        if (matchingSummary.isPresent()){
+            log.info("Note {} has the same content as an already summarized note. Reusing summary.", note.getId());
+            return saveSummary(summary, note, contentHash, matchingSummary.get().getText());
+        }
+
+        beforeModelCall.run();
+
+        String generatedText;
+        try {
+            generatedText = callForSummary(note, userId, usedTokens);
+        } catch (AiUnavailableException e){
+            if (summary.getText() == null){
+                throw e;
+            }
+            log.warn("Fail - AI unavailable, returning outdated summary of note {}", note.getId());
+            throw new AiUnavailableException(e.getMessage(), summary.getText());
+        }
+        Summary newSummary = saveSummary(summary, note, contentHash, generatedText);
+        log.info("Note {} summarized successfully.", note.getId());
+        return newSummary;
     }
 
-    private String generateSummary(Note note){
-        String newSummaryText = callForSummary(note);
-        Summary newSummary = new Summary();
-        newSummary.setNote(note);
-        newSummary.setText(newSummaryText);
-        summaryRepository.save(newSummary);
-        return newSummaryText;
+    private long estimateTokens(Note note){
+        String content = note.getContent();
+        long imageTokens = (long) note.getImages().size() * TOKENS_PER_IMAGE;
+        if (!chunkSummaryService.needsChunking(content)){
+            long promptTokens = (SUMMARY_PROMPT.length() + content.length()) / CHARS_PER_TOKEN;
+            return promptTokens + imageTokens + promptTokens / 5;
+        }
+        long mapTokens = chunkSummaryService.estimateTokens(content);
+        long reducePromptTokens = REDUCE_PROMPT.length() / CHARS_PER_TOKEN + content.length() / CHARS_PER_TOKEN / 5;
+        return mapTokens + reducePromptTokens + imageTokens + reducePromptTokens / 5;
     }
 
+    private Summary saveSummary(Summary summary, Note note, String contentHash, String text){
+        summary.setNote(note);
+        summary.setText(text);
+        summary.setContentHash(contentHash);
+        summary.renew();
+        summaryRepository.save(summary);
+        return summary;
+    }
+
+    private String computeContentHash(Note note){
+        List<String> parts = new ArrayList<>();
+        parts.add(SUMMARY_PROMPT_VERSION);
+        parts.add(note.getContent());
+        note.getImages().stream()
+                .map(NoteImage::getContentKey)
+                .sorted()
+                .forEach(parts::add);
+        return ContentHasher.hash(parts.toArray(String[]::new));
+    }
 
     private Note getNoteIfValid(Long id){
         Note note = noteRepository.findById(id).orElseThrow(()->{
@@ -107,21 +212,28 @@ public class SummaryService {
         return note;
     }
 
-    private String callForSummary(Note note){
+    private String callForSummary(Note note, Long userId, AtomicLong usedTokens){
         String newSummaryText;
-        List<NoteImage> noteImages = note.getImages();
+        List<Media> images = note.getImages().isEmpty() ? List.of() : imagePayloadService.loadImages(note.getImages());
         try {
-            newSummaryText = chatClient
+            String prompt = buildPrompt(note.getContent(), userId, usedTokens);
+            ChatResponse response = chatClient
                     .prompt()
                     .user(userSpec ->{
-                        userSpec.text(String.format(SUMMARY_PROMPT, note.getContent()));
+                        userSpec.text(prompt);
 
-                        if(!noteImages.isEmpty()){
-                            attachImagesToUserSpec(userSpec, noteImages);
+                        if(!images.isEmpty()){
+                            userSpec.media(images.toArray(Media[]::new));
                         }
                     })
                     .call()
-                    .content();
+                    .chatResponse();
+            aiQuotaService.recordUsage(userId, response);
+            usedTokens.addAndGet(ChatResponses.totalTokens(response));
+            newSummaryText = ChatResponses.text(response);
+        }catch (AiUnavailableException e){
+            log.warn("Fail - AI unavailable while summarizing note {}", note.getId());
+            throw e;
         }catch (Exception e){
             log.error("Error - Failed to summarize note {}", note.getId(), e);
             throw new SummaryGenerationFailedException("Failed to summarize note");
@@ -129,14 +241,11 @@ public class SummaryService {
         return newSummaryText;
     }
 
-    private void attachImagesToUserSpec(ChatClient.PromptUserSpec userSpec, List<NoteImage> noteImages){
-        for (NoteImage noteImage : noteImages) {
-            try {
-                userSpec.media(noteImage.getMedia());
-            } catch (MalformedURLException e) {
-                log.error("Error - Failed to attach image {} to user spec", noteImage.getId(), e);
-                throw new SummaryGenerationFailedException("Failed to generate summary - Malformed URL");
-            }
+    private String buildPrompt(String content, Long userId, AtomicLong usedTokens){
+        if (!chunkSummaryService.needsChunking(content)){
+            return String.format(SUMMARY_PROMPT, content);
         }
+        List<String> chunkSummaries = chunkSummaryService.summarizeChunks(content, userId, usedTokens);
+        return String.format(REDUCE_PROMPT, String.join("\n\n", chunkSummaries));
     }
 }
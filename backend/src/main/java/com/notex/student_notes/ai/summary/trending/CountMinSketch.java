@@ -0,0 +1,56 @@
+package com.notex.student_notes.ai.summary.trending;
+
+public class CountMinSketch {
+
+    private static final long[] ROW_SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+            0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x27D4EB2F165667C5L, 0x94D049BB133111EBL
+    };
+
+    private final int width;
+    private final int[][] counters;
+
+    public CountMinSketch(int depth, int width) {
+        if (depth <= 0 || depth > ROW_SEEDS.length || width <= 0) {
+            throw new IllegalArgumentException("Sketch depth must be between 1 and " + ROW_SEEDS.length + " and width must be positive");
+        }
+        this.width = width;
+        this.counters = new int[depth][width];
+    }
+
+    public int add(long item) {
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < counters.length; row++) {
+            int column = column(item, row);
+            if (counters[row][column] < Integer.MAX_VALUE) {
+                counters[row][column]++;
+            }
+            estimate = Math.min(estimate, counters[row][column]);
+        }
+        return estimate;
+    }
+
+    public int estimate(long item) {
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < counters.length; row++) {
+            estimate = Math.min(estimate, counters[row][column(item, row)]);
+        }
+        return estimate;
+    }
+
+    public void halve() {
+        for (int[] row : counters) {
+            for (int column = 0; column < row.length; column++) {
+                row[column] >>>= 1;
+            }
+        }
+    }
+
+    private int column(long item, int row) {
+        long hash = item * ROW_SEEDS[row];
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        return (int) Math.floorMod(hash, (long) width);
+    }
+}
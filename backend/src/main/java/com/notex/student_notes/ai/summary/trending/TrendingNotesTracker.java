@@ -0,0 +1,61 @@
+package com.notex.student_notes.ai.summary.trending;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@Slf4j
+public class TrendingNotesTracker {
+
+    private static final int SKETCH_DEPTH = 4;
+    private static final int SKETCH_WIDTH = 4096;
+
+    private final CountMinSketch sketch = new CountMinSketch(SKETCH_DEPTH, SKETCH_WIDTH);
+    private final Map<Long, Integer> trendingNotes = new HashMap<>();
+    private final int capacity;
+
+    public TrendingNotesTracker(@Value("${ai.summary.prewarm.top-k:50}") int capacity) {
+        this.capacity = capacity;
+    }
+
+    public synchronized void recordView(Long noteId) {
+        int views = sketch.add(noteId);
+        if (trendingNotes.containsKey(noteId) || trendingNotes.size() < capacity) {
+            trendingNotes.put(noteId, views);
+            return;
+        }
+        Map.Entry<Long, Integer> coldest = trendingNotes.entrySet().stream()
+                .min(Map.Entry.comparingByValue())
+                .orElseThrow();
+        if (views > coldest.getValue()) {
+            trendingNotes.remove(coldest.getKey());
+            trendingNotes.put(noteId, views);
+        }
+    }
+
+    public synchronized List<Long> getTrendingNotes() {
+        return trendingNotes.entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue(Comparator.reverseOrder()))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    public synchronized void forget(Long noteId) {
+        trendingNotes.remove(noteId);
+    }
+
+    @Scheduled(fixedRateString = "${ai.summary.prewarm.decay-interval:PT1H}", initialDelayString = "${ai.summary.prewarm.decay-interval:PT1H}")
+    public synchronized void decay() {
+        sketch.halve();
+        trendingNotes.replaceAll((noteId, views) -> sketch.estimate(noteId));
+        trendingNotes.values().removeIf(views -> views == 0);
+        log.debug("Decayed note view counts, {} notes still trending", trendingNotes.size());
+    }
+}
@@ -1,16 +1,27 @@
 package com.notex.student_notes.ai.translations.controller;
 
+import com.notex.student_notes.ai.translations.dto.BatchTranslationDto;
 import com.notex.student_notes.ai.translations.language.Language;
 import com.notex.student_notes.ai.translations.service.TranslationService;
 import com.notex.student_notes.config.ratelimiting.RateLimitingService;
 import com.notex.student_notes.group.dto.ApiResponse;
+import com.notex.student_notes.user.model.User;
+import com.notex.student_notes.user.service.UserService;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.constraints.NotEmpty;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Map;
+
 @RestController
+@Validated
 @Slf4j
 @RequiredArgsConstructor
 @RequestMapping("/notes/{noteId}/translate")
@@ -18,13 +29,28 @@ public class TranslationController {
 
     private final TranslationService translationService;
     private final RateLimitingService rateLimitingService;
+    private final UserService userService;
 
     @GetMapping
     public ResponseEntity<ApiResponse> translateNote(@PathVariable Long noteId, @RequestParam(required = true) Language language, HttpServletRequest request){
         String remoteAddress = request.getRemoteAddr();
         log.info("GET /notes/{}/translate: Translating note.", noteId);
         rateLimitingService.checkRateLimit(remoteAddress, "/notes/{noteId}/translate", 5, 1);
-        String translatedText = translationService.translateNote(noteId, language, remoteAddress);
+        String translatedText = translationService.translateNote(noteId, language, getCurrentUser());
         return ResponseEntity.ok(new ApiResponse(translatedText));
     }
+
+    @GetMapping("/batch")
+    public ResponseEntity<BatchTranslationDto> translateNoteBatch(@PathVariable Long noteId, @RequestParam @NotEmpty List<Language> languages, HttpServletRequest request){
+        String remoteAddress = request.getRemoteAddr();
+        log.info("GET /notes/{}/translate/batch: Translating note to {} languages.", noteId, languages.size());
+        rateLimitingService.checkRateLimit(remoteAddress, "/notes/{noteId}/translate/batch", 5, 1);
+        Map<Language, String> translations = translationService.translateNoteBatch(noteId, languages, getCurrentUser());
+        return ResponseEntity.ok(new BatchTranslationDto(noteId, translations));
+    }
+
+    private User getCurrentUser(){
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return userService.getUserEntityByUsername(auth.getName());
+    }
 }
@@ -0,0 +1,8 @@
+package com.notex.student_notes.ai.translations.dto;
+
+import com.notex.student_notes.ai.translations.language.Language;
+
+import java.util.Map;
+
+public record BatchTranslationDto(Long noteId, Map<Language, String> translations) {
+}
@@ -0,0 +1,11 @@
+package com.notex.student_notes.ai.translations.dto;
+
+import com.notex.student_notes.ai.translations.language.Language;
+
+import java.util.List;
+
+public record BatchTranslationResult(List<LanguageTranslation> translations) {
+
+    public record LanguageTranslation(Language language, String text) {
+    }
+}
@@ -13,7 +13,10 @@ import java.time.LocalDateTime;
 @Setter
 @NoArgsConstructor
 @Entity
-@Table(name = "translations")
+@Table(name = "translations", indexes = {
+        @Index(name = "idx_translations_content_hash", columnList = "content_hash"),
+        @Index(name = "idx_translations_note_id", columnList = "note_id")
+})
 public class Translation {
 
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -30,10 +33,20 @@ public class Translation {
     @Enumerated(EnumType.STRING)
     private Language language;
 
+    @Column(length = 64)
+    private String contentHash;
+
     private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
 
     @PrePersist
     protected void onCreate() {
         this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
     }
 }
@@ -2,20 +2,61 @@ package com.notex.student_notes.ai.translations.repository;
 
 import com.notex.student_notes.ai.translations.language.Language;
 import com.notex.student_notes.ai.translations.model.Translation;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TranslationRepository extends JpaRepository<Translation, Long> {
 
     Optional<Translation> findByNoteId(Long noteId);
+    List<Translation> findAllByNoteId(Long noteId);
     Optional<Translation> findByNoteIdAndLanguage(Long noteId, Language language);
+    Optional<Translation> findFirstByContentHash(String contentHash);
+    List<Translation> findAllByContentHashIn(Collection<String> contentHashes);
 
     @Transactional
     @Modifying
     void deleteByNoteIdAndLanguage(Long noteId, Language language);
+
+    @Query("select t.id as id, t.note.id as noteId, t.language as language from Translation t where t.note.deleted = true")
+    List<TranslationRef> findOfDeletedNotes(Pageable pageable);
+
+    @Query("select t.id as id, t.note.id as noteId, t.language as language, t.contentHash as contentHash, " +
+            "t.note.content as noteContent from Translation t where t.id > :afterId and t.note.updatedAt < :editedBefore " +
+            "and coalesce(t.updatedAt, t.createdAt) < t.note.updatedAt order by t.id")
+    List<EditedTranslationRef> findOlderThanNoteEdit(@Param("afterId") Long afterId,
+                                                     @Param("editedBefore") LocalDateTime editedBefore,
+                                                     Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("update Translation t set t.updatedAt = :checkedAt where t.id in :ids")
+    int markCheckedByIdIn(@Param("ids") Collection<Long> ids, @Param("checkedAt") LocalDateTime checkedAt);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Translation t where t.id in :ids and exists (select n.id from Note n where n = t.note " +
+            "and (n.deleted = true or coalesce(t.updatedAt, t.createdAt) < n.updatedAt))")
+    int deleteSupersededByIdIn(@Param("ids") Collection<Long> ids);
+
+    interface TranslationRef {
+        Long getId();
+        Long getNoteId();
+        Language getLanguage();
+    }
+
+    interface EditedTranslationRef extends TranslationRef {
+        String getContentHash();
+        String getNoteContent();
+    }
 }
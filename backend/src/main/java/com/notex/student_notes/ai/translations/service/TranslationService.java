@@ -1,23 +1,44 @@
 package com.notex.student_notes.ai.translations.service;
 
+import com.notex.student_notes.ai.cache.ContentHasher;
+import com.notex.student_notes.ai.quota.service.AiQuotaService;
+import com.notex.student_notes.ai.translations.dto.BatchTranslationResult;
 import com.notex.student_notes.ai.translations.exceptions.TranslationException;
 import com.notex.student_notes.ai.translations.language.Language;
 import com.notex.student_notes.ai.translations.model.Translation;
 import com.notex.student_notes.ai.translations.repository.TranslationRepository;
 import com.notex.student_notes.config.ai.AiCallsLimitingService;
+import com.notex.student_notes.config.ai.AiUnavailableException;
+import com.notex.student_notes.config.ai.ChatResponses;
 import com.notex.student_notes.note.exceptions.EmptyNoteException;
 import com.notex.student_notes.note.exceptions.NoteDeletedException;
 import com.notex.student_notes.note.exceptions.NoteNotFoundException;
 import com.notex.student_notes.note.model.Note;
 import com.notex.student_notes.note.repository.NoteRepository;
+import com.notex.student_notes.user.model.User;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.client.ResponseEntity;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -28,7 +49,10 @@ public class TranslationService {
     private final NoteRepository noteRepository;
     private final ChatClient chatClient;
     private final AiCallsLimitingService aiCallsLimitingService;
+    private final AiQuotaService aiQuotaService;
+    private final CacheManager cacheManager;
 
+    private static final String TRANSLATION_PROMPT_VERSION = "translation-v1";
     private static final String TRANSLATION_PROMPT =
         """
         You are a professional translator.
@@ -50,43 +74,192 @@ public class TranslationService {
         
         """;
 
+    private static final String BATCH_TRANSLATION_PROMPT =
+        """
+        You are a professional translator.
+        Your task is to translate the following note from it's original language to each of these languages: %s.
+        
+        Follow these rules strictly:
+        - Every translation must be accurate and complete.
+        - Translate whole text, not parts of it.
+        - Maintain the original meaning and context.
+        - Use proper grammar and vocabulary for each target language.
+        - Return exactly one translation per requested language, identified by the language code given in brackets.
+        - If the note contains any illegal content, slurs, or anything non-educational,
+          do not translate. Instead use exactly this text for every language:
+          "Sorry, I cannot translate this text. Reason: <explanation>"
+        Note to translate:
+        ---
+        %s
+        ---
+        
+        """;
+
     @Transactional
     @Cacheable(value = "translations", key = "T(String).valueOf(#noteId) + ':' + #language")
-    public String translateNote(Long noteId, Language language, String address){
-        Optional<Translation> translation = translationRepository.findByNoteIdAndLanguage(noteId, language);
-        if (translation.isPresent()){
-            Translation existingTranslation = translation.get();
-            if (existingTranslation.getCreatedAt().isAfter(existingTranslation.getNote().getUpdatedAt())){
-                return existingTranslation.getTranslatedText();
-            }else{
-                translationRepository.deleteByNoteIdAndLanguage(noteId, language);
-                translationRepository.flush();
-                log.info("Existing translation for note {} in language {} is outdated. Generating a new one.", noteId, language);
-            }
+    public String translateNote(Long noteId, Language language, User user){
+        Note note = getNoteIfValid(noteId);
+        String contentHash = computeContentHash(note, language);
+
+        Translation translation = translationRepository.findByNoteIdAndLanguage(noteId, language).orElseGet(Translation::new);
+        if (contentHash.equals(translation.getContentHash())){
+            return translation.getTranslatedText();
         }
 
-        Note note = getNoteIfValid(noteId);
+        Optional<Translation> matchingTranslation = translationRepository.findFirstByContentHash(contentHash);
+        if (matchingTranslation.isPresent()){
+            log.info("Note {} has the same content as an already translated note. Reusing translation to language {}.", noteId, language);
+            return saveTranslation(translation, note, language, contentHash, matchingTranslation.get().getTranslatedText());
+        }
 
-        aiCallsLimitingService.checkAiCalls(address);
+        aiQuotaService.checkQuota(user.getId());
+        aiCallsLimitingService.checkAiCalls(user.getUsername());
 
-        String translationText = getTranslation(note, language);
+        String generatedText;
+        try {
+            generatedText = callForTranslation(note.getContent(), language, user.getId());
+        } catch (AiUnavailableException e){
+            if (translation.getTranslatedText() == null){
+                throw e;
+            }
+            log.warn("Fail - AI unavailable, returning outdated translation of note {} to language {}", noteId, language);
+            throw new AiUnavailableException(e.getMessage(), translation.getTranslatedText());
+        }
+        String translationText = saveTranslation(translation, note, language, contentHash, generatedText);
 
         log.debug("Success - Note {} translated to language {}", noteId, language);
         return translationText;
     }
 
-    private String getTranslation(Note note, Language language){
-        String translationText = callForTranslation(note.getContent(), language);
-        Translation newTranslation = new Translation();
-        newTranslation.setNote(note);
-        newTranslation.setLanguage(language);
-        newTranslation.setTranslatedText(translationText);
-        translationRepository.save(newTranslation);
-        return translationText;
+    @Transactional
+    public Map<Language, String> translateNoteBatch(Long noteId, Collection<Language> languages, User user){
+        log.info("Translating note {} to languages {}", noteId, languages);
+        Note note = getNoteIfValid(noteId);
+
+        Map<Language, Translation> noteTranslations = new EnumMap<>(Language.class);
+        translationRepository.findAllByNoteId(noteId)
+                .forEach(t -> noteTranslations.put(t.getLanguage(), t));
+
+        Map<Language, String> translations = new EnumMap<>(Language.class);
+        Map<Language, String> staleHashes = new EnumMap<>(Language.class);
+        for (Language language : EnumSet.copyOf(languages)){
+            String contentHash = computeContentHash(note, language);
+            Translation translation = noteTranslations.get(language);
+            if (translation != null && contentHash.equals(translation.getContentHash())){
+                translations.put(language, translation.getTranslatedText());
+            }else{
+                staleHashes.put(language, contentHash);
+            }
+        }
+
+        Map<String, String> matchingTexts = new HashMap<>();
+        if (!staleHashes.isEmpty()){
+            translationRepository.findAllByContentHashIn(staleHashes.values())
+                    .forEach(t -> matchingTexts.putIfAbsent(t.getContentHash(), t.getTranslatedText()));
+        }
+
+        Map<Language, String> writtenTexts = new EnumMap<>(Language.class);
+        Set<Language> missingLanguages = EnumSet.noneOf(Language.class);
+        staleHashes.forEach((language, contentHash) -> {
+            String matchingText = matchingTexts.get(contentHash);
+            if (matchingText != null){
+                writtenTexts.put(language, matchingText);
+            }else{
+                missingLanguages.add(language);
+            }
+        });
+
+        if (!missingLanguages.isEmpty()){
+            aiQuotaService.checkQuota(user.getId());
+            aiCallsLimitingService.checkAiCalls(user.getUsername());
+            Map<Language, String> generated;
+            try {
+                generated = missingLanguages.size() == 1
+                        ? callForSingleTranslation(note.getContent(), missingLanguages.iterator().next(), user.getId())
+                        : callForTranslations(note.getContent(), missingLanguages, user.getId());
+            } catch (AiUnavailableException e){
+                translations.putAll(writtenTexts);
+                missingLanguages.stream()
+                        .filter(noteTranslations::containsKey)
+                        .forEach(language -> translations.put(language, noteTranslations.get(language).getTranslatedText()));
+                if (translations.isEmpty()){
+                    throw e;
+                }
+                log.warn("Fail - AI unavailable, returning available translations of note {}", noteId);
+                throw new AiUnavailableException(e.getMessage(), translations);
+            }
+            missingLanguages.forEach(language -> writtenTexts.put(language, generated.get(language)));
+        }
+
+        List<Translation> translationsToSave = new ArrayList<>();
+        writtenTexts.forEach((language, text) -> {
+            Translation translation = noteTranslations.getOrDefault(language, new Translation());
+            applyTranslation(translation, note, language, staleHashes.get(language), text);
+            translationsToSave.add(translation);
+        });
+        translationRepository.saveAll(translationsToSave);
+        cacheAfterCommit(noteId, writtenTexts);
+        translations.putAll(writtenTexts);
+        log.debug("Success - Note {} translated to {} languages, {} generated", noteId, translations.size(), missingLanguages.size());
+        return translations;
+    }
+
+    public void evictCachedAfterCommit(Long noteId){
+        Cache cache = cacheManager.getCache("translations");
+        if (cache == null){
+            return;
+        }
+        afterCommit(() -> {
+            for (Language language : Language.values()){
+                cache.evict(noteId + ":" + language);
+            }
+            log.debug("Success - Evicted cached translations of note {}", noteId);
+        });
+    }
+
+    private void cacheAfterCommit(Long noteId, Map<Language, String> texts){
+        Cache cache = cacheManager.getCache("translations");
+        if (cache == null || texts.isEmpty()){
+            return;
+        }
+        afterCommit(() -> texts.forEach((language, text) -> cache.put(noteId + ":" + language, text)));
+    }
+
+    private void afterCommit(Runnable action){
+        if (!TransactionSynchronizationManager.isSynchronizationActive()){
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private String saveTranslation(Translation translation, Note note, Language language, String contentHash, String text){
+        applyTranslation(translation, note, language, contentHash, text);
+        translationRepository.save(translation);
+        return text;
+    }
+
+    private void applyTranslation(Translation translation, Note note, Language language, String contentHash, String text){
+        translation.setNote(note);
+        translation.setLanguage(language);
+        translation.setContentHash(contentHash);
+        translation.setTranslatedText(text);
     }
 
+    private String computeContentHash(Note note, Language language){
+        return contentHash(note.getContent(), language);
+    }
 
-    private String callForTranslation(String noteText, Language language){
+    public static String contentHash(String noteContent, Language language){
+        return ContentHasher.hash(TRANSLATION_PROMPT_VERSION, language.name(), noteContent);
+    }
+
+    private String callForTranslation(String noteText, Language language, Long userId){
         String translation;
         try{
             String prompt = TRANSLATION_PROMPT.formatted(
@@ -94,21 +267,66 @@ public class TranslationService {
                     language.getDisplayName(),
                     noteText
             );
-            translation = chatClient
+            ChatResponse response = chatClient
                     .prompt()
                     .user(user -> user.text(prompt))
                     .call()
-                    .content();
+                    .chatResponse();
+            aiQuotaService.recordUsage(userId, response);
+            translation = ChatResponses.text(response);
             if (translation == null || translation.isBlank()){
                 throw new TranslationException("Empty translation response");
             }
             return translation;
+        }catch (AiUnavailableException e){
+            throw e;
         }catch (Exception e){
             log.warn("Fail - Failed to translate note {} to language {}", noteText, language);
             throw new TranslationException("Failed to translate note");
         }
     }
 
+    private Map<Language, String> callForSingleTranslation(String noteText, Language language, Long userId){
+        Map<Language, String> translation = new EnumMap<>(Language.class);
+        translation.put(language, callForTranslation(noteText, language, userId));
+        return translation;
+    }
+
+    private Map<Language, String> callForTranslations(String noteText, Set<Language> languages, Long userId){
+        try{
+            String languageList = languages.stream()
+                    .map(language -> language.getDisplayName() + " (" + language.name() + ")")
+                    .collect(Collectors.joining(", "));
+            String prompt = BATCH_TRANSLATION_PROMPT.formatted(languageList, noteText);
+            ResponseEntity<ChatResponse, BatchTranslationResult> response = chatClient
+                    .prompt()
+                    .user(user -> user.text(prompt))
+                    .call()
+                    .responseEntity(BatchTranslationResult.class);
+            aiQuotaService.recordUsage(userId, response.response());
+            BatchTranslationResult result = response.entity();
+            if (result == null || result.translations() == null){
+                throw new TranslationException("Empty translation response");
+            }
+            Map<Language, String> translations = new EnumMap<>(Language.class);
+            for (BatchTranslationResult.LanguageTranslation translation : result.translations()){
+                if (translation.language() != null && languages.contains(translation.language())
+                        && translation.text() != null && !translation.text().isBlank()){
+                    translations.put(translation.language(), translation.text());
+                }
+            }
+            if (!translations.keySet().containsAll(languages)){
+                throw new TranslationException("Translation response is missing languages");
+            }
+            return translations;
+        }catch (AiUnavailableException e){
+            throw e;
+        }catch (Exception e){
+            log.warn("Fail - Failed to translate note to languages {}", languages, e);
+            throw new TranslationException("Failed to translate note");
+        }
+    }
+
     private Note getNoteIfValid(Long noteId){
         Note note = noteRepository.findById(noteId).orElseThrow(()->{
             log.warn("Fail - Note {} does not exist.", noteId);
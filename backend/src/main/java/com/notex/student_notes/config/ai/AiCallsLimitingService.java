@@ -15,11 +15,11 @@ public class AiCallsLimitingService {
     private final Map<String, List<LocalDateTime>> aiCalls = new ConcurrentHashMap<>();
     private static final int MAX_CALLS_PER_MINUTE = 3;
 
-    public void checkAiCalls(String address){
-        if (address == null){
-            throw new IllegalArgumentException("Address must not be null");
+    public void checkAiCalls(String key){
+        if (key == null){
+            throw new IllegalArgumentException("Key must not be null");
         }
-        List<LocalDateTime> timestamps = aiCalls.computeIfAbsent(address, k -> new ArrayList<>());
+        List<LocalDateTime> timestamps = aiCalls.computeIfAbsent(key, k -> new ArrayList<>());
         LocalDateTime cutoff = LocalDateTime.now().minusMinutes(1);
 
         timestamps.removeIf(time -> time.isBefore(cutoff));
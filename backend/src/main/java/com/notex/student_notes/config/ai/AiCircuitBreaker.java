@@ -0,0 +1,111 @@
+package com.notex.student_notes.config.ai;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@Slf4j
+public class AiCircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final boolean[] outcomes;
+    private final int failureRateThreshold;
+    private final Duration openDuration;
+
+    private State state = State.CLOSED;
+    private Instant openedAt;
+    private boolean trialCallInFlight;
+    private int recordedCalls;
+    private int failedCalls;
+    private int nextOutcome;
+
+    public AiCircuitBreaker(int slidingWindowSize, int failureRateThreshold, Duration openDuration) {
+        if (slidingWindowSize <= 0 || failureRateThreshold <= 0 || failureRateThreshold > 100) {
+            throw new IllegalArgumentException("Sliding window size must be positive and failure rate threshold must be between 1 and 100");
+        }
+        this.outcomes = new boolean[slidingWindowSize];
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDuration = openDuration;
+    }
+
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (Instant.now().isBefore(openedAt.plus(openDuration))) {
+                return false;
+            }
+            log.info("AI circuit breaker half-open, allowing a trial call");
+            state = State.HALF_OPEN;
+            trialCallInFlight = false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialCallInFlight) {
+                return false;
+            }
+            trialCallInFlight = true;
+        }
+        return true;
+    }
+
+    public synchronized void releasePermission() {
+        if (state == State.HALF_OPEN) {
+            trialCallInFlight = false;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            log.info("AI circuit breaker closed after a successful trial call");
+            state = State.CLOSED;
+            resetWindow();
+            return;
+        }
+        record(false);
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        record(true);
+        if (state == State.CLOSED && recordedCalls == outcomes.length
+                && failedCalls * 100 >= failureRateThreshold * recordedCalls) {
+            open();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void record(boolean failed) {
+        if (recordedCalls == outcomes.length) {
+            if (outcomes[nextOutcome]) {
+                failedCalls--;
+            }
+        } else {
+            recordedCalls++;
+        }
+        outcomes[nextOutcome] = failed;
+        if (failed) {
+            failedCalls++;
+        }
+        nextOutcome = (nextOutcome + 1) % outcomes.length;
+    }
+
+    private void open() {
+        log.warn("AI circuit breaker opened for {}", openDuration);
+        state = State.OPEN;
+        openedAt = Instant.now();
+        trialCallInFlight = false;
+        resetWindow();
+    }
+
+    private void resetWindow() {
+        recordedCalls = 0;
+        failedCalls = 0;
+        nextOutcome = 0;
+    }
+}
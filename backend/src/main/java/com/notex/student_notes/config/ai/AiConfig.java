@@ -1,19 +1,43 @@
 package com.notex.student_notes.config.ai;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.openai.OpenAiChatModel;
 import org.springframework.ai.openai.api.OpenAiApi;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.time.Duration;
 
 @Configuration
 @Slf4j
 public class AiConfig {
 
+    @Value("${ai.resilience.max-concurrent-calls:8}")
+    private int maxConcurrentCalls;
+
+    @Value("${ai.resilience.max-wait:PT0.5S}")
+    private Duration maxWait;
+
+    @Value("${ai.resilience.call-timeout:PT30S}")
+    private Duration callTimeout;
+
+    @Value("${ai.resilience.sliding-window-size:10}")
+    private int slidingWindowSize;
+
+    @Value("${ai.resilience.failure-rate-threshold:50}")
+    private int failureRateThreshold;
+
+    @Value("${ai.resilience.open-duration:PT30S}")
+    private Duration openDuration;
+
     @Bean
+    @Profile("!fake-ai")
     @ConditionalOnExpression("'${spring.ai.openai.api-key:}'.length() > 0")
     public OpenAiChatModel openAiChatModel(
             @Value("${spring.ai.openai.api-key}") String apiKey) {
@@ -22,16 +46,38 @@ public class AiConfig {
     }
 
     @Bean
+    @Profile("!fake-ai")
     @ConditionalOnExpression("'${spring.ai.openai.api-key:}'.length() > 0")
-    public ChatClient chatClient(OpenAiChatModel openAiChatModel) {
+    public ChatClient chatClient(OpenAiChatModel openAiChatModel, MeterRegistry meterRegistry) {
         log.info("AI: Using real OpenAI ChatClient");
-        return ChatClient.builder(openAiChatModel).build();
+        return ChatClient.builder(withResilience(openAiChatModel, meterRegistry)).build();
     }
 
     @Bean
+    @Profile("!fake-ai")
     @ConditionalOnExpression("'${spring.ai.openai.api-key:}'.length() == 0")
     public ChatClient noOpChatClient() {
         log.warn("AI: Using NoOp ChatClient (no API key configured)");
         return ChatClient.builder(new NoOpClient()).build();
     }
+
+    @Bean
+    @Profile("fake-ai")
+    public ChatClient simulatedChatClient(MeterRegistry meterRegistry,
+                                          @Value("${ai.fake.latency-distribution:LOGNORMAL}") SimulatedChatModel.LatencyDistribution latencyDistribution,
+                                          @Value("${ai.fake.latency-min:PT0.2S}") Duration latencyMin,
+                                          @Value("${ai.fake.latency-median:PT1.5S}") Duration latencyMedian,
+                                          @Value("${ai.fake.latency-p99:PT6S}") Duration latencyP99,
+                                          @Value("${ai.fake.error-rate:0.0}") double errorRate,
+                                          @Value("${ai.fake.seed:42}") long seed) {
+        log.warn("AI: Using simulated ChatClient ({} latency, median {}, error rate {})", latencyDistribution, latencyMedian, errorRate);
+        SimulatedChatModel simulatedChatModel = new SimulatedChatModel(
+                latencyDistribution, latencyMin, latencyMedian, latencyP99, errorRate, seed);
+        return ChatClient.builder(withResilience(simulatedChatModel, meterRegistry)).build();
+    }
+
+    private ChatModel withResilience(ChatModel chatModel, MeterRegistry meterRegistry) {
+        AiCircuitBreaker circuitBreaker = new AiCircuitBreaker(slidingWindowSize, failureRateThreshold, openDuration);
+        return new ResilientChatModel(chatModel, circuitBreaker, maxConcurrentCalls, maxWait, callTimeout, meterRegistry);
+    }
 }
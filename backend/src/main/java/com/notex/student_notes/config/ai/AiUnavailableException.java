@@ -0,0 +1,18 @@
+package com.notex.student_notes.config.ai;
+
+import lombok.Getter;
+
+@Getter
+public class AiUnavailableException extends RuntimeException {
+
+    private final Object staleResult;
+
+    public AiUnavailableException(String message) {
+        this(message, null);
+    }
+
+    public AiUnavailableException(String message, Object staleResult) {
+        super(message);
+        this.staleResult = staleResult;
+    }
+}
@@ -0,0 +1,27 @@
+package com.notex.student_notes.config.ai;
+
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+
+public final class ChatResponses {
+
+    private ChatResponses() {
+    }
+
+    public static String text(ChatResponse response) {
+        if (response == null || response.getResult() == null || response.getResult().getOutput() == null) {
+            return null;
+        }
+        return response.getResult().getOutput().getText();
+    }
+
+    public static long totalTokens(ChatResponse response) {
+        Usage usage = response == null || response.getMetadata() == null ? null : response.getMetadata().getUsage();
+        if (usage == null) {
+            return 0;
+        }
+        Integer prompt = usage.getPromptTokens();
+        Integer completion = usage.getCompletionTokens();
+        return (prompt != null ? prompt : 0) + (completion != null ? completion : 0);
+    }
+}
@@ -0,0 +1,177 @@
+package com.notex.student_notes.config.ai;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+public class ResilientChatModel implements ChatModel {
+
+    private final ChatModel delegate;
+    private final AiCircuitBreaker circuitBreaker;
+    private final int maxConcurrentCalls;
+    private final Semaphore bulkhead;
+    private final Duration maxWait;
+    private final Duration callTimeout;
+    private final ExecutorService executor;
+
+    private final Counter circuitOpenRejections;
+    private final Counter bulkheadRejections;
+    private final Counter timeouts;
+    private final Counter failures;
+    private final Timer callTimer;
+
+    public ResilientChatModel(ChatModel delegate,
+                              AiCircuitBreaker circuitBreaker,
+                              int maxConcurrentCalls,
+                              Duration maxWait,
+                              Duration callTimeout,
+                              MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        this.maxWait = maxWait;
+        this.callTimeout = callTimeout;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "ai-call-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("ai.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("AI circuit breaker state (0 closed, 1 open, 2 half-open)")
+                .register(meterRegistry);
+        Gauge.builder("ai.bulkhead.active", bulkhead, permits -> maxConcurrentCalls - permits.availablePermits())
+                .description("AI calls currently in flight")
+                .register(meterRegistry);
+        this.circuitOpenRejections = Counter.builder("ai.calls.rejected")
+                .tag("reason", "circuit_open")
+                .description("AI calls rejected without calling the provider")
+                .register(meterRegistry);
+        this.bulkheadRejections = Counter.builder("ai.calls.rejected")
+                .tag("reason", "bulkhead_full")
+                .description("AI calls rejected without calling the provider")
+                .register(meterRegistry);
+        this.timeouts = Counter.builder("ai.calls.timeout")
+                .description("AI calls abandoned after the call timeout")
+                .register(meterRegistry);
+        this.failures = Counter.builder("ai.calls.failed")
+                .description("AI calls that failed with an error")
+                .register(meterRegistry);
+        this.callTimer = Timer.builder("ai.call.time")
+                .description("Time spent waiting for AI calls")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            circuitOpenRejections.increment();
+            throw new AiUnavailableException("AI service is temporarily unavailable");
+        }
+        if (!acquireBulkhead()) {
+            circuitBreaker.releasePermission();
+            bulkheadRejections.increment();
+            log.warn("Fail - AI call rejected, {} calls already in flight", maxConcurrentCalls);
+            throw new AiUnavailableException("Too many AI requests in progress");
+        }
+
+        Future<ChatResponse> future;
+        try {
+            future = executor.submit(() -> {
+                try {
+                    return delegate.call(prompt);
+                } finally {
+                    bulkhead.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            bulkhead.release();
+            circuitBreaker.releasePermission();
+            throw new AiUnavailableException("AI service is shutting down");
+        }
+
+        Timer.Sample sample = Timer.start();
+        try {
+            ChatResponse response = future.get(callTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            circuitBreaker.onSuccess();
+            return response;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timeouts.increment();
+            circuitBreaker.onFailure();
+            log.warn("Fail - AI call timed out after {}", callTimeout);
+            throw new AiUnavailableException("AI service did not respond in time");
+        } catch (ExecutionException e) {
+            failures.increment();
+            circuitBreaker.onFailure();
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new AiUnavailableException("AI call failed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            circuitBreaker.releasePermission();
+            throw new AiUnavailableException("AI call was interrupted");
+        } finally {
+            sample.stop(callTimer);
+        }
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        return Flux.defer(() -> {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                circuitOpenRejections.increment();
+                return Flux.error(new AiUnavailableException("AI service is temporarily unavailable"));
+            }
+            return delegate.stream(prompt)
+                    .timeout(callTimeout)
+                    .doOnComplete(circuitBreaker::onSuccess)
+                    .doOnError(e -> {
+                        if (e instanceof TimeoutException) {
+                            timeouts.increment();
+                        } else {
+                            failures.increment();
+                        }
+                        circuitBreaker.onFailure();
+                    })
+                    .doOnCancel(circuitBreaker::releasePermission);
+        });
+    }
+
+    @Override
+    public ChatOptions getDefaultOptions() {
+        return delegate.getDefaultOptions();
+    }
+
+    private boolean acquireBulkhead() {
+        try {
+            return bulkhead.tryAcquire(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.notex.student_notes.config.ai;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.notex.student_notes.ai.cache.ContentHasher;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.retry.TransientAiException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class SimulatedChatModel implements ChatModel {
+
+    public enum LatencyDistribution { FIXED, UNIFORM, LOGNORMAL }
+
+    private static final int CHARS_PER_TOKEN = 4;
+    private static final int TOKENS_PER_IMAGE = 765;
+    private static final int WORDS_PER_STREAM_CHUNK = 8;
+    private static final double P99_Z_SCORE = 2.326;
+    private static final String JSON_SCHEMA_MARKER = "JSON Schema";
+    private static final Pattern LANGUAGE_CODE = Pattern.compile("\\(([A-Z]{2})\\)");
+
+    private final LatencyDistribution latencyDistribution;
+    private final Duration latencyMin;
+    private final Duration latencyMedian;
+    private final Duration latencyP99;
+    private final double errorRate;
+    private final SplittableRandom random;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public SimulatedChatModel(LatencyDistribution latencyDistribution,
+                              Duration latencyMin,
+                              Duration latencyMedian,
+                              Duration latencyP99,
+                              double errorRate,
+                              long seed) {
+        if (latencyMedian.compareTo(latencyMin) < 0 || latencyP99.compareTo(latencyMedian) < 0) {
+            throw new IllegalArgumentException("Simulated latency must satisfy min <= median <= p99");
+        }
+        if (errorRate < 0 || errorRate > 1) {
+            throw new IllegalArgumentException("Simulated error rate must be between 0 and 1");
+        }
+        this.latencyDistribution = latencyDistribution;
+        this.latencyMin = latencyMin;
+        this.latencyMedian = latencyMedian;
+        this.latencyP99 = latencyP99;
+        this.errorRate = errorRate;
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        Duration latency = nextLatency();
+        boolean failure = nextFailure();
+        try {
+            Thread.sleep(latency.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransientAiException("Simulated call interrupted");
+        }
+        if (failure) {
+            throw new TransientAiException("Simulated provider error");
+        }
+        String text = generateText(prompt.getContents());
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))), usageMetadata(prompt, text));
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        return Flux.defer(() -> {
+            Duration latency = nextLatency();
+            boolean failure = nextFailure();
+            String text = generateText(prompt.getContents());
+            List<String> chunks = splitIntoStreamChunks(text);
+            Flux<ChatResponse> responses = Flux.fromIterable(chunks)
+                    .delayElements(latency.dividedBy(chunks.size()))
+                    .map(chunk -> new ChatResponse(List.of(new Generation(new AssistantMessage(chunk)))));
+            if (failure) {
+                return responses.take(chunks.size() / 2)
+                        .concatWith(Flux.error(new TransientAiException("Simulated provider error")));
+            }
+            return responses.concatWith(Mono.fromSupplier(() ->
+                    new ChatResponse(List.of(new Generation(new AssistantMessage(""))), usageMetadata(prompt, text))));
+        });
+    }
+
+    private String generateText(String contents) {
+        if (contents.contains(JSON_SCHEMA_MARKER)) {
+            return generateTranslationsJson(contents);
+        }
+        List<String> words = Arrays.stream(contents.split("\\s+"))
+                .filter(word -> !word.isBlank())
+                .toList();
+        StringBuilder text = new StringBuilder("Simulated response.");
+        if (words.isEmpty()) {
+            return text.toString();
+        }
+        SplittableRandom textRandom = new SplittableRandom(seedOf(contents));
+        int length = Math.clamp(words.size() / 5, 12, 200);
+        for (int i = 0; i < length; i++) {
+            text.append(' ').append(words.get(textRandom.nextInt(words.size())));
+        }
+        return text.toString();
+    }
+
+    private String generateTranslationsJson(String contents) {
+        Set<String> languageCodes = new LinkedHashSet<>();
+        String languageLine = contents.lines()
+                .filter(line -> line.contains("languages:"))
+                .findFirst()
+                .orElse(contents);
+        Matcher matcher = LANGUAGE_CODE.matcher(languageLine);
+        while (matcher.find()) {
+            languageCodes.add(matcher.group(1));
+        }
+        String noteText = contents.substring(0, contents.indexOf(JSON_SCHEMA_MARKER));
+        List<Map<String, String>> translations = new ArrayList<>();
+        for (String languageCode : languageCodes) {
+            Map<String, String> translation = new LinkedHashMap<>();
+            translation.put("language", languageCode);
+            translation.put("text", generateText(languageCode + " " + noteText));
+            translations.add(translation);
+        }
+        try {
+            return objectMapper.writeValueAsString(Map.of("translations", translations));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to build simulated JSON response", e);
+        }
+    }
+
+    private ChatResponseMetadata usageMetadata(Prompt prompt, String text) {
+        long images = prompt.getInstructions().stream()
+                .filter(UserMessage.class::isInstance)
+                .mapToLong(message -> ((UserMessage) message).getMedia().size())
+                .sum();
+        int promptTokens = (int) (prompt.getContents().length() / CHARS_PER_TOKEN + images * TOKENS_PER_IMAGE);
+        int completionTokens = Math.max(1, text.length() / CHARS_PER_TOKEN);
+        return ChatResponseMetadata.builder()
+                .model("simulated")
+                .usage(new DefaultUsage(promptTokens, completionTokens))
+                .build();
+    }
+
+    private static List<String> splitIntoStreamChunks(String text) {
+        String[] words = text.split(" ");
+        List<String> chunks = new ArrayList<>();
+        for (int i = 0; i < words.length; i += WORDS_PER_STREAM_CHUNK) {
+            String chunk = String.join(" ", Arrays.copyOfRange(words, i, Math.min(words.length, i + WORDS_PER_STREAM_CHUNK)));
+            chunks.add(i == 0 ? chunk : " " + chunk);
+        }
+        return chunks;
+    }
+
+    private synchronized Duration nextLatency() {
+        double minMillis = latencyMin.toMillis();
+        double medianMillis = latencyMedian.toMillis();
+        double millis = switch (latencyDistribution) {
+            case FIXED -> medianMillis;
+            case UNIFORM -> minMillis + random.nextDouble() * 2 * (medianMillis - minMillis);
+            case LOGNORMAL -> {
+                double sigma = medianMillis == 0 ? 0 : Math.log((double) latencyP99.toMillis() / medianMillis) / P99_Z_SCORE;
+                yield medianMillis * Math.exp(sigma * random.nextGaussian());
+            }
+        };
+        return Duration.ofMillis(Math.round(Math.max(minMillis, millis)));
+    }
+
+    private synchronized boolean nextFailure() {
+        return errorRate > 0 && random.nextDouble() < errorRate;
+    }
+
+    private static long seedOf(String contents) {
+        return Long.parseUnsignedLong(ContentHasher.hash(contents).substring(0, 16), 16);
+    }
+}
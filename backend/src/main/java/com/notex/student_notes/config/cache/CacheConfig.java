@@ -0,0 +1,37 @@
+package com.notex.student_notes.config.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    public CacheManager cacheManager(MeterRegistry meterRegistry,
+                                     @Value("${cache.messages.max-entries:2000}") int maxMessagePages,
+                                     @Value("${cache.translations.max-entries:5000}") int maxTranslations) {
+        return new ConcurrentMapCacheManager() {
+            @Override
+            protected Cache createConcurrentMapCache(String name) {
+                int maxEntries = switch (name) {
+                    case "messages" -> maxMessagePages;
+                    case "translations" -> maxTranslations;
+                    default -> 0;
+                };
+                if (maxEntries == 0) {
+                    return super.createConcurrentMapCache(name);
+                }
+                Counter evictions = Counter.builder("cache.lru.evictions")
+                        .tag("cache", name)
+                        .register(meterRegistry);
+                return new LruCache(name, maxEntries, evictions);
+            }
+        };
+    }
+}
@@ -0,0 +1,86 @@
+package com.notex.student_notes.config.cache;
+
+import io.micrometer.core.instrument.Counter;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+public class LruCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final Map<Object, Object> store;
+
+    public LruCache(String name, int maxEntries, Counter evictions) {
+        super(true);
+        this.name = name;
+        this.store = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Object> eldest) {
+                if (size() <= maxEntries) {
+                    return false;
+                }
+                evictions.increment();
+                return true;
+            }
+        };
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return store;
+    }
+
+    @Override
+    protected synchronized Object lookup(Object key) {
+        return store.get(key);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        try {
+            T value = valueLoader.call();
+            put(key, value);
+            return value;
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    @Override
+    public synchronized void put(Object key, Object value) {
+        store.put(key, toStoreValue(value));
+    }
+
+    @Override
+    public synchronized ValueWrapper putIfAbsent(Object key, Object value) {
+        Object existing = store.putIfAbsent(key, toStoreValue(value));
+        return existing != null ? new SimpleValueWrapper(fromStoreValue(existing)) : null;
+    }
+
+    @Override
+    public synchronized void evict(Object key) {
+        store.remove(key);
+    }
+
+    @Override
+    public synchronized void clear() {
+        store.clear();
+    }
+
+    public synchronized int size() {
+        return store.size();
+    }
+}
@@ -1,9 +1,11 @@
 package com.notex.student_notes.config.security;
 
+import com.notex.student_notes.ai.quota.exceptions.AiQuotaExceededException;
 import com.notex.student_notes.ai.summary.exceptions.SummaryGenerationFailedException;
 import com.notex.student_notes.auth.dto.NoChangesProvidedException;
 import com.notex.student_notes.auth.exceptions.*;
 import com.notex.student_notes.config.ai.AiNotEnabledException;
+import com.notex.student_notes.config.ai.AiUnavailableException;
 import com.notex.student_notes.config.ai.CallsLimitExceededException;
 import com.notex.student_notes.config.ratelimiting.RateLimitExceededException;
 import com.notex.student_notes.group.exceptions.*;
@@ -153,6 +155,18 @@ public class GlobalExceptionHandler {
     public ResponseEntity<Map<String, Object>> handleInvalidGroupUpdateRequestException(Exception ex){
         return buildErrorResponse(ex, HttpStatus.BAD_REQUEST, ex.getMessage());
     }
+    @ExceptionHandler(InvalidGroupSearchCursorException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidGroupSearchCursorException(Exception ex){
+        return buildErrorResponse(ex, HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+    @ExceptionHandler(InvalidGroupSearchQueryException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidGroupSearchQueryException(Exception ex){
+        return buildErrorResponse(ex, HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+    @ExceptionHandler(InvalidGroupActivityCursorException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidGroupActivityCursorException(Exception ex){
+        return buildErrorResponse(ex, HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
     @ExceptionHandler(UserNotInGroupException.class)
     public ResponseEntity<Map<String, Object>> handleUserNotInGroupException(Exception ex){
         return buildErrorResponse(ex, HttpStatus.FORBIDDEN, ex.getMessage());
@@ -181,6 +195,18 @@ public class GlobalExceptionHandler {
     public ResponseEntity<Map<String, Object>> handleAiNotEnabledException(Exception ex){
         return buildErrorResponse(ex, HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
     }
+    @ExceptionHandler(AiUnavailableException.class)
+    public ResponseEntity<Map<String, Object>> handleAiUnavailableException(AiUnavailableException ex){
+        ResponseEntity<Map<String, Object>> response = buildErrorResponse(ex, HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+        if (ex.getStaleResult() != null){
+            response.getBody().put("staleResult", ex.getStaleResult());
+        }
+        return response;
+    }
+    @ExceptionHandler(AiQuotaExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleAiQuotaExceededException(Exception ex){
+        return buildErrorResponse(ex, HttpStatus.TOO_MANY_REQUESTS, ex.getMessage());
+    }
     @ExceptionHandler(CallsLimitExceededException.class)
     public ResponseEntity<Map<String, Object>> handleCallsLimitExceededException(Exception ex){
         return buildErrorResponse(ex, HttpStatus.TOO_MANY_REQUESTS, ex.getMessage());
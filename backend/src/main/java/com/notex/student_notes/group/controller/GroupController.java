@@ -8,16 +8,23 @@ import com.notex.student_notes.user.model.User;
 import com.notex.student_notes.user.service.UserService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -54,6 +61,15 @@ public class GroupController {
     }
 
 
+    @GetMapping("/search")
+    public ResponseEntity<GroupSearchPageDto> searchGroups(@RequestParam(required = false) @Size(min = 3, max = 50) String query, @RequestParam(required = false) @Size(max = 40) String cursor, @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size){
+        User currentUser = getCurrentUser();
+        log.info("GET /groups/search?query={}: User {} searching groups.", query, currentUser.getUsername());
+        GroupSearchPageDto page = groupService.searchGroups(query, cursor, size, currentUser);
+        log.debug("Success - GET /groups/search?query={}: Found {} groups.", query, page.getGroups().size());
+        return ResponseEntity.ok(page);
+    }
+
     @GetMapping("/{groupId}")
     public ResponseEntity<GroupDto> getGroupById(@PathVariable Long groupId){
         log.info("GET /groups/{}: Fetching group.", groupId);
@@ -63,13 +79,32 @@ public class GroupController {
     }
 
     @GetMapping("/{groupId}/members")
-    public ResponseEntity<List<UserDto>> getUsersInGroup(@PathVariable @Positive Long groupId){
+    public ResponseEntity<Slice<UserDto>> getUsersInGroup(@PathVariable @Positive Long groupId, @RequestParam(required = false) @Positive Long after, @RequestParam(required = false) @Size(max = 50) String search, @RequestParam(defaultValue = "50") @Min(1) @Max(200) int size){
         User currentUser = getCurrentUser();
         log.info("GET /groups/{}/members: Fetching members in group.", groupId);
-        List<UserDto> members = groupService.getUsersInGroup(groupId, currentUser);
-        log.debug("Success - GET /groups/{}/members: Fetched members in group.", groupId);
+        Slice<UserDto> members = groupService.getUsersInGroup(groupId, after, search, size, currentUser);
+        log.debug("Success - GET /groups/{}/members: Fetched {} members in group.", groupId, members.getNumberOfElements());
         return ResponseEntity.ok(members);
+    }
 
+    @GetMapping(path = "/{groupId}/members/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportUsersInGroup(@PathVariable @Positive Long groupId){
+        User currentUser = getCurrentUser();
+        log.info("GET /groups/{}/members/export: User {} exporting members of group.", groupId, currentUser.getUsername());
+        StreamingResponseBody export = groupService.exportUsersInGroup(groupId, currentUser);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"group-" + groupId + "-members.ndjson\"")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(export);
+    }
+
+    @GetMapping("/{groupId}/activity")
+    public ResponseEntity<GroupActivityPageDto> getGroupActivity(@PathVariable @Positive Long groupId, @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size){
+        User currentUser = getCurrentUser();
+        log.info("GET /groups/{}/activity?cursor={}: User {} fetching group activity.", groupId, cursor, currentUser.getUsername());
+        GroupActivityPageDto activity = groupService.getGroupActivity(groupId, cursor, size, currentUser);
+        log.debug("Success - GET /groups/{}/activity?cursor={}: Fetched {} entries.", groupId, cursor, activity.getActivities().size());
+        return ResponseEntity.ok(activity);
     }
 
     @PostMapping
@@ -0,0 +1,38 @@
+package com.notex.student_notes.group.dto;
+
+import com.notex.student_notes.group.model.GroupActivity;
+import com.notex.student_notes.group.model.GroupActivityType;
+import com.notex.student_notes.message.dto.MessageDto;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+public class GroupActivityDto {
+    private Long id;
+    private Long groupId;
+    private GroupActivityType type;
+    private String actorUsername;
+    private String subjectUsername;
+    private Long messageId;
+    private LocalDateTime createdAt;
+
+    public GroupActivityDto(GroupActivity activity){
+        this.id = activity.getId();
+        this.groupId = activity.getGroupId();
+        this.type = activity.getType();
+        this.actorUsername = activity.getActorUsername();
+        this.subjectUsername = activity.getSubjectUsername();
+        this.createdAt = activity.getCreatedAt();
+    }
+
+    public GroupActivityDto(MessageDto message){
+        this.groupId = message.getGroupId();
+        this.type = GroupActivityType.MESSAGE_SENT;
+        this.actorUsername = message.getAuthor();
+        this.messageId = message.getId();
+        this.createdAt = message.getCreatedAt();
+    }
+}
@@ -0,0 +1,15 @@
+package com.notex.student_notes.group.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupActivityPageDto {
+    private List<GroupActivityDto> activities;
+    private String nextCursor;
+}
@@ -28,7 +28,7 @@ public class GroupDto {
         this.name = group.getName();
         this.description = group.getDescription();
         this.ownerUsername = group.getOwner().getUsername();
-        this.membersCount = group.getMembers().size();
+        this.membersCount = group.getMembersCount();
         this.createdAt = group.getCreatedAt();
         this.isPrivate = group.isPrivate();
         this.isMember = false;
@@ -39,7 +39,7 @@ public class GroupDto {
         this.name = group.getName();
         this.description = group.getDescription();
         this.ownerUsername = group.getOwner().getUsername();
-        this.membersCount = group.getMembers().size();
+        this.membersCount = group.getMembersCount();
         this.createdAt = group.getCreatedAt();
         this.isPrivate = group.isPrivate();
         this.isMember = isMember;
@@ -0,0 +1,7 @@
+package com.notex.student_notes.group.exceptions;
+
+public class InvalidGroupActivityCursorException extends RuntimeException {
+    public InvalidGroupActivityCursorException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.notex.student_notes.group.exceptions;
+
+public class InvalidGroupSearchCursorException extends RuntimeException {
+    public InvalidGroupSearchCursorException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.notex.student_notes.group.exceptions;
+
+public class InvalidGroupSearchQueryException extends RuntimeException {
+    public InvalidGroupSearchQueryException(String message) {
+        super(message);
+    }
+}
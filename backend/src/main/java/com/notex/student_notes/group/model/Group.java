@@ -6,6 +6,7 @@ import jakarta.validation.constraints.Size;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -56,6 +57,18 @@ public class Group {
     )
     private Set<User> members = new HashSet<>();
 
+    @Column(name = "member_count", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    private int membersCount;
+
+    @Column(name = "recent_messages", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    private int recentMessages;
+
+    @Column(name = "rank_score", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    private long rankScore;
+
     @PrePersist
     protected void onCreate() {
         this.createdAt = LocalDateTime.now();
@@ -74,9 +87,13 @@ public class Group {
         this.addMember(user);
     }
     public void addMember(User user) {
-        members.add(user);
+        if (members.add(user)) {
+            membersCount++;
+        }
     }
     public void removeMember(User user) {
-        members.remove(user);
+        if (members.remove(user)) {
+            membersCount--;
+        }
     }
 }
@@ -0,0 +1,48 @@
+package com.notex.student_notes.group.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "group_activities", indexes = @Index(name = "idx_group_activities_group_id_id", columnList = "group_id, id"))
+public class GroupActivity {
+
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    private Long id;
+
+    @Column(name = "group_id", nullable = false, updatable = false)
+    private Long groupId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false, length = 20)
+    private GroupActivityType type;
+
+    @Column(name = "actor_username", nullable = false, updatable = false, length = 50)
+    private String actorUsername;
+
+    @Column(name = "subject_username", updatable = false, length = 50)
+    private String subjectUsername;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public GroupActivity(Long groupId, GroupActivityType type, String actorUsername, String subjectUsername) {
+        this.groupId = groupId;
+        this.type = type;
+        this.actorUsername = actorUsername;
+        this.subjectUsername = subjectUsername;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,11 @@
+package com.notex.student_notes.group.model;
+
+public enum GroupActivityType {
+    GROUP_CREATED,
+    GROUP_UPDATED,
+    MEMBER_JOINED,
+    MEMBER_ADDED,
+    MEMBER_LEFT,
+    MEMBER_REMOVED,
+    MESSAGE_SENT
+}
@@ -0,0 +1,14 @@
+package com.notex.student_notes.group.repository;
+
+import com.notex.student_notes.group.model.GroupActivity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface GroupActivityRepository extends JpaRepository<GroupActivity, Long> {
+
+    List<GroupActivity> findByGroupIdOrderByIdDesc(Long groupId, Limit limit);
+
+    List<GroupActivity> findByGroupIdAndIdLessThanOrderByIdDesc(Long groupId, Long beforeId, Limit limit);
+}
@@ -0,0 +1,69 @@
+package com.notex.student_notes.group.repository;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+
+@Repository
+public class GroupMemberExporter {
+
+    private static final String SELECT_MEMBERS =
+            "select u.id, u.username, u.email, u.first_name, u.last_name, u.role, u.enabled " +
+            "from group_members gm join users u on u.id = gm.user_id where gm.group_id = ? order by gm.user_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public GroupMemberExporter(JdbcTemplate jdbcTemplate,
+                               ObjectMapper objectMapper,
+                               @Value("${groups.members.export-fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    @Transactional(readOnly = true)
+    public long export(Long groupId, OutputStream out) throws IOException {
+        long[] exported = {0};
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            json.setRootValueSeparator(null);
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(SELECT_MEMBERS);
+                statement.setFetchSize(fetchSize);
+                statement.setLong(1, groupId);
+                return statement;
+            }, row -> {
+                try {
+                    json.writeStartObject();
+                    json.writeNumberField("id", row.getLong("id"));
+                    json.writeStringField("username", row.getString("username"));
+                    json.writeStringField("email", row.getString("email"));
+                    json.writeStringField("firstName", row.getString("first_name"));
+                    json.writeStringField("lastName", row.getString("last_name"));
+                    json.writeStringField("role", row.getString("role"));
+                    json.writeBooleanField("enabled", row.getBoolean("enabled"));
+                    json.writeEndObject();
+                    json.writeRaw('\n');
+                    if (++exported[0] % fetchSize == 0) {
+                        json.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return exported[0];
+    }
+}
@@ -2,21 +2,146 @@ package com.notex.student_notes.group.repository;
 
 import com.notex.student_notes.group.model.Group;
 import com.notex.student_notes.user.model.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface GroupRepository extends JpaRepository<Group, Long> {
     Optional<Group> findByName(String name);
     List<Group> findAllByOwner(User user);
+    @EntityGraph(attributePaths = "owner")
     List<Group> findByNameContainingIgnoreCase(String namePart);
 
     boolean existsByName(String name);
 
+    @EntityGraph(attributePaths = "owner")
+    List<Group> findAllByIdIn(Collection<Long> ids);
+
+    @Query(value = "select g.id from groups g where g.deleted = false " +
+            "and (g.rank_score, g.id) < (:afterRank, :afterId) " +
+            "order by g.rank_score desc, g.id desc limit :limit",
+            nativeQuery = true)
+    List<Long> findActiveGroupIdsByRank(@Param("afterRank") long afterRank, @Param("afterId") long afterId,
+                                        @Param("limit") int limit);
+
+    @Query(value = "select g.id from groups g where g.deleted = false " +
+            "and (lower(g.name) like :pattern escape '\\' or lower(g.description) like :pattern escape '\\') " +
+            "and (g.rank_score, g.id) < (:afterRank, :afterId) " +
+            "order by g.rank_score desc, g.id desc limit :limit",
+            nativeQuery = true)
+    List<Long> searchActiveGroupIdsByRank(@Param("pattern") String pattern, @Param("afterRank") long afterRank,
+                                          @Param("afterId") long afterId, @Param("limit") int limit);
+
     boolean existsByIdAndMembersId(Long groupId, Long userId);
     boolean existsByIdAndOwnerId(Long groupId, Long ownerId);
     boolean existsByIdAndMembersUsername(Long groupId, String username);
     
+    @EntityGraph(attributePaths = "owner")
     List<Group> findAllByMembersId(Long userId);
+
+    @Query("select g.id from Group g join g.members m where m.id = :userId and g.deleted = false")
+    List<Long> findActiveGroupIdsByMemberId(@Param("userId") Long userId);
+
+    @Transactional
+    @Modifying
+    @Query(value = "insert into group_members (group_id, user_id) values (:groupId, :userId) on conflict do nothing",
+            nativeQuery = true)
+    int insertMember(@Param("groupId") Long groupId, @Param("userId") Long userId);
+
+    @Transactional
+    @Modifying
+    @Query(value = "with inserted as (insert into group_members (group_id, user_id) values (:groupId, :userId) " +
+            "on conflict do nothing returning group_id) " +
+            "update groups set member_count = member_count + 1 where id in (select group_id from inserted)",
+            nativeQuery = true)
+    int joinMember(@Param("groupId") Long groupId, @Param("userId") Long userId);
+
+    @Transactional
+    @Modifying
+    @Query(value = "delete from group_members where group_id = :groupId and user_id = :userId", nativeQuery = true)
+    int deleteMember(@Param("groupId") Long groupId, @Param("userId") Long userId);
+
+    @Transactional
+    @Modifying
+    @Query("update Group g set g.membersCount = g.membersCount + :delta where g.id = :groupId")
+    void adjustMembersCount(@Param("groupId") Long groupId, @Param("delta") int delta);
+
+    @Transactional
+    @Modifying
+    @Query(value = "update groups g set member_count = c.members " +
+            "from (select gr.id, count(gm.user_id) as members from groups gr " +
+            "left join group_members gm on gm.group_id = gr.id group by gr.id) c " +
+            "where c.id = g.id and g.member_count <> c.members",
+            nativeQuery = true)
+    int reconcileMembersCounts();
+
+    @Transactional
+    @Modifying
+    @Query(value = "update groups g set recent_messages = a.messages " +
+            "from (select gr.id, coalesce(m.messages, 0) as messages from groups gr left join " +
+            "(select group_id, count(*) as messages from messages where created_at >= :since group by group_id) m " +
+            "on m.group_id = gr.id) a " +
+            "where a.id = g.id and g.recent_messages <> a.messages",
+            nativeQuery = true)
+    int refreshRecentMessages(@Param("since") LocalDateTime since);
+
+    @Transactional
+    @Modifying
+    @Query(value = "update groups set rank_score = member_count + recent_messages " +
+            "where rank_score <> member_count + recent_messages",
+            nativeQuery = true)
+    int refreshRankScores();
+
+    @Query(value = "select exists (select 1 from group_members where group_id = :groupId and user_id = :userId) " +
+            "or exists (select 1 from groups where id = :groupId and owner_id = :userId)",
+            nativeQuery = true)
+    boolean isMemberOrOwner(@Param("groupId") Long groupId, @Param("userId") Long userId);
+
+    @Query(value = "select u.id as id, u.username as username, u.email as email, u.first_name as firstName, " +
+            "u.last_name as lastName, u.role as role, u.enabled as enabled " +
+            "from group_members gm join users u on u.id = gm.user_id " +
+            "where gm.group_id = :groupId and gm.user_id > :afterId " +
+            "and (lower(u.username) like :prefix escape '\\' or lower(u.first_name) like :prefix escape '\\' " +
+            "or lower(u.last_name) like :prefix escape '\\') " +
+            "order by gm.user_id",
+            nativeQuery = true)
+    Slice<MemberRef> findMembers(@Param("groupId") Long groupId, @Param("afterId") Long afterId,
+                                 @Param("prefix") String prefix, Pageable pageable);
+
+    @Query(value = "select group_id from group_members where user_id = :userId and group_id in (:groupIds) " +
+            "union select id from groups where owner_id = :userId and id in (:groupIds)",
+            nativeQuery = true)
+    List<Long> findMemberGroupIds(@Param("groupIds") Collection<Long> groupIds, @Param("userId") Long userId);
+
+    @Query(value = "select gm.group_id as groupId, gm.user_id as userId from group_members gm " +
+            "join groups g on g.id = gm.group_id where g.deleted = false " +
+            "union select g.id, g.owner_id from groups g where g.deleted = false and g.owner_id is not null",
+            nativeQuery = true)
+    Stream<MembershipRef> streamMembershipsOfActiveGroups();
+
+    interface MembershipRef {
+        Long getGroupId();
+        Long getUserId();
+    }
+
+    interface MemberRef {
+        Long getId();
+        String getUsername();
+        String getEmail();
+        String getFirstName();
+        String getLastName();
+        String getRole();
+        Boolean getEnabled();
+    }
 }
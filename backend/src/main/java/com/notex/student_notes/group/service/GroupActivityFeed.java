@@ -0,0 +1,185 @@
+package com.notex.student_notes.group.service;
+
+import com.notex.student_notes.group.dto.GroupActivityDto;
+import com.notex.student_notes.group.dto.GroupActivityPageDto;
+import com.notex.student_notes.group.model.GroupActivity;
+import com.notex.student_notes.group.model.GroupActivityType;
+import com.notex.student_notes.group.repository.GroupActivityRepository;
+import com.notex.student_notes.message.service.RecentMessagesBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@Slf4j
+public class GroupActivityFeed {
+
+    private final GroupActivityRepository groupActivityRepository;
+    private final RecentMessagesBuffer recentMessagesBuffer;
+    private final int capacity;
+    private final int maxGroups;
+
+    private final Counter tailReads;
+    private final Counter databaseReads;
+
+    private final LinkedHashMap<Long, GroupTail> tails = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, GroupTail> eldest) {
+            return size() > maxGroups;
+        }
+    };
+
+    public GroupActivityFeed(GroupActivityRepository groupActivityRepository,
+                             RecentMessagesBuffer recentMessagesBuffer,
+                             MeterRegistry meterRegistry,
+                             @Value("${groups.activity.tail-size:200}") int capacity,
+                             @Value("${groups.activity.max-groups:5000}") int maxGroups) {
+        this.groupActivityRepository = groupActivityRepository;
+        this.recentMessagesBuffer = recentMessagesBuffer;
+        this.capacity = capacity;
+        this.maxGroups = maxGroups;
+        this.tailReads = Counter.builder("groups.activity.requests").tag("source", "tail").register(meterRegistry);
+        this.databaseReads = Counter.builder("groups.activity.requests").tag("source", "database").register(meterRegistry);
+    }
+
+    public void record(Long groupId, GroupActivityType type, String actorUsername, String subjectUsername) {
+        GroupActivity saved = groupActivityRepository.save(new GroupActivity(groupId, type, actorUsername, subjectUsername));
+        GroupActivityDto activity = new GroupActivityDto(saved);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            append(activity);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                append(activity);
+            }
+        });
+    }
+
+    public GroupActivityPageDto page(Long groupId, long beforeActivityId, long beforeMessageId, int size) {
+        List<GroupActivityDto> activities = activitiesBefore(groupId, beforeActivityId, size + 1);
+        List<GroupActivityDto> messages = recentMessagesBuffer.before(groupId, beforeMessageId, size + 1).stream()
+                .map(GroupActivityDto::new)
+                .toList();
+
+        List<GroupActivityDto> merged = new ArrayList<>(size);
+        long nextActivityId = beforeActivityId;
+        long nextMessageId = beforeMessageId;
+        int fromActivities = 0;
+        int fromMessages = 0;
+        while (merged.size() < size && (fromActivities < activities.size() || fromMessages < messages.size())) {
+            boolean takeMessage = fromActivities == activities.size() || (fromMessages < messages.size()
+                    && messages.get(fromMessages).getCreatedAt().isAfter(activities.get(fromActivities).getCreatedAt()));
+            if (takeMessage) {
+                GroupActivityDto message = messages.get(fromMessages++);
+                nextMessageId = message.getMessageId();
+                merged.add(message);
+            } else {
+                GroupActivityDto activity = activities.get(fromActivities++);
+                nextActivityId = activity.getId();
+                merged.add(activity);
+            }
+        }
+        boolean hasNext = fromActivities < activities.size() || fromMessages < messages.size();
+        return new GroupActivityPageDto(merged, hasNext ? nextActivityId + "_" + nextMessageId : null);
+    }
+
+    private List<GroupActivityDto> activitiesBefore(Long groupId, long before, int limit) {
+        GroupTail tail = tailFor(groupId);
+        synchronized (tail) {
+            List<GroupActivityDto> newest = tail.before(before, limit);
+            if (newest.size() == limit || tail.coveredFromId == 0) {
+                tailReads.increment();
+                return newest;
+            }
+        }
+        databaseReads.increment();
+        log.debug("Activity before {} in group {} is older than the tail, reading from database", before, groupId);
+        return groupActivityRepository.findByGroupIdAndIdLessThanOrderByIdDesc(groupId, before, Limit.of(limit))
+                .stream()
+                .map(GroupActivityDto::new)
+                .toList();
+    }
+
+    public void append(GroupActivityDto activity) {
+        GroupTail tail;
+        synchronized (this) {
+            tail = tails.get(activity.getGroupId());
+        }
+        if (tail == null) {
+            return;
+        }
+        synchronized (tail) {
+            if (tail.seeded) {
+                tail.insert(activity, capacity);
+            }
+        }
+    }
+
+    private GroupTail tailFor(Long groupId) {
+        GroupTail tail;
+        synchronized (this) {
+            tail = tails.computeIfAbsent(groupId, id -> new GroupTail());
+        }
+        synchronized (tail) {
+            if (!tail.seeded) {
+                List<GroupActivity> newest = groupActivityRepository.findByGroupIdOrderByIdDesc(groupId, Limit.of(capacity));
+                newest.forEach(activity -> tail.activities.addLast(new GroupActivityDto(activity)));
+                tail.coveredFromId = newest.size() < capacity ? 0 : newest.getLast().getId() - 1;
+                tail.seeded = true;
+                log.debug("Success - Seeded activity tail of group {} with {} entries", groupId, newest.size());
+            }
+        }
+        return tail;
+    }
+
+    private static class GroupTail {
+        private final ArrayDeque<GroupActivityDto> activities = new ArrayDeque<>();
+        private long coveredFromId;
+        private boolean seeded;
+
+        private void insert(GroupActivityDto activity, int capacity) {
+            if (activity.getId() <= coveredFromId) {
+                return;
+            }
+            List<GroupActivityDto> newer = new ArrayList<>();
+            while (!activities.isEmpty() && activities.peekFirst().getId() >= activity.getId()) {
+                if (activities.peekFirst().getId().equals(activity.getId())) {
+                    newer.reversed().forEach(activities::addFirst);
+                    return;
+                }
+                newer.add(activities.pollFirst());
+            }
+            activities.addFirst(activity);
+            newer.reversed().forEach(activities::addFirst);
+            while (activities.size() > capacity) {
+                coveredFromId = activities.pollLast().getId();
+            }
+        }
+
+        private List<GroupActivityDto> before(long beforeId, int limit) {
+            List<GroupActivityDto> result = new ArrayList<>();
+            Iterator<GroupActivityDto> newestFirst = activities.iterator();
+            while (newestFirst.hasNext() && result.size() < limit) {
+                GroupActivityDto activity = newestFirst.next();
+                if (activity.getId() < beforeId) {
+                    result.add(activity);
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.notex.student_notes.group.service;
+
+import com.notex.student_notes.group.repository.GroupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class GroupMembersCountReconciler {
+
+    private final GroupRepository groupRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${groups.members-count.reconcile-cron:0 45 3 * * *}")
+    public void reconcile() {
+        log.info("Reconciling group member counts");
+        try {
+            int corrected = groupRepository.reconcileMembersCounts();
+            if (corrected > 0) {
+                log.warn("Corrected member count of {} groups", corrected);
+            }
+            log.debug("Success - Reconciled group member counts");
+        } catch (DataAccessException e) {
+            log.error("Error - Could not reconcile group member counts", e);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.notex.student_notes.group.service;
+
+import com.notex.student_notes.group.repository.GroupRepository;
+import com.notex.student_notes.group.repository.GroupRepository.MembershipRef;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+@Component
+@Slf4j
+public class GroupMembershipIndex {
+
+    private static final int LOOKUP_BATCH_SIZE = 1000;
+
+    private final GroupRepository groupRepository;
+    private final Map<Long, MemberSet> membersByGroup = new ConcurrentHashMap<>();
+    private final List<Runnable> changesDuringLoad = new ArrayList<>();
+    private boolean loading;
+
+    private final Counter indexLookups;
+    private final Counter databaseLookups;
+
+    public GroupMembershipIndex(GroupRepository groupRepository, MeterRegistry meterRegistry) {
+        this.groupRepository = groupRepository;
+        this.indexLookups = Counter.builder("groups.membership.lookups").tag("source", "index").register(meterRegistry);
+        this.databaseLookups = Counter.builder("groups.membership.lookups").tag("source", "database").register(meterRegistry);
+        Gauge.builder("groups.membership.indexed_groups", membersByGroup, Map::size).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        log.info("Loading group membership index");
+        synchronized (this) {
+            loading = true;
+        }
+        Map<Long, MemberSet> loaded = new HashMap<>();
+        try (Stream<MembershipRef> memberships = groupRepository.streamMembershipsOfActiveGroups()) {
+            memberships.forEach(membership ->
+                    loaded.computeIfAbsent(membership.getGroupId(), id -> new MemberSet()).add(membership.getUserId()));
+        } catch (DataAccessException e) {
+            log.error("Error - Could not load group membership index, membership checks will query the database", e);
+            synchronized (this) {
+                loading = false;
+                changesDuringLoad.clear();
+            }
+            return;
+        }
+        synchronized (this) {
+            membersByGroup.putAll(loaded);
+            changesDuringLoad.forEach(Runnable::run);
+            changesDuringLoad.clear();
+            loading = false;
+        }
+        log.debug("Success - Indexed memberships of {} groups", loaded.size());
+    }
+
+    public boolean isMember(Long groupId, Long userId) {
+        MemberSet members = membersByGroup.get(groupId);
+        if (members == null) {
+            databaseLookups.increment();
+            return groupRepository.isMemberOrOwner(groupId, userId);
+        }
+        indexLookups.increment();
+        return members.contains(userId);
+    }
+
+    public Set<Long> memberGroupIds(Collection<Long> groupIds, Long userId) {
+        Set<Long> memberOf = new HashSet<>();
+        List<Long> unindexed = new ArrayList<>();
+        for (Long groupId : groupIds) {
+            MemberSet members = membersByGroup.get(groupId);
+            if (members == null) {
+                unindexed.add(groupId);
+            } else if (members.contains(userId)) {
+                memberOf.add(groupId);
+            }
+        }
+        indexLookups.increment(groupIds.size() - unindexed.size());
+        databaseLookups.increment(unindexed.size());
+        for (int from = 0; from < unindexed.size(); from += LOOKUP_BATCH_SIZE) {
+            memberOf.addAll(groupRepository.findMemberGroupIds(
+                    unindexed.subList(from, Math.min(unindexed.size(), from + LOOKUP_BATCH_SIZE)), userId));
+        }
+        return memberOf;
+    }
+
+    public void addAfterCommit(Long groupId, Long userId) {
+        afterCommit(() -> add(groupId, userId));
+    }
+
+    public void removeAfterCommit(Long groupId, Long userId) {
+        afterCommit(() -> remove(groupId, userId));
+    }
+
+    public void addGroupAfterCommit(Long groupId, Long ownerId) {
+        afterCommit(() -> addGroup(groupId, ownerId));
+    }
+
+    public void removeGroupAfterCommit(Long groupId) {
+        afterCommit(() -> removeGroup(groupId));
+    }
+
+    private void add(Long groupId, Long userId) {
+        apply(() -> {
+            MemberSet members = membersByGroup.get(groupId);
+            if (members != null) {
+                members.add(userId);
+            }
+        });
+    }
+
+    private void remove(Long groupId, Long userId) {
+        apply(() -> {
+            MemberSet members = membersByGroup.get(groupId);
+            if (members != null) {
+                members.remove(userId);
+            }
+        });
+    }
+
+    private void addGroup(Long groupId, Long ownerId) {
+        apply(() -> {
+            MemberSet members = new MemberSet();
+            members.add(ownerId);
+            membersByGroup.put(groupId, members);
+        });
+    }
+
+    private void removeGroup(Long groupId) {
+        apply(() -> membersByGroup.remove(groupId));
+    }
+
+    private synchronized void apply(Runnable change) {
+        if (loading) {
+            changesDuringLoad.add(change);
+            return;
+        }
+        change.run();
+    }
+
+    private void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    private static class MemberSet {
+        private static final long EMPTY = 0;
+        private static final long REMOVED = -1;
+
+        private long[] slots = new long[8];
+        private int size;
+        private int used;
+
+        private synchronized boolean contains(long userId) {
+            int mask = slots.length - 1;
+            for (int i = mix(userId) & mask; slots[i] != EMPTY; i = (i + 1) & mask) {
+                if (slots[i] == userId) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private synchronized void add(long userId) {
+            if ((used + 1) * 2 > slots.length) {
+                rehash((size + 1) * 4 > slots.length ? slots.length * 2 : slots.length);
+            }
+            int mask = slots.length - 1;
+            int free = -1;
+            int i = mix(userId) & mask;
+            for (; slots[i] != EMPTY; i = (i + 1) & mask) {
+                if (slots[i] == userId) {
+                    return;
+                }
+                if (slots[i] == REMOVED && free < 0) {
+                    free = i;
+                }
+            }
+            if (free < 0) {
+                free = i;
+                used++;
+            }
+            slots[free] = userId;
+            size++;
+        }
+
+        private synchronized void remove(long userId) {
+            int mask = slots.length - 1;
+            for (int i = mix(userId) & mask; slots[i] != EMPTY; i = (i + 1) & mask) {
+                if (slots[i] == userId) {
+                    slots[i] = REMOVED;
+                    size--;
+                    return;
+                }
+            }
+        }
+
+        private void rehash(int capacity) {
+            long[] old = slots;
+            slots = new long[capacity];
+            size = 0;
+            used = 0;
+            for (long userId : old) {
+                if (userId != EMPTY && userId != REMOVED) {
+                    add(userId);
+                }
+            }
+        }
+
+        private static int mix(long userId) {
+            long h = userId * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
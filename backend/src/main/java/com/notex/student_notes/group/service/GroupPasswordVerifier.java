@@ -0,0 +1,171 @@
+package com.notex.student_notes.group.service;
+
+import com.notex.student_notes.config.ratelimiting.RateLimitExceededException;
+import com.notex.student_notes.config.ratelimiting.RateLimitingService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Component
+@Slf4j
+public class GroupPasswordVerifier {
+
+    private final PasswordEncoder passwordEncoder;
+    private final RateLimitingService rateLimitingService;
+    private final int maxAttempts;
+    private final int attemptWindowMinutes;
+    private final Duration timeout;
+    private final Duration cacheTtl;
+    private final int cacheSize;
+    private final ThreadPoolExecutor executor;
+    private final SecretKey cacheKey;
+
+    private final Timer verificationTimer;
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+    private final Counter rejectedVerifications;
+
+    private final LinkedHashMap<String, CachedResult> recentResults = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedResult> eldest) {
+            return size() > cacheSize;
+        }
+    };
+
+    public GroupPasswordVerifier(PasswordEncoder passwordEncoder,
+                                 RateLimitingService rateLimitingService,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${groups.join.max-attempts:5}") int maxAttempts,
+                                 @Value("${groups.join.attempt-window-minutes:15}") int attemptWindowMinutes,
+                                 @Value("${groups.join.verification-threads:2}") int threads,
+                                 @Value("${groups.join.verification-queue:32}") int queueCapacity,
+                                 @Value("${groups.join.verification-timeout:PT2S}") Duration timeout,
+                                 @Value("${groups.join.verification-cache-ttl:PT10M}") Duration cacheTtl,
+                                 @Value("${groups.join.verification-cache-size:10000}") int cacheSize) {
+        this.passwordEncoder = passwordEncoder;
+        this.rateLimitingService = rateLimitingService;
+        this.maxAttempts = maxAttempts;
+        this.attemptWindowMinutes = attemptWindowMinutes;
+        this.timeout = timeout;
+        this.cacheTtl = cacheTtl;
+        this.cacheSize = cacheSize;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "group-password-verifier");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        try {
+            this.cacheKey = KeyGenerator.getInstance("HmacSHA256").generateKey();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+        this.verificationTimer = Timer.builder("groups.join.password_verification").register(meterRegistry);
+        this.cacheHits = Counter.builder("groups.join.password_verification.cache").tag("result", "hit").register(meterRegistry);
+        this.cacheMisses = Counter.builder("groups.join.password_verification.cache").tag("result", "miss").register(meterRegistry);
+        this.rejectedVerifications = Counter.builder("groups.join.password_verification.rejected").register(meterRegistry);
+        Gauge.builder("groups.join.password_verification.queue", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("groups.join.password_verification.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    public boolean matches(Long userId, Long groupId, String password, String encodedPassword) {
+        rateLimitingService.checkRateLimit(userId + ":" + groupId, "/groups/{groupId}/members", maxAttempts, attemptWindowMinutes);
+        if (password == null || encodedPassword == null) {
+            return false;
+        }
+        String cacheKey = cacheKeyOf(password, encodedPassword);
+        Boolean cached = cachedResult(cacheKey);
+        if (cached != null) {
+            cacheHits.increment();
+            return cached;
+        }
+        cacheMisses.increment();
+        boolean matches = verify(password, encodedPassword);
+        synchronized (recentResults) {
+            recentResults.put(cacheKey, new CachedResult(matches, System.nanoTime() + cacheTtl.toNanos()));
+        }
+        return matches;
+    }
+
+    private boolean verify(String password, String encodedPassword) {
+        Future<Boolean> verification;
+        try {
+            verification = executor.submit(() -> verificationTimer.record(() -> passwordEncoder.matches(password, encodedPassword)));
+        } catch (RejectedExecutionException e) {
+            rejectedVerifications.increment();
+            log.warn("Fail - Password verification queue is full");
+            throw new RateLimitExceededException("Too many join attempts, try again later");
+        }
+        try {
+            return verification.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            verification.cancel(true);
+            rejectedVerifications.increment();
+            log.warn("Fail - Password verification did not finish within {}", timeout);
+            throw new RateLimitExceededException("Too many join attempts, try again later");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            verification.cancel(true);
+            throw new IllegalStateException("Interrupted while verifying group password", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Group password verification failed", e.getCause());
+        }
+    }
+
+    private Boolean cachedResult(String cacheKey) {
+        synchronized (recentResults) {
+            CachedResult cached = recentResults.get(cacheKey);
+            if (cached == null) {
+                return null;
+            }
+            if (cached.expiresAt() - System.nanoTime() < 0) {
+                recentResults.remove(cacheKey);
+                return null;
+            }
+            return cached.matches();
+        }
+    }
+
+    private String cacheKeyOf(String password, String encodedPassword) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(cacheKey);
+            mac.update(encodedPassword.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return HexFormat.of().formatHex(mac.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private record CachedResult(boolean matches, long expiresAt) {
+    }
+}
@@ -0,0 +1,75 @@
+package com.notex.student_notes.group.service;
+
+import com.notex.student_notes.group.repository.GroupRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Component
+@Slf4j
+public class GroupSearchMaintenance {
+
+    private static final List<String> SEARCH_INDEXES = List.of(
+            "create extension if not exists pg_trgm",
+            "create index concurrently if not exists idx_groups_name_trgm on groups " +
+                    "using gin (lower(name) gin_trgm_ops) where deleted = false",
+            "create index concurrently if not exists idx_groups_description_trgm on groups " +
+                    "using gin (lower(description) gin_trgm_ops) where deleted = false",
+            "drop index concurrently if exists idx_groups_rank",
+            "create index concurrently if not exists idx_groups_rank_score on groups " +
+                    "(rank_score desc, id desc) where deleted = false");
+
+    private final GroupRepository groupRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean createIndexes;
+    private final Duration activityWindow;
+
+    public GroupSearchMaintenance(GroupRepository groupRepository,
+                                  JdbcTemplate jdbcTemplate,
+                                  @Value("${groups.search.create-indexes:true}") boolean createIndexes,
+                                  @Value("${groups.search.activity-window:P7D}") Duration activityWindow) {
+        this.groupRepository = groupRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.createIndexes = createIndexes;
+        this.activityWindow = activityWindow;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexes() {
+        if (!createIndexes) {
+            return;
+        }
+        log.info("Creating group search indexes");
+        for (String ddl : SEARCH_INDEXES) {
+            try {
+                jdbcTemplate.execute(ddl);
+            } catch (DataAccessException e) {
+                log.error("Error - Could not create group search index, search falls back to table scans: {}", ddl, e);
+                return;
+            }
+        }
+        log.debug("Success - Group search indexes are in place");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${groups.search.activity-refresh-cron:0 */15 * * * *}")
+    public void refreshActivity() {
+        log.info("Refreshing recent message counts and rank scores of groups");
+        try {
+            int updated = groupRepository.refreshRecentMessages(LocalDateTime.now().minus(activityWindow));
+            int ranked = groupRepository.refreshRankScores();
+            log.debug("Success - Refreshed recent message counts of {} groups and rank scores of {} groups", updated, ranked);
+        } catch (DataAccessException e) {
+            log.error("Error - Could not refresh recent message counts and rank scores of groups", e);
+        }
+    }
+}
@@ -1,14 +1,21 @@
 package com.notex.student_notes.group.service;
 
 import com.notex.student_notes.group.dto.CreateGroupDto;
+import com.notex.student_notes.group.dto.GroupActivityPageDto;
 import com.notex.student_notes.group.dto.GroupDto;
+import com.notex.student_notes.group.dto.GroupSearchPageDto;
 import com.notex.student_notes.group.dto.JoinGroupRequestDto;
 import com.notex.student_notes.group.dto.UpdateGroupDto;
 import com.notex.student_notes.group.exceptions.*;
 import com.notex.student_notes.group.model.Group;
+import com.notex.student_notes.group.model.GroupActivityType;
+import com.notex.student_notes.group.repository.GroupMemberExporter;
 import com.notex.student_notes.group.repository.GroupRepository;
+import com.notex.student_notes.group.repository.GroupRepository.MemberRef;
+import com.notex.student_notes.message.service.MessageStreamService;
 import com.notex.student_notes.user.dto.UserDto;
 import com.notex.student_notes.user.exceptions.UserNotFoundException;
+import com.notex.student_notes.user.model.Role;
 import com.notex.student_notes.user.model.User;
 import com.notex.student_notes.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -16,20 +23,36 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
 @Slf4j
 @Service
 public class GroupService {
+    private static final int MIN_SEARCH_QUERY_LENGTH = 3;
+
     private final GroupRepository groupRepository;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final GroupMembershipIndex groupMembershipIndex;
+    private final GroupMemberExporter groupMemberExporter;
+    private final GroupPasswordVerifier groupPasswordVerifier;
+    private final GroupActivityFeed groupActivityFeed;
+    private final MessageStreamService messageStreamService;
 
     @Cacheable(value = "groups", key = "#groupId")
     public GroupDto getGroupById(Long groupId){
@@ -44,10 +67,41 @@ public class GroupService {
         log.info("Fetching groups with partial name {} for user {}", partialName, currentUser.getUsername());
         List<Group> groups = groupRepository.findByNameContainingIgnoreCase(partialName);
         log.debug("Success - Fetched {} groups with partial name {}", groups.size(), partialName);
-        return groups.stream()
-                .filter(g -> !g.isDeleted())
-                .map(g -> new GroupDto(g, isUserInGroup(g.getId(), currentUser)))
-                .toList();
+        return withMembership(groups, currentUser);
+    }
+
+    @Transactional(readOnly = true)
+    public GroupSearchPageDto searchGroups(String query, String cursor, int size, User currentUser){
+        log.info("Searching groups matching {} after {} for user {}", query, cursor, currentUser.getUsername());
+        long afterRank = Long.MAX_VALUE;
+        long afterId = Long.MAX_VALUE;
+        if (cursor != null){
+            String[] parts = cursor.split("_");
+            try {
+                afterRank = Long.parseLong(parts[0]);
+                afterId = Long.parseLong(parts[1]);
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e){
+                log.warn("Fail - Invalid group search cursor {}", cursor);
+                throw new InvalidGroupSearchCursorException("Invalid search cursor");
+            }
+        }
+        if (query != null && !query.isBlank() && query.strip().length() < MIN_SEARCH_QUERY_LENGTH){
+            log.warn("Fail - Group search query {} is too short for the trigram indexes", query);
+            throw new InvalidGroupSearchQueryException("Search query needs at least " + MIN_SEARCH_QUERY_LENGTH + " characters");
+        }
+        List<Long> ids = query == null || query.isBlank()
+                ? groupRepository.findActiveGroupIdsByRank(afterRank, afterId, size + 1)
+                : groupRepository.searchActiveGroupIdsByRank("%" + escapeLike(query) + "%", afterRank, afterId, size + 1);
+        boolean hasNext = ids.size() > size;
+        List<Long> pageIds = hasNext ? ids.subList(0, size) : ids;
+        Map<Long, Group> groupsById = groupRepository.findAllByIdIn(pageIds).stream()
+                .collect(Collectors.toMap(Group::getId, Function.identity()));
+        List<Group> groups = pageIds.stream().map(groupsById::get).filter(Objects::nonNull).toList();
+        String nextCursor = hasNext && !groups.isEmpty()
+                ? groups.getLast().getRankScore() + "_" + groups.getLast().getId()
+                : null;
+        log.debug("Success - Found {} groups matching {}", groups.size(), query);
+        return new GroupSearchPageDto(withMembership(groups, currentUser), nextCursor);
     }
 
     public List<GroupDto> getAllGroupsByUser(User user){
@@ -78,23 +132,53 @@ public class GroupService {
                 .orElseThrow(() -> new UserNotFoundException("User not found"));
         List<Group> ownerGroups = groupRepository.findAllByOwner(owner);
         log.debug("Success - Fetched {} groups by owner {}", ownerGroups.size(), ownerUsername);
-        return ownerGroups.stream()
-                .filter(g -> !g.isDeleted())
-                .map(g -> new GroupDto(g, isUserInGroup(g.getId(), currentUser)))
-                .toList();
+        return withMembership(ownerGroups, currentUser);
     }
 
-    public List<UserDto> getUsersInGroup(Long groupId, User currentUser){
-        Group group = findGroupById(groupId);
-        if (!isUserGroupOwner(groupId, currentUser)){
-            log.warn("Fail - User {} is not a group owner", currentUser.getUsername());
-            throw new UserNotGroupOwnerException("User is not a group owner");
+    public Slice<UserDto> getUsersInGroup(Long groupId, Long afterId, String search, int size, User currentUser){
+        log.info("Fetching members of group {} after {}", groupId, afterId);
+        checkCanListMembers(groupId, currentUser);
+        Slice<MemberRef> members = groupRepository.findMembers(groupId, afterId == null ? 0L : afterId,
+                prefixPattern(search), PageRequest.ofSize(size));
+        log.debug("Success - Fetched {} members of group {}", members.getNumberOfElements(), groupId);
+        return members.map(GroupService::toUserDto);
+    }
+
+    public StreamingResponseBody exportUsersInGroup(Long groupId, User currentUser){
+        log.info("Exporting members of group {}", groupId);
+        checkCanListMembers(groupId, currentUser);
+        return out -> {
+            long exported = groupMemberExporter.export(groupId, out);
+            log.debug("Success - Exported {} members of group {}", exported, groupId);
+        };
+    }
+
+    public GroupActivityPageDto getGroupActivity(Long groupId, String cursor, int size, User currentUser){
+        log.info("Fetching activity of group {} after cursor {} for user {}", groupId, cursor, currentUser.getUsername());
+        long beforeActivityId = Long.MAX_VALUE;
+        long beforeMessageId = Long.MAX_VALUE;
+        if (cursor != null){
+            String[] parts = cursor.split("_");
+            try {
+                beforeActivityId = Long.parseLong(parts[0]);
+                beforeMessageId = Long.parseLong(parts[1]);
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e){
+                log.warn("Fail - Invalid group activity cursor {}", cursor);
+                throw new InvalidGroupActivityCursorException("Invalid activity cursor");
+            }
         }
+        Group group = findGroupById(groupId);
         if (group.isDeleted()){
             log.warn("Fail - Group {} is deleted", groupId);
             throw new GroupDeletedException("Group was deleted");
         }
-        return group.getMembers().stream().map(UserDto::new).toList();
+        if (!isUserInGroup(groupId, currentUser)){
+            log.warn("Fail - User {} is not in group {}", currentUser.getUsername(), groupId);
+            throw new UserNotInGroupException("User is not in group");
+        }
+        GroupActivityPageDto activity = groupActivityFeed.page(groupId, beforeActivityId, beforeMessageId, size);
+        log.debug("Success - Fetched {} activity entries of group {}", activity.getActivities().size(), groupId);
+        return activity;
     }
 
     @CachePut(value = "groups", key = "#result.id")
@@ -118,6 +202,8 @@ public class GroupService {
             newGroup.setPassword(passwordEncoder.encode(input.getPassword()));
         }
         Group savedGroup = groupRepository.save(newGroup);
+        groupMembershipIndex.addGroupAfterCommit(savedGroup.getId(), owner.getId());
+        groupActivityFeed.record(savedGroup.getId(), GroupActivityType.GROUP_CREATED, owner.getUsername(), null);
         GroupDto savedGroupDto = new GroupDto(savedGroup);
         log.debug("Success - Group {} created", savedGroupDto.getName());
         return savedGroupDto;
@@ -139,6 +225,7 @@ public class GroupService {
         groupToDelete.setDeleted(true);
         groupToDelete.setDeletedAt(LocalDateTime.now());
         groupRepository.save(groupToDelete);
+        groupMembershipIndex.removeGroupAfterCommit(id);
         log.debug("Success - Group {} deleted", id);
     }
 
@@ -197,13 +284,13 @@ public class GroupService {
             }
         }
         Group updatedGroup = groupRepository.save(groupToUpdate);
+        groupActivityFeed.record(id, GroupActivityType.GROUP_UPDATED, currentUser.getUsername(), null);
         GroupDto updatedGroupDto = new GroupDto(updatedGroup);
         log.debug("Success - Group {} updated", updatedGroupDto.getName());
         return updatedGroupDto;
     }
 
     @CacheEvict(value = "groups", key = "#groupId")
-    @Transactional
     public void joinGroup(Long groupId, JoinGroupRequestDto request, User user){
         if (groupId == null){
             log.warn("Fail - Group id is null");
@@ -219,17 +306,13 @@ public class GroupService {
             log.warn("Fail - Group {} is deleted", groupId);
             throw new GroupDeletedException("Group was deleted");
         }
-        if (group.isPrivate()){
-            if (!passwordEncoder.matches(request.getPassword(), group.getPassword())){
-                log.warn("Fail - Wrong password");
-                throw new AddUserRequestInvalidException("Wrong password");
-            }else{
-                group.addMember(user);
-            }
-        }else{
-            group.addMember(user);
+        if (group.isPrivate() && !groupPasswordVerifier.matches(user.getId(), groupId, request.getPassword(), group.getPassword())){
+            log.warn("Fail - Wrong password");
+            throw new AddUserRequestInvalidException("Wrong password");
         }
-        groupRepository.save(group);
+        groupRepository.joinMember(groupId, user.getId());
+        groupMembershipIndex.addAfterCommit(groupId, user.getId());
+        groupActivityFeed.record(groupId, GroupActivityType.MEMBER_JOINED, user.getUsername(), null);
         log.debug("Success - User {} joined group {}", user.getUsername(), groupId);
     }
 
@@ -249,8 +332,8 @@ public class GroupService {
             log.warn("User {} is already in group {}", username, groupId);
             throw new UserAlreadyInGroupException("User is already in group");
         }
-        group.addMember(userToAdd);
-        groupRepository.save(group);
+        insertMember(groupId, userToAdd.getId());
+        groupActivityFeed.record(groupId, GroupActivityType.MEMBER_ADDED, currentUser.getUsername(), userToAdd.getUsername());
         log.debug("Success - User {} added to group {}", username, groupId);
     }
 
@@ -271,8 +354,9 @@ public class GroupService {
             log.warn("User {} is not in group {}", username, groupId);
             throw new UserNotInGroupException("User is not in group");
         }
-        group.removeMember(userToRemove);
-        groupRepository.save(group);
+        deleteMember(groupId, userToRemove.getId());
+        messageStreamService.closeAfterCommit(groupId, userToRemove.getUsername());
+        groupActivityFeed.record(groupId, GroupActivityType.MEMBER_REMOVED, currentUser.getUsername(), userToRemove.getUsername());
         log.debug("Success - User {} removed from group {}", username, groupId);
     }
 
@@ -295,21 +379,81 @@ public class GroupService {
             deleteGroupById(groupId, user);
             return;
         }
-        group.removeMember(user);
-        groupRepository.save(group);
+        deleteMember(groupId, user.getId());
+        messageStreamService.closeAfterCommit(groupId, user.getUsername());
+        groupActivityFeed.record(groupId, GroupActivityType.MEMBER_LEFT, user.getUsername(), null);
         log.debug("Success - {} left group {}",user.getUsername(),  groupId);
     }
 
 
+    private void insertMember(Long groupId, Long userId){
+        if (groupRepository.insertMember(groupId, userId) > 0){
+            groupRepository.adjustMembersCount(groupId, 1);
+        }
+        groupMembershipIndex.addAfterCommit(groupId, userId);
+    }
+
+    private void deleteMember(Long groupId, Long userId){
+        if (groupRepository.deleteMember(groupId, userId) > 0){
+            groupRepository.adjustMembersCount(groupId, -1);
+        }
+        groupMembershipIndex.removeAfterCommit(groupId, userId);
+    }
+
+    private List<GroupDto> withMembership(List<Group> groups, User user){
+        List<Group> activeGroups = groups.stream().filter(g -> !g.isDeleted()).toList();
+        Set<Long> memberOf = groupMembershipIndex.memberGroupIds(activeGroups.stream().map(Group::getId).toList(), user.getId());
+        return activeGroups.stream()
+                .map(g -> new GroupDto(g, memberOf.contains(g.getId())))
+                .toList();
+    }
+
     private boolean isUserInGroup(Long groupId, User user){
-        return groupRepository.existsByIdAndMembersId(groupId, user.getId()) || 
-               groupRepository.existsByIdAndOwnerId(groupId, user.getId());
+        return groupMembershipIndex.isMember(groupId, user.getId());
     }
 
     private boolean isUserGroupOwner(Long groupId, User user){
         return groupRepository.existsByIdAndOwnerId(groupId, user.getId());
     }
 
+    private void checkCanListMembers(Long groupId, User currentUser){
+        Group group = findGroupById(groupId);
+        if (!isUserGroupOwner(groupId, currentUser)){
+            log.warn("Fail - User {} is not a group owner", currentUser.getUsername());
+            throw new UserNotGroupOwnerException("User is not a group owner");
+        }
+        if (group.isDeleted()){
+            log.warn("Fail - Group {} is deleted", groupId);
+            throw new GroupDeletedException("Group was deleted");
+        }
+    }
+
+    private static String prefixPattern(String search){
+        if (search == null || search.isBlank()){
+            return "%";
+        }
+        return escapeLike(search) + "%";
+    }
+
+    private static String escapeLike(String search){
+        return search.strip().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+
+    private static UserDto toUserDto(MemberRef member){
+        UserDto dto = new UserDto();
+        dto.setId(member.getId());
+        dto.setUsername(member.getUsername());
+        dto.setEmail(member.getEmail());
+        dto.setFirstName(member.getFirstName());
+        dto.setLastName(member.getLastName());
+        dto.setRole(member.getRole() == null ? null : Role.valueOf(member.getRole()));
+        dto.setEnabled(Boolean.TRUE.equals(member.getEnabled()));
+        return dto;
+    }
+
     private Group findGroupById(Long id){
         return groupRepository.findById(id).orElseThrow(()->{
             log.warn("Group with id: {} not found", id);
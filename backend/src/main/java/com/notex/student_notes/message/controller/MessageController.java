@@ -2,23 +2,33 @@ package com.notex.student_notes.message.controller;
 
 import com.notex.student_notes.config.ratelimiting.RateLimitingService;
 import com.notex.student_notes.message.dto.MessageDto;
+import com.notex.student_notes.message.dto.ReadCursorDto;
 import com.notex.student_notes.message.dto.SendMessageDto;
 import com.notex.student_notes.message.service.MessageService;
 import com.notex.student_notes.user.model.User;
 import com.notex.student_notes.user.service.UserService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
 
 
 @RestController
@@ -41,6 +51,29 @@ public class MessageController {
         return ResponseEntity.ok(messages);
     }
 
+    @GetMapping("/history")
+    public ResponseEntity<Slice<MessageDto>> getMessageHistory(@PathVariable @Positive Long groupId, @RequestParam(required = false) @Positive Long before, @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size){
+        User currentUser = getCurrentUser();
+        log.info("GET /groups/{}/messages/history?before={}: User {} fetching message history.", groupId, before, currentUser.getUsername());
+        Slice<MessageDto> messages = messageService.getMessageHistory(groupId, before, size, currentUser);
+        log.debug("Success - GET /groups/{}/messages/history?before={}: Fetched {} messages.", groupId, before, messages.getNumberOfElements());
+        return ResponseEntity.ok(messages);
+    }
+
+    @GetMapping(params = "after")
+    public DeferredResult<List<MessageDto>> pollMessages(@PathVariable @Positive Long groupId, @RequestParam @PositiveOrZero Long after){
+        User currentUser = getCurrentUser();
+        log.info("GET /groups/{}/messages?after={}: User {} polling for new messages.", groupId, after, currentUser.getUsername());
+        return messageService.pollMessagesAfter(groupId, after, currentUser);
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamMessages(@PathVariable @Positive Long groupId){
+        User currentUser = getCurrentUser();
+        log.info("GET /groups/{}/messages/stream: User {} subscribing to messages.", groupId, currentUser.getUsername());
+        return messageService.subscribeToMessages(groupId, currentUser);
+    }
+
     @PostMapping
     public ResponseEntity<MessageDto> sendMessage(@PathVariable @Positive Long groupId, @RequestBody @Valid SendMessageDto messageToSend, HttpServletRequest request){
         String remoteAddress = request.getRemoteAddr();
@@ -53,6 +86,15 @@ public class MessageController {
         return ResponseEntity.status(HttpStatus.CREATED).body(message);
     }
 
+    @PutMapping("/read")
+    public ResponseEntity<Void> markMessagesRead(@PathVariable @Positive Long groupId, @RequestBody @Valid ReadCursorDto readCursor){
+        User currentUser = getCurrentUser();
+        log.info("PUT /groups/{}/messages/read: User {} marking messages up to {} as read.", groupId, currentUser.getUsername(), readCursor.getMessageId());
+        messageService.markMessagesRead(groupId, readCursor.getMessageId(), currentUser);
+        log.debug("Success - PUT /groups/{}/messages/read: User {} marked messages as read.", groupId, currentUser.getUsername());
+        return ResponseEntity.noContent().build();
+    }
+
     private User getCurrentUser(){
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         return userService.getUserEntityByUsername(auth.getName());
@@ -0,0 +1,12 @@
+package com.notex.student_notes.message.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+@Data
+public class ReadCursorDto {
+    @NotNull
+    @Positive
+    private Long messageId;
+}
@@ -0,0 +1,15 @@
+package com.notex.student_notes.message.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UnreadCountDto {
+    private Long groupId;
+    private Long lastReadMessageId;
+    private int unreadCount;
+    private boolean capped;
+}
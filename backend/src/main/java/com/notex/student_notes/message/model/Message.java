@@ -14,7 +14,7 @@ import java.time.LocalDateTime;
 @Setter
 @NoArgsConstructor
 @Entity
-@Table(name = "messages")
+@Table(name = "messages", indexes = @Index(name = "idx_messages_group_id_id", columnList = "group_id, id"))
 public class Message {
 
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,6 @@
+package com.notex.student_notes.message.model;
+
+import java.time.LocalDateTime;
+
+public record PendingMessage(Long id, Long groupId, Long senderId, String content, LocalDateTime createdAt) {
+}
@@ -0,0 +1,43 @@
+package com.notex.student_notes.message.repository;
+
+import com.notex.student_notes.message.model.PendingMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class MessageBatchWriter {
+
+    private static final String ALLOCATE_ID =
+            "select nextval(pg_get_serial_sequence('messages', 'id'))";
+    private static final String INSERT_MESSAGE =
+            "insert into messages (id, group_id, user_id, content, created_at) values (?, ?, ?, ?, ?) on conflict do nothing";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Long allocateId() {
+        return jdbcTemplate.queryForObject(ALLOCATE_ID, Long.class);
+    }
+
+    @Transactional
+    public void insertAll(List<PendingMessage> messages) {
+        jdbcTemplate.batchUpdate(INSERT_MESSAGE, messages, messages.size(), (statement, message) -> {
+            statement.setLong(1, message.id());
+            statement.setLong(2, message.groupId());
+            statement.setLong(3, message.senderId());
+            statement.setString(4, message.content());
+            statement.setTimestamp(5, Timestamp.valueOf(message.createdAt()));
+        });
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void insertNow(PendingMessage message) {
+        insertAll(List.of(message));
+    }
+}
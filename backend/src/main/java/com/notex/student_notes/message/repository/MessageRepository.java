@@ -1,9 +1,14 @@
 package com.notex.student_notes.message.repository;
 
 import com.notex.student_notes.message.model.Message;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -11,5 +16,31 @@ import java.util.List;
 public interface MessageRepository extends JpaRepository<Message, Long> {
     Page<Message> findAllByGroupIdOrderByCreatedAtAsc(Long groupId, Pageable pageable);
     List<Message> findByGroupIdAndCreatedAtAfterOrderByCreatedAtAsc(Long groupId, LocalDateTime since);
-}
 
+    @EntityGraph(attributePaths = {"sender", "group"})
+    List<Message> findByGroupIdOrderByIdDesc(Long groupId, Limit limit);
+
+    @EntityGraph(attributePaths = {"sender", "group"})
+    Slice<Message> findByGroupIdOrderByIdDesc(Long groupId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"sender", "group"})
+    Slice<Message> findByGroupIdAndIdLessThanOrderByIdDesc(Long groupId, Long beforeId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"sender", "group"})
+    Slice<Message> findByGroupIdAndCreatedAtGreaterThanEqualOrderByIdDesc(Long groupId, LocalDateTime since, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"sender", "group"})
+    Slice<Message> findByGroupIdAndIdLessThanAndCreatedAtGreaterThanEqualOrderByIdDesc(Long groupId, Long beforeId, LocalDateTime since, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"sender", "group"})
+    List<Message> findByGroupIdAndIdGreaterThanOrderByIdAsc(Long groupId, Long afterId, Limit limit);
+
+    @Query("select m.group.id as groupId, m.id as id, m.sender.id as senderId from Message m where m.group.id = :groupId order by m.id desc")
+    List<MessageRef> findRefsByGroupId(@Param("groupId") Long groupId, Limit limit);
+
+    interface MessageRef {
+        Long getGroupId();
+        Long getId();
+        Long getSenderId();
+    }
+}
@@ -0,0 +1,25 @@
+package com.notex.student_notes.message.repository;
+
+import com.notex.student_notes.message.model.ReadCursor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface ReadCursorRepository extends JpaRepository<ReadCursor, Long> {
+
+    List<ReadCursor> findAllByUserId(Long userId);
+
+    @Transactional
+    @Modifying
+    @Query(value = "insert into message_read_cursors (user_id, group_id, last_read_message_id, updated_at) " +
+            "values (:userId, :groupId, :messageId, now()) " +
+            "on conflict (user_id, group_id) do update set " +
+            "last_read_message_id = greatest(message_read_cursors.last_read_message_id, excluded.last_read_message_id), " +
+            "updated_at = excluded.updated_at",
+            nativeQuery = true)
+    void advance(@Param("userId") Long userId, @Param("groupId") Long groupId, @Param("messageId") Long messageId);
+}
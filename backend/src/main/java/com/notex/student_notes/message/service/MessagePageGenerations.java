@@ -0,0 +1,35 @@
+package com.notex.student_notes.message.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class MessagePageGenerations {
+
+    private final Map<Long, Long> generations = new ConcurrentHashMap<>();
+
+    public long current(Long groupId) {
+        return generations.getOrDefault(groupId, 0L);
+    }
+
+    public void bump(Long groupId) {
+        generations.merge(groupId, 1L, Long::sum);
+    }
+
+    public void bumpAfterCommit(Long groupId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump(groupId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bump(groupId);
+            }
+        });
+    }
+}
@@ -0,0 +1,26 @@
+package com.notex.student_notes.message.service;
+
+import com.notex.student_notes.message.dto.MessageDto;
+import com.notex.student_notes.message.model.Message;
+import com.notex.student_notes.message.repository.MessageRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class MessagePageReader {
+
+    private final MessageRepository messageRepository;
+
+    @Cacheable(value = "messages", key = "#groupId + '-' + @messagePageGenerations.current(#groupId) + '-' + #pageable.pageNumber + '-' + #pageable.pageSize")
+    public Page<MessageDto> page(Long groupId, Pageable pageable) {
+        Page<Message> groupMessages = messageRepository.findAllByGroupIdOrderByCreatedAtAsc(groupId, pageable);
+        log.debug("Success - Fetched {} messages for group {}", groupMessages.getNumberOfElements(), groupId);
+        return groupMessages.map(MessageDto::new);
+    }
+}
@@ -0,0 +1,142 @@
+package com.notex.student_notes.message.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@Slf4j
+public class MessagePartitionService {
+
+    private static final String PARTITION_PREFIX = "messages_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private static final String IS_PARTITIONED =
+            "select count(*) from pg_class where oid = to_regclass('public.messages') and relkind = 'p'";
+    private static final String LIST_PARTITIONS =
+            "select c.relname from pg_inherits i join pg_class c on c.oid = i.inhrelid where i.inhparent = 'public.messages'::regclass";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int premakeMonths;
+    private final int archiveAfterMonths;
+    private final String archiveSchema;
+    private final int recentMonths;
+    private volatile boolean partitioned;
+
+    private final Counter createdPartitions;
+    private final Counter archivedPartitions;
+
+    public MessagePartitionService(JdbcTemplate jdbcTemplate,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${messages.partitions.premake-months:3}") int premakeMonths,
+                                   @Value("${messages.partitions.archive-after-months:0}") int archiveAfterMonths,
+                                   @Value("${messages.partitions.archive-schema:archive}") String archiveSchema,
+                                   @Value("${messages.partitions.recent-months:1}") int recentMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.premakeMonths = premakeMonths;
+        this.archiveAfterMonths = archiveAfterMonths;
+        this.archiveSchema = archiveSchema;
+        this.recentMonths = recentMonths;
+        this.createdPartitions = Counter.builder("messages.partitions.changes").tag("action", "created").register(meterRegistry);
+        this.archivedPartitions = Counter.builder("messages.partitions.changes").tag("action", "archived").register(meterRegistry);
+    }
+
+    public Optional<LocalDateTime> recentSince() {
+        if (!partitioned) {
+            return Optional.empty();
+        }
+        return Optional.of(YearMonth.now().minusMonths(recentMonths).atDay(1).atStartOfDay());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${messages.partitions.cron:0 30 2 * * *}")
+    public void maintain() {
+        try {
+            maintain(LocalDate.now());
+        } catch (DataAccessException e) {
+            log.error("Error - Message partition maintenance failed", e);
+        }
+    }
+
+    public void maintain(LocalDate today) {
+        Integer partitionedTables = jdbcTemplate.queryForObject(IS_PARTITIONED, Integer.class);
+        partitioned = partitionedTables != null && partitionedTables > 0;
+        if (!partitioned) {
+            log.debug("Messages table is not partitioned, skipping partition maintenance");
+            return;
+        }
+        log.info("Maintaining message partitions");
+        List<String> existing = jdbcTemplate.queryForList(LIST_PARTITIONS, String.class);
+        YearMonth currentMonth = YearMonth.from(today);
+        for (int ahead = 0; ahead <= premakeMonths; ahead++) {
+            YearMonth month = currentMonth.plusMonths(ahead);
+            if (!existing.contains(partitionName(month))) {
+                createPartition(month);
+            }
+        }
+        if (archiveAfterMonths > 0) {
+            YearMonth oldestKept = currentMonth.minusMonths(archiveAfterMonths);
+            existing.stream()
+                    .map(MessagePartitionService::monthOf)
+                    .flatMap(Optional::stream)
+                    .filter(month -> month.isBefore(oldestKept))
+                    .sorted()
+                    .forEach(this::archivePartition);
+        }
+        log.debug("Success - Message partitions up to {} are in place", currentMonth.plusMonths(premakeMonths));
+    }
+
+    private void createPartition(YearMonth month) {
+        String name = partitionName(month);
+        try {
+            jdbcTemplate.execute("create table if not exists %s partition of messages for values from ('%s') to ('%s')"
+                    .formatted(name, month.atDay(1).atStartOfDay(), month.plusMonths(1).atDay(1).atStartOfDay()));
+            createdPartitions.increment();
+            log.info("Created message partition {}", name);
+        } catch (DataAccessException e) {
+            log.error("Error - Could not create message partition {}", name, e);
+        }
+    }
+
+    private void archivePartition(YearMonth month) {
+        String name = partitionName(month);
+        try {
+            jdbcTemplate.execute("create schema if not exists " + archiveSchema);
+            jdbcTemplate.execute("alter table messages detach partition " + name);
+            jdbcTemplate.execute("alter table %s set schema %s".formatted(name, archiveSchema));
+            archivedPartitions.increment();
+            log.info("Archived message partition {} to schema {}", name, archiveSchema);
+        } catch (DataAccessException e) {
+            log.error("Error - Could not archive message partition {}", name, e);
+        }
+    }
+
+    static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+    }
+
+    private static Optional<YearMonth> monthOf(String partitionName) {
+        if (!partitionName.startsWith(PARTITION_PREFIX)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(YearMonth.parse(partitionName.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX));
+        } catch (RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -6,19 +6,29 @@ import com.notex.student_notes.group.exceptions.GroupNotFoundException;
 import com.notex.student_notes.group.exceptions.UserNotInGroupException;
 import com.notex.student_notes.group.model.Group;
 import com.notex.student_notes.group.repository.GroupRepository;
+import com.notex.student_notes.group.service.GroupMembershipIndex;
 import com.notex.student_notes.message.dto.MessageDto;
 import com.notex.student_notes.message.dto.SendMessageDto;
+import com.notex.student_notes.message.dto.UnreadCountDto;
 import com.notex.student_notes.message.model.Message;
+import com.notex.student_notes.message.model.ReadCursor;
 import com.notex.student_notes.message.repository.MessageRepository;
+import com.notex.student_notes.message.repository.ReadCursorRepository;
 import com.notex.student_notes.user.model.User;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 
 @Service
@@ -27,20 +37,44 @@ import org.springframework.transaction.annotation.Transactional;
 public class MessageService {
     private final MessageRepository messageRepository;
     private final GroupRepository groupRepository;
+    private final GroupMembershipIndex groupMembershipIndex;
+    private final MessageStreamService messageStreamService;
+    private final RecentMessagesBuffer recentMessagesBuffer;
+    private final MessagePageGenerations messagePageGenerations;
+    private final MessagePageReader messagePageReader;
+    private final MessageWriteBehindService messageWriteBehindService;
+    private final MessagePartitionService messagePartitionService;
+    private final ReadCursorRepository readCursorRepository;
+    private final UnreadMessageCounter unreadMessageCounter;
 
-    @Cacheable(value = "messages", key = "#groupId + '-' + #pageable.pageNumber + '-' + #pageable.pageSize")
     public Page<MessageDto> getMessagesByGroupId(Long groupId, User currentUser, Pageable pageable){
         log.info("Fetching messages for group {}", groupId);
         if (UserNotInGroup(findGroupById(groupId), currentUser)){
             log.warn("Fail - User {} is not in group {}", currentUser.getUsername(), groupId);
             throw new UserNotInGroupException("User is not in group");
         }
-        Page<Message> groupMessages = messageRepository.findAllByGroupIdOrderByCreatedAtAsc(groupId, pageable);
-        log.debug("Success - Fetched {} messages for group {}", groupMessages.stream().count(), groupId);
-        return groupMessages.map(MessageDto::new);
+        return messagePageReader.page(groupId, pageable);
+    }
+
+    public Slice<MessageDto> getMessageHistory(Long groupId, Long beforeId, int size, User currentUser){
+        log.info("Fetching messages before {} for group {}", beforeId, groupId);
+        if (UserNotInGroup(findGroupById(groupId), currentUser)){
+            log.warn("Fail - User {} is not in group {}", currentUser.getUsername(), groupId);
+            throw new UserNotInGroupException("User is not in group");
+        }
+        Pageable pageable = PageRequest.ofSize(size);
+        Slice<Message> history = messagePartitionService.recentSince()
+                .map(since -> beforeId == null
+                        ? messageRepository.findByGroupIdAndCreatedAtGreaterThanEqualOrderByIdDesc(groupId, since, pageable)
+                        : messageRepository.findByGroupIdAndIdLessThanAndCreatedAtGreaterThanEqualOrderByIdDesc(groupId, beforeId, since, pageable))
+                .filter(Slice::hasNext)
+                .orElseGet(() -> beforeId == null
+                        ? messageRepository.findByGroupIdOrderByIdDesc(groupId, pageable)
+                        : messageRepository.findByGroupIdAndIdLessThanOrderByIdDesc(groupId, beforeId, pageable));
+        log.debug("Success - Fetched {} messages before {} for group {}", history.getNumberOfElements(), beforeId, groupId);
+        return history.map(MessageDto::new);
     }
 
-    @CacheEvict(value = "messages", key = "#message.groupId + '-*'", allEntries = true)
     @Transactional
     public MessageDto sendMessage(SendMessageDto message, User sender){
         log.info("Sending message {} to group {}", message.getContent(), message.getGroupId());
@@ -54,9 +88,58 @@ public class MessageService {
             throw new UserNotInGroupException("User is not in group");
         }
         Message newMessage = new Message(message.getContent(), sender, receivingGroup);
-        Message savedMessage = messageRepository.save(newMessage);
+        Message savedMessage = messageWriteBehindService.trySubmit(newMessage) ? newMessage : messageRepository.save(newMessage);
+        MessageDto sentMessage = new MessageDto(savedMessage);
+        messagePageGenerations.bumpAfterCommit(receivingGroup.getId());
+        recentMessagesBuffer.appendAfterCommit(sentMessage);
+        unreadMessageCounter.recordAfterCommit(receivingGroup.getId(), savedMessage.getId(), sender.getId());
+        messageStreamService.publishAfterCommit(sentMessage);
         log.debug("Success - Message sent");
-        return new MessageDto(savedMessage);
+        return sentMessage;
+    }
+
+    public DeferredResult<List<MessageDto>> pollMessagesAfter(Long groupId, Long afterId, User currentUser){
+        log.info("Polling messages after {} in group {}", afterId, groupId);
+        if (UserNotInGroup(findGroupById(groupId), currentUser)){
+            log.warn("Fail - User {} is not in group {}", currentUser.getUsername(), groupId);
+            throw new UserNotInGroupException("User is not in group");
+        }
+        return recentMessagesBuffer.poll(groupId, afterId);
+    }
+
+    public SseEmitter subscribeToMessages(Long groupId, User currentUser){
+        log.info("User {} subscribing to messages of group {}", currentUser.getUsername(), groupId);
+        Group group = findGroupById(groupId);
+        if (group.isDeleted()){
+            log.warn("Fail - Group {} is deleted", groupId);
+            throw new GroupDeletedException("Group was deleted");
+        }
+        if (UserNotInGroup(group, currentUser)){
+            log.warn("Fail - User {} is not in group {}", currentUser.getUsername(), groupId);
+            throw new UserNotInGroupException("User is not in group");
+        }
+        return messageStreamService.subscribe(groupId, currentUser.getUsername());
+    }
+
+    public void markMessagesRead(Long groupId, Long messageId, User currentUser){
+        log.info("User {} marking messages up to {} as read in group {}", currentUser.getUsername(), messageId, groupId);
+        if (UserNotInGroup(findGroupById(groupId), currentUser)){
+            log.warn("Fail - User {} is not in group {}", currentUser.getUsername(), groupId);
+            throw new UserNotInGroupException("User is not in group");
+        }
+        readCursorRepository.advance(currentUser.getId(), groupId, messageId);
+        log.debug("Success - Read cursor of user {} in group {} is at least {}", currentUser.getUsername(), groupId, messageId);
+    }
+
+    public List<UnreadCountDto> getUnreadCounts(User currentUser){
+        log.info("Counting unread messages for user {}", currentUser.getUsername());
+        Map<Long, Long> cursors = readCursorRepository.findAllByUserId(currentUser.getId()).stream()
+                .collect(Collectors.toMap(ReadCursor::getGroupId, ReadCursor::getLastReadMessageId));
+        List<UnreadCountDto> counts = groupRepository.findActiveGroupIdsByMemberId(currentUser.getId()).stream()
+                .map(groupId -> unreadMessageCounter.count(groupId, currentUser.getId(), cursors.get(groupId)))
+                .toList();
+        log.debug("Success - Counted unread messages in {} groups for user {}", counts.size(), currentUser.getUsername());
+        return counts;
     }
 
     private Group findGroupById(Long groupId){
@@ -66,7 +149,6 @@ public class MessageService {
         });
     }
     private boolean UserNotInGroup(Group group, User user){
-        return !groupRepository.existsByIdAndMembersId(group.getId(), user.getId()) &&
-                !groupRepository.existsByIdAndOwnerId(group.getId(), user.getId());
+        return !groupMembershipIndex.isMember(group.getId(), user.getId());
     }
 }
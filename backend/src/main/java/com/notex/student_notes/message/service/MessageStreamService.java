@@ -0,0 +1,232 @@
+package com.notex.student_notes.message.service;
+
+import com.notex.student_notes.message.dto.MessageDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+@Slf4j
+public class MessageStreamService {
+
+    private final Map<Long, Set<Subscriber>> subscribersByGroup = new ConcurrentHashMap<>();
+    private final ExecutorService deliveryExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final Duration emitterTimeout;
+    private final int subscriberBufferSize;
+
+    private final Timer fanOutTimer;
+    private final Counter droppedQueueFull;
+    private final Counter droppedSendFailed;
+
+    public MessageStreamService(MeterRegistry meterRegistry,
+                                @Value("${messages.stream.timeout:PT30M}") Duration emitterTimeout,
+                                @Value("${messages.stream.subscriber-buffer:64}") int subscriberBufferSize) {
+        this.emitterTimeout = emitterTimeout;
+        this.subscriberBufferSize = subscriberBufferSize;
+        Gauge.builder("messages.stream.connections", connections, AtomicInteger::get)
+                .register(meterRegistry);
+        this.fanOutTimer = Timer.builder("messages.stream.fanout")
+                .description("Time from commit of a message to its delivery to one subscriber")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.droppedQueueFull = Counter.builder("messages.stream.dropped")
+                .tag("reason", "queue_full")
+                .register(meterRegistry);
+        this.droppedSendFailed = Counter.builder("messages.stream.dropped")
+                .tag("reason", "send_failed")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(Long groupId, String username) {
+        SseEmitter emitter = new SseEmitter(emitterTimeout.toMillis());
+        Subscriber subscriber = new Subscriber(groupId, username, emitter, new ArrayBlockingQueue<>(subscriberBufferSize));
+        subscribersByGroup.compute(groupId, (id, subscribers) -> {
+            Set<Subscriber> groupSubscribers = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+            groupSubscribers.add(subscriber);
+            return groupSubscribers;
+        });
+        connections.incrementAndGet();
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> unsubscribe(subscriber));
+        log.debug("Success - User {} subscribed to group {} messages", username, groupId);
+        return emitter;
+    }
+
+    public void publishAfterCommit(MessageDto message) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(message);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(message);
+            }
+        });
+    }
+
+    public void publish(MessageDto message) {
+        Set<Subscriber> subscribers = subscribersByGroup.get(message.getGroupId());
+        if (subscribers == null) {
+            return;
+        }
+        long publishedAt = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            enqueue(subscriber, new Delivery(message, publishedAt));
+        }
+    }
+
+    public void closeAfterCommit(Long groupId, String username) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            close(groupId, username);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                close(groupId, username);
+            }
+        });
+    }
+
+    public void close(Long groupId, String username) {
+        Set<Subscriber> subscribers = subscribersByGroup.get(groupId);
+        if (subscribers == null) {
+            return;
+        }
+        subscribers.stream()
+                .filter(subscriber -> subscriber.username().equals(username))
+                .toList()
+                .forEach(subscriber -> {
+                    unsubscribe(subscriber);
+                    subscriber.queue().clear();
+                    subscriber.emitter().complete();
+                    log.debug("Success - Closed stream of user {} in group {} after membership ended", username, groupId);
+                });
+    }
+
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    @Scheduled(fixedRateString = "${messages.stream.heartbeat-interval:PT25S}")
+    public void sendHeartbeats() {
+        long now = System.nanoTime();
+        subscribersByGroup.values().forEach(subscribers ->
+                subscribers.forEach(subscriber -> {
+                    if (subscriber.queue().offer(new Delivery(null, now))) {
+                        scheduleDrain(subscriber);
+                    }
+                }));
+    }
+
+    private void enqueue(Subscriber subscriber, Delivery delivery) {
+        if (!subscriber.queue().offer(delivery)) {
+            droppedQueueFull.increment();
+            log.warn("Fail - Dropped message {} for slow subscriber {} in group {}",
+                    delivery.message().getId(), subscriber.username(), subscriber.groupId());
+            return;
+        }
+        scheduleDrain(subscriber);
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.draining().compareAndSet(false, true)) {
+            deliveryExecutor.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        do {
+            Delivery delivery;
+            while ((delivery = subscriber.queue().poll()) != null) {
+                if (!send(subscriber, delivery)) {
+                    return;
+                }
+            }
+            subscriber.draining().set(false);
+        } while (!subscriber.queue().isEmpty() && subscriber.draining().compareAndSet(false, true));
+    }
+
+    private boolean send(Subscriber subscriber, Delivery delivery) {
+        try {
+            if (delivery.message() == null) {
+                subscriber.emitter().send(SseEmitter.event().comment("keep-alive"));
+                return true;
+            }
+            subscriber.emitter().send(SseEmitter.event()
+                    .id(String.valueOf(delivery.message().getId()))
+                    .name("message")
+                    .data(delivery.message(), MediaType.APPLICATION_JSON));
+            fanOutTimer.record(System.nanoTime() - delivery.publishedAt(), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            long lostMessages = subscriber.queue().stream().filter(d -> d.message() != null).count()
+                    + (delivery.message() != null ? 1 : 0);
+            subscriber.queue().clear();
+            droppedSendFailed.increment(lostMessages);
+            log.debug("Fail - Closing stream of user {} in group {}: {}", subscriber.username(), subscriber.groupId(), e.getMessage());
+            unsubscribe(subscriber);
+            subscriber.emitter().completeWithError(e);
+            return false;
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        if (!subscriber.closed().compareAndSet(false, true)) {
+            return;
+        }
+        subscribersByGroup.computeIfPresent(subscriber.groupId(), (id, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+        connections.decrementAndGet();
+        log.debug("User {} unsubscribed from group {} messages", subscriber.username(), subscriber.groupId());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribersByGroup.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.emitter().complete()));
+        deliveryExecutor.shutdownNow();
+    }
+
+    private record Subscriber(Long groupId,
+                              String username,
+                              SseEmitter emitter,
+                              BlockingQueue<Delivery> queue,
+                              AtomicBoolean draining,
+                              AtomicBoolean closed) {
+
+        Subscriber(Long groupId, String username, SseEmitter emitter, BlockingQueue<Delivery> queue) {
+            this(groupId, username, emitter, queue, new AtomicBoolean(), new AtomicBoolean());
+        }
+    }
+
+    private record Delivery(MessageDto message, long publishedAt) {
+    }
+}
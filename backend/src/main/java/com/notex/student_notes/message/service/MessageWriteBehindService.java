@@ -0,0 +1,386 @@
+package com.notex.student_notes.message.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.notex.student_notes.message.model.Message;
+import com.notex.student_notes.message.model.PendingMessage;
+import com.notex.student_notes.message.repository.MessageBatchWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@Service
+@Slf4j
+public class MessageWriteBehindService {
+
+    private static final String SEGMENT_PREFIX = "messages-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String DEAD_LETTER_FILE = "dead-letter.journal";
+
+    private final MessageBatchWriter messageBatchWriter;
+    private final MessagePageGenerations messagePageGenerations;
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final boolean enabled;
+    private final Path journalDir;
+    private final boolean fsync;
+    private final Duration flushInterval;
+    private final int batchSize;
+    private final int maxPending;
+    private final Duration maxRetryDelay;
+
+    private final List<PendingMessage> pending = new ArrayList<>();
+    private final List<Path> closedSegments = new ArrayList<>();
+    private final Object flushLock = new Object();
+    private FileChannel segment;
+    private Path segmentPath;
+    private long segmentNumber;
+    private ScheduledExecutorService flusher;
+    private int failedFlushes;
+    private long retryAtNanos;
+
+    private final Counter flushedMessages;
+    private final Counter rejectedMessages;
+    private final Counter flushFailures;
+    private final Counter deadLettered;
+    private final Timer flushTimer;
+
+    public MessageWriteBehindService(MessageBatchWriter messageBatchWriter,
+                                     MessagePageGenerations messagePageGenerations,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${messages.write-behind.enabled:false}") boolean enabled,
+                                     @Value("${messages.write-behind.journal-dir:data/message-journal}") Path journalDir,
+                                     @Value("${messages.write-behind.fsync:true}") boolean fsync,
+                                     @Value("${messages.write-behind.flush-interval:PT0.005S}") Duration flushInterval,
+                                     @Value("${messages.write-behind.batch-size:200}") int batchSize,
+                                     @Value("${messages.write-behind.max-pending:10000}") int maxPending,
+                                     @Value("${messages.write-behind.max-retry-delay:PT30S}") Duration maxRetryDelay) {
+        this.messageBatchWriter = messageBatchWriter;
+        this.messagePageGenerations = messagePageGenerations;
+        this.enabled = enabled;
+        this.journalDir = journalDir;
+        this.fsync = fsync;
+        this.flushInterval = flushInterval;
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+        this.maxRetryDelay = maxRetryDelay;
+        this.flushedMessages = Counter.builder("messages.write_behind.flushed").register(meterRegistry);
+        this.rejectedMessages = Counter.builder("messages.write_behind.rejected").register(meterRegistry);
+        this.flushFailures = Counter.builder("messages.write_behind.flush_failures").register(meterRegistry);
+        this.deadLettered = Counter.builder("messages.write_behind.dead_lettered").register(meterRegistry);
+        this.flushTimer = Timer.builder("messages.write_behind.flush_time").register(meterRegistry);
+        Gauge.builder("messages.write_behind.pending", this, MessageWriteBehindService::getPendingCount)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        recover();
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            openNextSegment();
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "message-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalNanos = flushInterval.toNanos();
+        flusher.scheduleWithFixedDelay(this::flush, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+        log.info("Write-behind message persistence enabled, journal in {}", journalDir.toAbsolutePath());
+    }
+
+    public boolean trySubmit(Message message) {
+        synchronized (this) {
+            if (!enabled || flusher == null || flusher.isShutdown()) {
+                return false;
+            }
+            if (pending.size() >= maxPending) {
+                rejectedMessages.increment();
+                log.warn("Fail - Write-behind queue full, persisting message synchronously");
+                return false;
+            }
+        }
+        PendingMessage entry = new PendingMessage(messageBatchWriter.allocateId(), message.getGroup().getId(),
+                message.getSender().getId(), message.getContent(), LocalDateTime.now());
+        message.setId(entry.id());
+        message.setCreatedAt(entry.createdAt());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(entry);
+            return true;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(entry);
+            }
+        });
+        return true;
+    }
+
+    private void enqueue(PendingMessage entry) {
+        synchronized (this) {
+            if (segment != null && !flusher.isShutdown()) {
+                try {
+                    appendToJournal(entry);
+                    pending.add(entry);
+                    if (pending.size() >= batchSize) {
+                        flusher.execute(this::flush);
+                    }
+                    return;
+                } catch (IOException e) {
+                    log.error("Error - Failed to journal message {}, persisting synchronously", entry.id(), e);
+                }
+            }
+            rejectedMessages.increment();
+        }
+        messageBatchWriter.insertNow(entry);
+        messagePageGenerations.bump(entry.groupId());
+    }
+
+    public void flush() {
+        synchronized (flushLock) {
+            if (failedFlushes > 0 && System.nanoTime() - retryAtNanos < 0 && flusher != null && !flusher.isShutdown()) {
+                return;
+            }
+            List<PendingMessage> batch;
+            List<Path> flushedSegments;
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = new ArrayList<>(pending);
+                pending.clear();
+                openNextSegment();
+                flushedSegments = new ArrayList<>(closedSegments);
+            }
+            Timer.Sample sample = Timer.start();
+            int[] persisted = {0};
+            try {
+                persist(batch, persisted);
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    pending.addAll(0, batch.subList(persisted[0], batch.size()));
+                }
+                backOff(batch.size() - persisted[0], e);
+                return;
+            }
+            sample.stop(flushTimer);
+            failedFlushes = 0;
+            flushedMessages.increment(batch.size());
+            batch.stream().map(PendingMessage::groupId).distinct().forEach(messagePageGenerations::bump);
+            deleteSegments(flushedSegments);
+            log.debug("Success - Flushed {} messages", batch.size());
+        }
+    }
+
+    private void persist(List<PendingMessage> messages, int[] persisted) {
+        for (int from = 0; from < messages.size(); from += batchSize) {
+            insertOrSplit(messages.subList(from, Math.min(messages.size(), from + batchSize)), persisted);
+        }
+    }
+
+    private void insertOrSplit(List<PendingMessage> messages, int[] persisted) {
+        try {
+            messageBatchWriter.insertAll(messages);
+        } catch (DataIntegrityViolationException e) {
+            if (messages.size() == 1) {
+                deadLetter(messages.getFirst(), e);
+            } else {
+                int middle = messages.size() / 2;
+                insertOrSplit(messages.subList(0, middle), persisted);
+                insertOrSplit(messages.subList(middle, messages.size()), persisted);
+                return;
+            }
+        }
+        persisted[0] += messages.size();
+    }
+
+    private void deadLetter(PendingMessage message, DataIntegrityViolationException cause) {
+        try {
+            Files.createDirectories(journalDir);
+            Files.writeString(journalDir.resolve(DEAD_LETTER_FILE), objectMapper.writeValueAsString(message) + "\n",
+                    StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write message " + message.id() + " to the dead letter journal", e);
+        }
+        deadLettered.increment();
+        log.error("Error - Message {} of group {} cannot be inserted, moved to {}: {}",
+                message.id(), message.groupId(), DEAD_LETTER_FILE, cause.getMostSpecificCause().getMessage());
+    }
+
+    private void backOff(int unflushed, RuntimeException cause) {
+        flushFailures.increment();
+        failedFlushes++;
+        long delayNanos = Math.min(maxRetryDelay.toNanos(),
+                flushInterval.toNanos() << Math.min(failedFlushes, 30));
+        retryAtNanos = System.nanoTime() + delayNanos;
+        if (failedFlushes == 1) {
+            log.error("Error - Failed to flush {} messages, retrying in {} ms", unflushed,
+                    TimeUnit.NANOSECONDS.toMillis(delayNanos), cause);
+        } else {
+            log.warn("Fail - Flush attempt {} of {} messages failed, retrying in {} ms: {}", failedFlushes, unflushed,
+                    TimeUnit.NANOSECONDS.toMillis(delayNanos), cause.getMessage());
+        }
+    }
+
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    void recover() {
+        List<Path> segments = listSegments();
+        if (segments.isEmpty()) {
+            return;
+        }
+        segmentNumber = segments.stream().mapToLong(MessageWriteBehindService::segmentNumberOf).max().orElse(0);
+        List<PendingMessage> recovered = new ArrayList<>();
+        for (Path journal : segments) {
+            recovered.addAll(readJournal(journal));
+        }
+        log.info("Recovering {} unflushed messages from {} journal segments", recovered.size(), segments.size());
+        try {
+            persist(recovered, new int[1]);
+        } catch (RuntimeException e) {
+            log.error("Error - Failed to recover journaled messages, keeping journal for next start", e);
+            return;
+        }
+        recovered.stream().map(PendingMessage::groupId).distinct().forEach(messagePageGenerations::bump);
+        deleteSegments(segments);
+        log.debug("Success - Recovered {} messages", recovered.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (flusher == null) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        synchronized (this) {
+            closeSegment();
+            if (pending.isEmpty()) {
+                deleteSegments(new ArrayList<>(closedSegments));
+            }
+        }
+    }
+
+    private void appendToJournal(PendingMessage entry) throws IOException {
+        byte[] line = (objectMapper.writeValueAsString(entry) + "\n").getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.wrap(line);
+        while (buffer.hasRemaining()) {
+            segment.write(buffer);
+        }
+        if (fsync) {
+            segment.force(false);
+        }
+    }
+
+    private void openNextSegment() {
+        closeSegment();
+        try {
+            Files.createDirectories(journalDir);
+            segmentNumber++;
+            segmentPath = journalDir.resolve(SEGMENT_PREFIX + "%020d".formatted(segmentNumber) + SEGMENT_SUFFIX);
+            segment = FileChannel.open(segmentPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open message journal segment", e);
+        }
+    }
+
+    private void closeSegment() {
+        if (segment == null) {
+            return;
+        }
+        try {
+            segment.close();
+        } catch (IOException e) {
+            log.warn("Fail - Could not close message journal segment {}", segmentPath, e);
+        }
+        closedSegments.add(segmentPath);
+        segment = null;
+    }
+
+    private List<PendingMessage> readJournal(Path journal) {
+        List<PendingMessage> entries = new ArrayList<>();
+        try {
+            for (String line : Files.readAllLines(journal, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    entries.add(objectMapper.readValue(line, PendingMessage.class));
+                } catch (JsonProcessingException e) {
+                    log.warn("Fail - Skipping torn journal entry in {}", journal);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read message journal " + journal, e);
+        }
+        return entries;
+    }
+
+    private List<Path> listSegments() {
+        if (!Files.isDirectory(journalDir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(journalDir)) {
+            return files.filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list message journal", e);
+        }
+    }
+
+    private synchronized void deleteSegments(List<Path> segments) {
+        for (Path journal : segments) {
+            try {
+                Files.deleteIfExists(journal);
+            } catch (IOException e) {
+                log.warn("Fail - Could not delete flushed journal segment {}", journal, e);
+            }
+        }
+        closedSegments.removeAll(segments);
+    }
+
+    private static long segmentNumberOf(Path journal) {
+        String name = journal.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
@@ -0,0 +1,288 @@
+package com.notex.student_notes.message.service;
+
+import com.notex.student_notes.message.dto.MessageDto;
+import com.notex.student_notes.message.repository.MessageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@Slf4j
+public class RecentMessagesBuffer {
+
+    private static final int BYTES_PER_CHAR = 2;
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+    private final MessageRepository messageRepository;
+    private final int capacity;
+    private final int maxGroups;
+    private final long capacityBytes;
+    private final AtomicLong bufferedBytes = new AtomicLong();
+    private final int maxBatch;
+    private final Duration pollTimeout;
+
+    private final Counter bufferHits;
+    private final Counter databaseFallbacks;
+    private final Counter sizeEvictions;
+
+    private final LinkedHashMap<Long, GroupBuffer> buffers = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, GroupBuffer> eldest) {
+            if (size() <= maxGroups) {
+                return false;
+            }
+            release(eldest.getKey(), eldest.getValue());
+            return true;
+        }
+    };
+
+    public RecentMessagesBuffer(MessageRepository messageRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${messages.recent.buffer-size:200}") int capacity,
+                                @Value("${messages.recent.max-groups:5000}") int maxGroups,
+                                @Value("${messages.recent.size-mb:64}") int sizeMb,
+                                @Value("${messages.recent.max-batch:100}") int maxBatch,
+                                @Value("${messages.poll.timeout:PT25S}") Duration pollTimeout) {
+        this.messageRepository = messageRepository;
+        this.capacity = capacity;
+        this.maxGroups = maxGroups;
+        this.capacityBytes = sizeMb * 1024L * 1024L;
+        this.maxBatch = maxBatch;
+        this.pollTimeout = pollTimeout;
+        this.bufferHits = Counter.builder("messages.recent.requests")
+                .tag("source", "buffer")
+                .register(meterRegistry);
+        this.databaseFallbacks = Counter.builder("messages.recent.requests")
+                .tag("source", "database")
+                .register(meterRegistry);
+        this.sizeEvictions = Counter.builder("messages.recent.evictions")
+                .tag("cause", "size")
+                .register(meterRegistry);
+        Gauge.builder("messages.recent.bytes", bufferedBytes, AtomicLong::get)
+                .register(meterRegistry);
+    }
+
+    public DeferredResult<List<MessageDto>> poll(Long groupId, Long afterId) {
+        DeferredResult<List<MessageDto>> result = new DeferredResult<>(pollTimeout.toMillis(), List.of());
+        GroupBuffer buffer = bufferFor(groupId);
+        synchronized (buffer) {
+            if (!buffer.evicted && afterId >= buffer.coveredFromId) {
+                bufferHits.increment();
+                List<MessageDto> available = buffer.after(afterId, maxBatch);
+                if (!available.isEmpty()) {
+                    result.setResult(available);
+                    return result;
+                }
+                Waiter waiter = new Waiter(afterId, result);
+                buffer.waiters.add(waiter);
+                result.onCompletion(() -> {
+                    synchronized (buffer) {
+                        buffer.waiters.remove(waiter);
+                    }
+                });
+                return result;
+            }
+        }
+        databaseFallbacks.increment();
+        log.debug("Messages after {} in group {} are older than the buffer, reading from database", afterId, groupId);
+        result.setResult(messageRepository.findByGroupIdAndIdGreaterThanOrderByIdAsc(groupId, afterId, Limit.of(maxBatch))
+                .stream()
+                .map(MessageDto::new)
+                .toList());
+        return result;
+    }
+
+    public List<MessageDto> before(Long groupId, Long beforeId, int limit) {
+        long before = beforeId == null ? Long.MAX_VALUE : beforeId;
+        GroupBuffer buffer = bufferFor(groupId);
+        synchronized (buffer) {
+            if (!buffer.evicted) {
+                List<MessageDto> newest = buffer.before(before, limit);
+                if (newest.size() == limit || buffer.coveredFromId == 0) {
+                    bufferHits.increment();
+                    return newest;
+                }
+            }
+        }
+        databaseFallbacks.increment();
+        log.debug("Messages before {} in group {} are older than the buffer, reading from database", before, groupId);
+        return messageRepository.findByGroupIdAndIdLessThanOrderByIdDesc(groupId, before, PageRequest.ofSize(limit))
+                .map(MessageDto::new)
+                .getContent();
+    }
+
+    public void appendAfterCommit(MessageDto message) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            append(message);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                append(message);
+            }
+        });
+    }
+
+    public void append(MessageDto message) {
+        GroupBuffer buffer;
+        synchronized (this) {
+            buffer = buffers.get(message.getGroupId());
+        }
+        if (buffer == null) {
+            return;
+        }
+        synchronized (buffer) {
+            long bytesBefore = buffer.bytes;
+            if (!buffer.seeded || buffer.evicted || !buffer.insert(message, capacity)) {
+                return;
+            }
+            bufferedBytes.addAndGet(buffer.bytes - bytesBefore);
+            Iterator<Waiter> waiters = buffer.waiters.iterator();
+            while (waiters.hasNext()) {
+                Waiter waiter = waiters.next();
+                if (waiter.afterId() < message.getId()) {
+                    waiters.remove();
+                    waiter.result().setResult(buffer.after(waiter.afterId(), maxBatch));
+                }
+            }
+        }
+        trimToCapacity();
+    }
+
+    private void trimToCapacity() {
+        if (bufferedBytes.get() <= capacityBytes) {
+            return;
+        }
+        synchronized (this) {
+            Iterator<Map.Entry<Long, GroupBuffer>> eldest = buffers.entrySet().iterator();
+            while (bufferedBytes.get() > capacityBytes && buffers.size() > 1 && eldest.hasNext()) {
+                Map.Entry<Long, GroupBuffer> entry = eldest.next();
+                eldest.remove();
+                release(entry.getKey(), entry.getValue());
+                sizeEvictions.increment();
+            }
+        }
+    }
+
+    private void release(Long groupId, GroupBuffer buffer) {
+        synchronized (buffer) {
+            buffer.evicted = true;
+            bufferedBytes.addAndGet(-buffer.bytes);
+            buffer.bytes = 0;
+            buffer.messages.clear();
+            if (!buffer.waiters.isEmpty()) {
+                log.debug("Evicting message buffer of group {}, completing {} waiting polls", groupId, buffer.waiters.size());
+            }
+            buffer.waiters.forEach(waiter -> waiter.result().setResult(List.of()));
+            buffer.waiters.clear();
+        }
+    }
+
+    private GroupBuffer bufferFor(Long groupId) {
+        GroupBuffer buffer;
+        synchronized (this) {
+            buffer = buffers.computeIfAbsent(groupId, id -> new GroupBuffer());
+        }
+        synchronized (buffer) {
+            if (!buffer.seeded && !buffer.evicted) {
+                List<MessageDto> newest = messageRepository.findByGroupIdOrderByIdDesc(groupId, Limit.of(capacity)).stream()
+                        .map(MessageDto::new)
+                        .toList();
+                for (int i = newest.size() - 1; i >= 0; i--) {
+                    buffer.messages.addLast(newest.get(i));
+                    buffer.bytes += weightOf(newest.get(i));
+                }
+                buffer.coveredFromId = newest.size() < capacity ? 0 : newest.getLast().getId() - 1;
+                buffer.seeded = true;
+                bufferedBytes.addAndGet(buffer.bytes);
+                log.debug("Success - Seeded message buffer of group {} with {} messages", groupId, newest.size());
+            }
+        }
+        trimToCapacity();
+        return buffer;
+    }
+
+    private static long weightOf(MessageDto message) {
+        long chars = (message.getContent() != null ? message.getContent().length() : 0)
+                + (message.getAuthor() != null ? message.getAuthor().length() : 0);
+        return chars * BYTES_PER_CHAR + ENTRY_OVERHEAD_BYTES;
+    }
+
+    private static class GroupBuffer {
+        private final ArrayDeque<MessageDto> messages = new ArrayDeque<>();
+        private final List<Waiter> waiters = new ArrayList<>();
+        private long coveredFromId;
+        private long bytes;
+        private boolean seeded;
+        private boolean evicted;
+
+        private boolean insert(MessageDto message, int capacity) {
+            if (message.getId() <= coveredFromId) {
+                return false;
+            }
+            List<MessageDto> newer = new ArrayList<>();
+            while (!messages.isEmpty() && messages.peekLast().getId() >= message.getId()) {
+                if (messages.peekLast().getId().equals(message.getId())) {
+                    newer.forEach(messages::addLast);
+                    return false;
+                }
+                newer.addFirst(messages.pollLast());
+            }
+            messages.addLast(message);
+            newer.forEach(messages::addLast);
+            bytes += weightOf(message);
+            while (messages.size() > capacity) {
+                MessageDto oldest = messages.pollFirst();
+                bytes -= weightOf(oldest);
+                coveredFromId = oldest.getId();
+            }
+            return true;
+        }
+
+        private List<MessageDto> before(long beforeId, int limit) {
+            List<MessageDto> result = new ArrayList<>();
+            Iterator<MessageDto> newestFirst = messages.descendingIterator();
+            while (newestFirst.hasNext() && result.size() < limit) {
+                MessageDto message = newestFirst.next();
+                if (message.getId() < beforeId) {
+                    result.add(message);
+                }
+            }
+            return result;
+        }
+
+        private List<MessageDto> after(long afterId, int limit) {
+            List<MessageDto> result = new ArrayList<>();
+            for (MessageDto message : messages) {
+                if (message.getId() > afterId) {
+                    result.add(message);
+                    if (result.size() == limit) {
+                        break;
+                    }
+                }
+            }
+            return result;
+        }
+    }
+
+    private record Waiter(long afterId, DeferredResult<List<MessageDto>> result) {
+    }
+}
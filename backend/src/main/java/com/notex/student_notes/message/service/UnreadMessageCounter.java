@@ -0,0 +1,174 @@
+package com.notex.student_notes.message.service;
+
+import com.notex.student_notes.message.dto.UnreadCountDto;
+import com.notex.student_notes.message.repository.MessageRepository;
+import com.notex.student_notes.message.repository.MessageRepository.MessageRef;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@Slf4j
+public class UnreadMessageCounter {
+
+    private static final int INITIAL_TAIL_CAPACITY = 8;
+
+    private final MessageRepository messageRepository;
+    private final int tailSize;
+    private final int maxGroups;
+
+    private final LinkedHashMap<Long, GroupTail> tails = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, GroupTail> eldest) {
+            return size() > maxGroups;
+        }
+    };
+
+    public UnreadMessageCounter(MessageRepository messageRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${messages.unread.tail-size:500}") int tailSize,
+                                @Value("${messages.unread.max-groups:10000}") int maxGroups) {
+        this.messageRepository = messageRepository;
+        this.tailSize = tailSize;
+        this.maxGroups = maxGroups;
+        Gauge.builder("messages.unread.tracked_groups", this, UnreadMessageCounter::size)
+                .register(meterRegistry);
+    }
+
+    public UnreadCountDto count(Long groupId, Long userId, Long lastReadMessageId) {
+        GroupTail tail = tailFor(groupId);
+        long cursor = lastReadMessageId != null ? lastReadMessageId : 0;
+        synchronized (tail) {
+            return new UnreadCountDto(groupId, lastReadMessageId, tail.countAfter(cursor, userId), tail.isTruncatedAfter(cursor));
+        }
+    }
+
+    public void recordAfterCommit(Long groupId, Long messageId, Long senderId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(groupId, messageId, senderId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(groupId, messageId, senderId);
+            }
+        });
+    }
+
+    public void record(Long groupId, Long messageId, Long senderId) {
+        GroupTail tail;
+        synchronized (this) {
+            tail = tails.get(groupId);
+        }
+        if (tail == null) {
+            return;
+        }
+        synchronized (tail) {
+            if (tail.seeded) {
+                tail.insert(messageId, senderId);
+            } else {
+                tail.recordedWhileSeeding.add(new long[]{messageId, senderId});
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return tails.size();
+    }
+
+    private GroupTail tailFor(Long groupId) {
+        GroupTail tail;
+        synchronized (this) {
+            tail = tails.computeIfAbsent(groupId, id -> new GroupTail(tailSize));
+        }
+        synchronized (tail) {
+            if (tail.seeded) {
+                return tail;
+            }
+        }
+        List<MessageRef> newest = messageRepository.findRefsByGroupId(groupId, Limit.of(tailSize));
+        synchronized (tail) {
+            if (!tail.seeded) {
+                for (int i = newest.size() - 1; i >= 0; i--) {
+                    tail.insert(newest.get(i).getId(), newest.get(i).getSenderId());
+                }
+                tail.truncated = tail.truncated || newest.size() == tailSize;
+                tail.recordedWhileSeeding.forEach(recorded -> tail.insert(recorded[0], recorded[1]));
+                tail.recordedWhileSeeding.clear();
+                tail.seeded = true;
+                log.debug("Success - Loaded unread counter of group {} with {} messages", groupId, newest.size());
+            }
+        }
+        return tail;
+    }
+
+    private static class GroupTail {
+        private final int capacity;
+        private final List<long[]> recordedWhileSeeding = new ArrayList<>();
+        private long[] ids = new long[0];
+        private long[] senderIds = new long[0];
+        private int size;
+        private boolean truncated;
+        private boolean seeded;
+
+        private GroupTail(int capacity) {
+            this.capacity = capacity;
+        }
+
+        private void insert(long messageId, long senderId) {
+            int position = Arrays.binarySearch(ids, 0, size, messageId);
+            if (position >= 0) {
+                return;
+            }
+            position = -position - 1;
+            if (size == ids.length && size < capacity) {
+                int grown = Math.min(capacity, Math.max(INITIAL_TAIL_CAPACITY, size * 2));
+                ids = Arrays.copyOf(ids, grown);
+                senderIds = Arrays.copyOf(senderIds, grown);
+            }
+            if (size == ids.length) {
+                truncated = true;
+                if (position == 0) {
+                    return;
+                }
+                System.arraycopy(ids, 1, ids, 0, position - 1);
+                System.arraycopy(senderIds, 1, senderIds, 0, position - 1);
+                position--;
+            } else {
+                System.arraycopy(ids, position, ids, position + 1, size - position);
+                System.arraycopy(senderIds, position, senderIds, position + 1, size - position);
+                size++;
+            }
+            ids[position] = messageId;
+            senderIds[position] = senderId;
+        }
+
+        private int countAfter(long cursor, long userId) {
+            int position = Arrays.binarySearch(ids, 0, size, cursor);
+            int from = position >= 0 ? position + 1 : -position - 1;
+            int unread = 0;
+            for (int i = from; i < size; i++) {
+                if (senderIds[i] != userId) {
+                    unread++;
+                }
+            }
+            return unread;
+        }
+
+        private boolean isTruncatedAfter(long cursor) {
+            return truncated && size > 0 && cursor < ids[0];
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.notex.student_notes.minio.service;
 
 import io.minio.BucketExistsArgs;
+import io.minio.GetObjectArgs;
 import io.minio.MakeBucketArgs;
 import io.minio.MinioClient;
 import io.minio.PutObjectArgs;
@@ -53,6 +54,18 @@ public class MinioService {
         return publicUrl + "/" + bucketName + "/" + filename;
     }
 
+    public byte[] downloadFile(String filename) {
+        try (InputStream stream = minioClient.getObject(
+                GetObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(filename)
+                    .build())) {
+            return stream.readAllBytes();
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to download file: " + filename, e);
+        }
+    }
+
     public boolean isHealthy() {
         try {
             return minioClient.bucketExists(BucketExistsArgs.builder().bucket(bucketName).build());
@@ -12,7 +12,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "notes")
+@Table(name = "notes", indexes = @Index(name = "idx_notes_updated_at", columnList = "updated_at"))
 @Getter
 @Setter
 @NoArgsConstructor
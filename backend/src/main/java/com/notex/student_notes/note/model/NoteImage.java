@@ -4,13 +4,7 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
-import org.springframework.ai.model.Media;
-import org.springframework.http.MediaType;
-import org.springframework.util.MimeTypeUtils;
 
-import java.net.MalformedURLException;
-import java.net.URI;
-import java.net.URL;
 import java.time.LocalDateTime;
 
 @Getter
@@ -30,9 +24,8 @@ public class NoteImage {
     @Column(nullable = false, length = 500)
     private String filename;
 
-    @Transient
-    private String url;
-
+    @Column(length = 64)
+    private String digest;
 
     @Column(nullable = false)
     private LocalDateTime createdAt;
@@ -42,20 +35,8 @@ public class NoteImage {
         this.createdAt = LocalDateTime.now();
     }
 
-    public Media getMedia() throws MalformedURLException {
-        String extension = filename.substring(filename.lastIndexOf('.') + 1).toLowerCase();
-        MediaType mediaType = switch (extension) {
-            case "jpg", "jpeg" -> MediaType.IMAGE_JPEG;
-            case "png" -> MediaType.IMAGE_PNG;
-            case "gif" -> MediaType.IMAGE_GIF;
-            case "webp" -> MediaType.parseMediaType("image/webp");
-            default -> MediaType.APPLICATION_OCTET_STREAM;
-        };
-        URI uri = URI.create(this.getUrl());
-        URL url = uri.toURL();
-
-        org.springframework.util.MimeType mime = MimeTypeUtils.parseMimeType(mediaType.toString());
-        return new Media(mime, url);
+    public String getContentKey() {
+        return digest != null ? digest : filename;
     }
 
 }
@@ -1,5 +1,9 @@
 package com.notex.student_notes.note.service;
 
+import com.notex.student_notes.ai.cache.ContentHasher;
+import com.notex.student_notes.ai.summary.cache.SummaryCache;
+import com.notex.student_notes.ai.summary.trending.TrendingNotesTracker;
+import com.notex.student_notes.ai.translations.service.TranslationService;
 import com.notex.student_notes.auth.dto.NoChangesProvidedException;
 import com.notex.student_notes.config.metrics.CustomMetrics;
 import com.notex.student_notes.minio.service.MinioService;
@@ -28,6 +32,7 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.security.DigestInputStream;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -44,6 +49,9 @@ public class NoteService {
     private final NoteMapper noteMapper;
     private final MinioService minioService;
     private final CustomMetrics customMetrics;
+    private final TrendingNotesTracker trendingNotesTracker;
+    private final SummaryCache summaryCache;
+    private final TranslationService translationService;
 
     private static final Filter FILTER_FOR_USER = Filter.ACTIVE;
 
@@ -90,6 +98,7 @@ public class NoteService {
     public NoteDto getNoteById(Long id){
         log.info("Fetching note {}", id);
         NoteDto note = noteMapper.toDto(findNoteById(id));
+        trendingNotesTracker.recordView(id);
         log.debug("Success - Fetched note {}", id);
         return note;
     }
@@ -107,18 +116,7 @@ public class NoteService {
             try {
                 for (MultipartFile file : inputNote.getImages()) {
                     if (!file.isEmpty()) {
-                        String uploadedFilename = minioService.uploadFile(
-                            file.getOriginalFilename(),
-                            file.getInputStream(),
-                            file.getSize(),
-                            file.getContentType()
-                        );
-                        
-                        NoteImage noteImage = new NoteImage();
-                        noteImage.setNote(createdNote);
-                        noteImage.setFilename(uploadedFilename);
-                        
-                        createdNote.addImage(noteImage);
+                        uploadNoteImage(file, createdNote);
                         log.debug("Successfully uploaded file: {}", file.getOriginalFilename());
                     }
                 }
@@ -183,18 +181,7 @@ public class NoteService {
             try {
                 for (MultipartFile file : inputNote.getNewImages()) {
                     if (!file.isEmpty()) {
-                        String uploadedFilename = minioService.uploadFile(
-                            file.getOriginalFilename(),
-                            file.getInputStream(),
-                            file.getSize(),
-                            file.getContentType()
-                        );
-                        
-                        NoteImage noteImage = new NoteImage();
-                        noteImage.setNote(noteToUpdate);
-                        noteImage.setFilename(uploadedFilename);
-                        
-                        noteToUpdate.addImage(noteImage);
+                        uploadNoteImage(file, noteToUpdate);
                         log.debug("Successfully uploaded file: {}", file.getOriginalFilename());
                     }
                 }
@@ -206,6 +193,12 @@ public class NoteService {
         }
         noteToUpdate.setUpdatedAt(LocalDateTime.now());
         Note updatedNote = noteRepository.save(noteToUpdate);
+        if (inputNote.hasContent() || inputNote.hasRemoveImages() || inputNote.hasImages()){
+            summaryCache.evictAfterCommit(id);
+        }
+        if (inputNote.hasContent()){
+            translationService.evictCachedAfterCommit(id);
+        }
         NoteDto updatedNoteDto = noteMapper.toDto(updatedNote);
         log.debug("Success - note {} updated.", id);
         customMetrics.incrementNoteUpdatedCounter();
@@ -232,6 +225,8 @@ public class NoteService {
             throw new NoteImageDeleteException("Failed to delete note images from MinIO");
         }
         noteRepository.save(noteToDelete);
+        summaryCache.evictAfterCommit(id);
+        translationService.evictCachedAfterCommit(id);
         log.debug("Success - Note {} deleted.", id);
         customMetrics.incrementNoteDeletedCounter();
     }
@@ -256,6 +251,7 @@ public class NoteService {
                 throw new NoteImageDeleteException("Failed to delete note image from MinIO");
             }
             noteRepository.save(note);
+            summaryCache.evictAfterCommit(noteId);
             log.debug("Success - Note image {} deleted from note {}", imageId, noteId);
         }
     }
@@ -287,6 +283,24 @@ public class NoteService {
         return note;
     }
 
+    private void uploadNoteImage(MultipartFile file, Note note) throws IOException {
+        try (DigestInputStream inputStream = new DigestInputStream(file.getInputStream(), ContentHasher.newDigest())) {
+            String uploadedFilename = minioService.uploadFile(
+                file.getOriginalFilename(),
+                inputStream,
+                file.getSize(),
+                file.getContentType()
+            );
+
+            NoteImage noteImage = new NoteImage();
+            noteImage.setNote(note);
+            noteImage.setFilename(uploadedFilename);
+            noteImage.setDigest(ContentHasher.toHex(inputStream.getMessageDigest()));
+
+            note.addImage(noteImage);
+        }
+    }
+
     private void removeNoteImage(NoteImage noteImage, Note noteToUpdate) throws Exception {
         minioService.deleteFile(noteImage.getFilename());
         noteToUpdate.removeImage(noteImage);
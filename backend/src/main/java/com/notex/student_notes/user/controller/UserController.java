@@ -2,6 +2,8 @@ package com.notex.student_notes.user.controller;
 
 import com.notex.student_notes.group.dto.GroupDto;
 import com.notex.student_notes.group.service.GroupService;
+import com.notex.student_notes.message.dto.UnreadCountDto;
+import com.notex.student_notes.message.service.MessageService;
 import com.notex.student_notes.note.dto.NoteDto;
 import com.notex.student_notes.note.service.Filter;
 import com.notex.student_notes.note.service.NoteService;
@@ -33,6 +35,7 @@ public class UserController {
     private final UserService userService;
     private final NoteService noteService;
     private final GroupService groupService;
+    private final MessageService messageService;
 
     @GetMapping("/me")
     public ResponseEntity<UserDto> me(){
@@ -66,6 +69,15 @@ public class UserController {
         return ResponseEntity.ok(groups);
     }
 
+    @GetMapping("/me/groups/unread")
+    public ResponseEntity<List<UnreadCountDto>> getUnreadCounts(){
+        User currentUser = getCurrentUser();
+        log.info("GET /users/me/groups/unread: User {} fetching unread counts", currentUser.getUsername());
+        List<UnreadCountDto> counts = messageService.getUnreadCounts(currentUser);
+        log.debug("Success - GET /users/me/groups/unread: User {} fetched unread counts of {} groups", currentUser.getUsername(), counts.size());
+        return ResponseEntity.ok(counts);
+    }
+
     @GetMapping("/{username}")
     public ResponseEntity<?> getUserByUsername(@PathVariable String username){
         User currentUser = getCurrentUser();
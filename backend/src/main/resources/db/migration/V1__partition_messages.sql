@@ -0,0 +1,73 @@
+-- Range-partitions messages by month on created_at.
+--
+-- Existing rows are not copied. The old table is renamed to messages_legacy and attached as a single partition
+-- covering everything before the first monthly partition. Its CHECK constraint lets the attach skip the validation scan.
+-- On an empty database the partitioned table is created directly. Hibernate adds the foreign keys afterwards.
+-- Future partitions are created, and old ones archived, by MessagePartitionService.
+
+do $$
+declare
+    first_month timestamp := date_trunc('month', localtimestamp);
+    last_month timestamp := date_trunc('month', localtimestamp) + interval '3 months';
+    next_id bigint := 1;
+    pkey_name text;
+    month_start timestamp;
+begin
+    if exists (select 1 from pg_class where oid = to_regclass('public.messages') and relkind = 'p') then
+        return;
+    end if;
+
+    create sequence if not exists messages_id_seq;
+
+    if to_regclass('public.messages') is not null then
+        alter table messages rename to messages_legacy;
+
+        select coalesce(max(id), 0) + 1,
+               greatest(first_month + interval '1 month', coalesce(date_trunc('month', max(created_at)) + interval '1 month', first_month))
+        into next_id, first_month
+        from messages_legacy;
+
+        alter table messages_legacy alter column id drop identity if exists;
+        alter table messages_legacy alter column id drop default;
+        update messages_legacy set created_at = timestamp 'epoch' where created_at is null;
+        alter table messages_legacy alter column created_at set not null;
+        execute format('alter table messages_legacy add constraint messages_legacy_created_at_check check (created_at < %L)', first_month);
+
+        select conname into pkey_name from pg_constraint where conrelid = 'messages_legacy'::regclass and contype = 'p';
+        if pkey_name is not null then
+            execute format('alter table messages_legacy rename constraint %I to messages_legacy_pkey', pkey_name);
+        end if;
+        alter index if exists idx_messages_group_id_id rename to idx_messages_legacy_group_id_id;
+        create unique index if not exists idx_messages_legacy_id_created_at on messages_legacy (id, created_at);
+
+        create table messages (like messages_legacy including defaults) partition by range (created_at);
+    else
+        create table messages (
+            id bigint not null,
+            group_id bigint not null,
+            user_id bigint not null,
+            content varchar(500) not null,
+            created_at timestamp(6) not null
+        ) partition by range (created_at);
+    end if;
+
+    alter table messages alter column id set default nextval('messages_id_seq');
+    alter sequence messages_id_seq owned by messages.id;
+    perform setval('messages_id_seq', next_id, false);
+    alter table messages add constraint messages_pkey primary key (id, created_at);
+    create index idx_messages_group_id_id on messages (group_id, id);
+
+    if to_regclass('public.messages_legacy') is not null then
+        execute format('alter table messages attach partition messages_legacy for values from (minvalue) to (%L)', first_month);
+    end if;
+
+    month_start := first_month;
+    while month_start <= greatest(last_month, first_month) loop
+        execute format('create table if not exists %I partition of messages for values from (%L) to (%L)',
+                       'messages_p' || to_char(month_start, 'YYYY_MM'), month_start, month_start + interval '1 month');
+        month_start := month_start + interval '1 month';
+    end loop;
+
+    create table if not exists messages_default partition of messages default;
+end
+$$;
@@ -0,0 +1,82 @@
+package com.notex.student_notes.ai;
+
+import com.notex.student_notes.ai.quota.exceptions.AiQuotaExceededException;
+import com.notex.student_notes.ai.quota.repository.AiTokenUsageRepository;
+import com.notex.student_notes.ai.quota.service.AiQuotaService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AiQuotaServiceTests {
+
+    @Mock
+    private AiTokenUsageRepository aiTokenUsageRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AiQuotaService aiQuotaService;
+
+    @BeforeEach
+    void setUp(){
+        meterRegistry = new SimpleMeterRegistry();
+        aiQuotaService = new AiQuotaService(aiTokenUsageRepository, meterRegistry, 1000, 5000);
+    }
+
+    @Test
+    void checkQuota_ShouldThrowException_WhenDailyBudgetIsSpent(){
+        aiQuotaService.checkQuota(1L);
+        aiQuotaService.recordUsage(1L, FakeChatModel.response("Summary", 800, 250));
+
+        assertThrows(AiQuotaExceededException.class, () -> aiQuotaService.checkQuota(1L));
+        assertDoesNotThrow(() -> aiQuotaService.checkQuota(2L));
+        assertEquals(800.0, meterRegistry.get("ai.tokens.used").tag("type", "prompt").counter().count());
+        assertEquals(1.0, meterRegistry.get("ai.quota.rejected").tag("period", "daily").counter().count());
+    }
+
+    @Test
+    void checkQuota_ShouldThrowException_WhenPersistedMonthlyUsageExceedsBudget(){
+        LocalDate today = LocalDate.now();
+        when(aiTokenUsageRepository.sumTokensByUserIdAndUsageDateBetween(1L, today, today)).thenReturn(0L);
+        when(aiTokenUsageRepository.sumTokensByUserIdAndUsageDateBetween(1L, today.withDayOfMonth(1), today)).thenReturn(5000L);
+
+        assertThrows(AiQuotaExceededException.class, () -> aiQuotaService.checkQuota(1L));
+    }
+
+    @Test
+    void flushUsage_ShouldWriteOneRowPerUserAndDay(){
+        aiQuotaService.recordUsage(1L, FakeChatModel.response("First", 100, 20));
+        aiQuotaService.recordUsage(1L, FakeChatModel.response("Second", 50, 10));
+        aiQuotaService.recordUsage(2L, FakeChatModel.response("Other", 30, 5));
+
+        aiQuotaService.flushUsage();
+        aiQuotaService.flushUsage();
+
+        verify(aiTokenUsageRepository).addUsage(1L, LocalDate.now(), 150, 30);
+        verify(aiTokenUsageRepository).addUsage(2L, LocalDate.now(), 30, 5);
+        verify(aiTokenUsageRepository, times(2)).addUsage(anyLong(), any(), anyLong(), anyLong());
+        assertEquals(180.0, meterRegistry.get("ai.tokens.user.daily").tag("user_id", "1").gauge().value());
+    }
+
+    @Test
+    void flushUsage_ShouldKeepUsageForNextFlush_WhenDatabaseIsUnavailable(){
+        aiQuotaService.recordUsage(1L, FakeChatModel.response("Summary", 100, 20));
+        doThrow(new DataAccessResourceFailureException("Database down"))
+                .doNothing()
+                .when(aiTokenUsageRepository).addUsage(anyLong(), any(), anyLong(), anyLong());
+
+        aiQuotaService.flushUsage();
+        aiQuotaService.flushUsage();
+
+        verify(aiTokenUsageRepository, times(2)).addUsage(1L, LocalDate.now(), 100, 20);
+    }
+}
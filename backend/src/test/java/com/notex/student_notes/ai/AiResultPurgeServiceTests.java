@@ -0,0 +1,137 @@
+package com.notex.student_notes.ai;
+
+import com.notex.student_notes.ai.cache.AiResultPurgeService;
+import com.notex.student_notes.ai.summary.cache.SummaryCache;
+import com.notex.student_notes.ai.summary.repository.SummaryChunkRepository;
+import com.notex.student_notes.ai.summary.repository.SummaryRepository;
+import com.notex.student_notes.ai.summary.repository.SummaryRepository.SummaryRef;
+import com.notex.student_notes.ai.translations.language.Language;
+import com.notex.student_notes.ai.translations.repository.TranslationRepository;
+import com.notex.student_notes.ai.translations.repository.TranslationRepository.EditedTranslationRef;
+import com.notex.student_notes.ai.translations.repository.TranslationRepository.TranslationRef;
+import com.notex.student_notes.ai.translations.service.TranslationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AiResultPurgeServiceTests {
+
+    @Mock
+    private SummaryRepository summaryRepository;
+    @Mock
+    private TranslationRepository translationRepository;
+    @Mock
+    private SummaryChunkRepository summaryChunkRepository;
+
+    private ConcurrentMapCacheManager cacheManager;
+    private SimpleMeterRegistry meterRegistry;
+    private SummaryCache summaryCache;
+    private AiResultPurgeService aiResultPurgeService;
+
+    @BeforeEach
+    void setUp(){
+        cacheManager = new ConcurrentMapCacheManager("translations");
+        meterRegistry = new SimpleMeterRegistry();
+        summaryCache = new SummaryCache(meterRegistry, 1);
+        aiResultPurgeService = new AiResultPurgeService(summaryRepository, translationRepository, summaryChunkRepository, summaryCache,
+                cacheManager, meterRegistry, true, 2, 3, Duration.ofDays(7), Duration.ofDays(30));
+    }
+
+    @Test
+    void purge_ShouldDeleteExpiredSummariesInBoundedBatchesAndEvictCache(){
+        summaryCache.put(1L, "old summary", LocalDateTime.now().plusMinutes(1), summaryCache.generation());
+        summaryCache.put(5L, "fresh summary", LocalDateTime.now().plusDays(1), summaryCache.generation());
+        when(summaryRepository.findExpired(any(), any()))
+                .thenReturn(List.of(summaryRef(10L, 1L), summaryRef(11L, 2L)));
+        when(summaryRepository.deleteExpiredByIdIn(anyCollection(), any())).thenReturn(2);
+
+        aiResultPurgeService.purge();
+
+        verify(summaryRepository, times(3)).deleteExpiredByIdIn(anyCollection(), any());
+        assertTrue(summaryCache.get(1L).isEmpty());
+        assertTrue(summaryCache.get(5L).isPresent());
+        assertEquals(6, meterRegistry.get("ai.purge.removed").tag("table", "summaries").counter().count());
+        assertEquals(1, meterRegistry.get("ai.purge.time").timer().count());
+    }
+
+    @Test
+    void purge_ShouldDeleteSupersededTranslationsAndEvictCache(){
+        cacheManager.getCache("translations").put("1:PL", "deleted note translation");
+        cacheManager.getCache("translations").put("2:DE", "outdated translation");
+        cacheManager.getCache("translations").put("2:PL", "current translation");
+        when(summaryRepository.findExpired(any(), any())).thenReturn(List.of());
+        when(translationRepository.findOfDeletedNotes(any())).thenReturn(List.of(translationRef(20L, 1L, Language.PL)));
+        when(translationRepository.findOlderThanNoteEdit(eq(0L), any(), any())).thenReturn(List.of(
+                editedTranslationRef(21L, 2L, Language.DE, "old content", "new content"),
+                editedTranslationRef(22L, 2L, Language.PL, "new content", "new content")));
+        when(translationRepository.deleteSupersededByIdIn(anyCollection())).thenReturn(1);
+
+        aiResultPurgeService.purge();
+
+        verify(translationRepository).deleteSupersededByIdIn(List.of(20L));
+        verify(translationRepository).deleteSupersededByIdIn(List.of(21L));
+        verify(translationRepository).markCheckedByIdIn(eq(List.of(22L)), any());
+        verify(translationRepository).findOlderThanNoteEdit(eq(22L), any(), any());
+        verify(summaryRepository, never()).deleteExpiredByIdIn(anyCollection(), any());
+        assertNull(cacheManager.getCache("translations").get("1:PL"));
+        assertNull(cacheManager.getCache("translations").get("2:DE"));
+        assertNotNull(cacheManager.getCache("translations").get("2:PL"));
+        assertEquals(2, meterRegistry.get("ai.purge.removed").tag("table", "translations").counter().count());
+    }
+
+    @Test
+    void purge_ShouldDeleteSummaryChunksOlderThanTtl(){
+        when(summaryRepository.findExpired(any(), any())).thenReturn(List.of());
+        when(summaryChunkRepository.findIdsCreatedBefore(any(), any()))
+                .thenReturn(List.of(30L, 31L))
+                .thenReturn(List.of(32L));
+        when(summaryChunkRepository.deleteByIdIn(anyCollection())).thenAnswer(i -> i.<List<Long>>getArgument(0).size());
+
+        aiResultPurgeService.purge();
+
+        verify(summaryChunkRepository).deleteByIdIn(List.of(30L, 31L));
+        verify(summaryChunkRepository).deleteByIdIn(List.of(32L));
+        verify(summaryChunkRepository, times(2)).findIdsCreatedBefore(
+                argThat(createdBefore -> createdBefore.isBefore(LocalDateTime.now().minusDays(29))), any());
+        assertEquals(3, meterRegistry.get("ai.purge.removed").tag("table", "summary_chunks").counter().count());
+    }
+
+    private SummaryRef summaryRef(Long id, Long noteId){
+        return new SummaryRef() {
+            public Long getId() { return id; }
+            public Long getNoteId() { return noteId; }
+        };
+    }
+
+    private TranslationRef translationRef(Long id, Long noteId, Language language){
+        return new TranslationRef() {
+            public Long getId() { return id; }
+            public Long getNoteId() { return noteId; }
+            public Language getLanguage() { return language; }
+        };
+    }
+
+    private EditedTranslationRef editedTranslationRef(Long id, Long noteId, Language language, String translatedContent, String noteContent){
+        String contentHash = TranslationService.contentHash(translatedContent, language);
+        return new EditedTranslationRef() {
+            public Long getId() { return id; }
+            public Long getNoteId() { return noteId; }
+            public Language getLanguage() { return language; }
+            public String getContentHash() { return contentHash; }
+            public String getNoteContent() { return noteContent; }
+        };
+    }
+}
@@ -0,0 +1,114 @@
+package com.notex.student_notes.ai;
+
+import com.notex.student_notes.ai.quota.service.AiQuotaService;
+import com.notex.student_notes.ai.summary.exceptions.SummaryGenerationFailedException;
+import com.notex.student_notes.ai.summary.model.SummaryChunk;
+import com.notex.student_notes.ai.summary.repository.SummaryChunkRepository;
+import com.notex.student_notes.ai.summary.service.ChunkSummaryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.chat.client.ChatClient;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Answers.RETURNS_DEEP_STUBS;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ChunkSummaryServiceTests {
+
+    @Mock(answer = RETURNS_DEEP_STUBS)
+    private ChatClient chatClient;
+    @Mock
+    private SummaryChunkRepository summaryChunkRepository;
+    @Mock
+    private AiQuotaService aiQuotaService;
+
+    private ChunkSummaryService chunkSummaryService;
+
+    @BeforeEach
+    void setUp(){
+        chunkSummaryService = new ChunkSummaryService(chatClient, summaryChunkRepository, aiQuotaService, 100, 200, 2);
+    }
+
+    @AfterEach
+    void tearDown(){
+        chunkSummaryService.shutdown();
+    }
+
+    @Test
+    void needsChunking_ShouldOnlyChunkContentAboveThreshold(){
+        assertFalse(chunkSummaryService.needsChunking("a".repeat(200)));
+        assertTrue(chunkSummaryService.needsChunking("a".repeat(201)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void summarizeChunks_ShouldOnlySummarizeChunksMissingFromCache(){
+        String content = paragraph('A') + "\n\n" + paragraph('B') + "\n\n" + paragraph('C');
+        when(summaryChunkRepository.findAllByContentHashIn(anyCollection())).thenReturn(List.of());
+        when(chatClient.prompt().user(any(Consumer.class)).call().chatResponse())
+                .thenReturn(FakeChatModel.response("partial summary", 100, 20));
+
+        AtomicLong usedTokens = new AtomicLong();
+        List<String> summaries = chunkSummaryService.summarizeChunks(content, 1L, usedTokens);
+
+        assertEquals(3, summaries.size());
+        assertEquals(360, usedTokens.get());
+        ArgumentCaptor<List<SummaryChunk>> savedCaptor = ArgumentCaptor.forClass(List.class);
+        verify(summaryChunkRepository).saveAll(savedCaptor.capture());
+        List<SummaryChunk> savedChunks = savedCaptor.getValue();
+        assertEquals(3, savedChunks.size());
+        verify(aiQuotaService, times(3)).recordUsage(eq(1L), any());
+
+        clearInvocations(summaryChunkRepository);
+        String editedContent = paragraph('A') + "\n\n" + paragraph('B') + "\n\n" + paragraph('D');
+        when(summaryChunkRepository.findAllByContentHashIn(anyCollection())).thenReturn(savedChunks);
+
+        List<String> editedSummaries = chunkSummaryService.summarizeChunks(editedContent, 1L, new AtomicLong());
+
+        assertEquals(3, editedSummaries.size());
+        verify(summaryChunkRepository).saveAll(savedCaptor.capture());
+        assertEquals(1, savedCaptor.getValue().size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void summarizeChunks_ShouldCancelQueuedChunks_AndKeepFinishedOnes_WhenChunkFails(){
+        chunkSummaryService.shutdown();
+        chunkSummaryService = new ChunkSummaryService(chatClient, summaryChunkRepository, aiQuotaService, 100, 200, 1);
+        String content = paragraph('A') + "\n\n" + paragraph('B') + "\n\n" + paragraph('C') + "\n\n" + paragraph('D');
+        when(summaryChunkRepository.findAllByContentHashIn(anyCollection())).thenReturn(List.of());
+        AtomicInteger calls = new AtomicInteger();
+        when(chatClient.prompt().user(any(Consumer.class)).call().chatResponse()).thenAnswer(invocation -> {
+            if (calls.incrementAndGet() == 2) {
+                throw new IllegalStateException("Upstream error");
+            }
+            Thread.sleep(200);
+            return FakeChatModel.response("partial summary", 100, 20);
+        });
+
+        assertThrows(SummaryGenerationFailedException.class, () -> chunkSummaryService.summarizeChunks(content, 1L, new AtomicLong()));
+
+        assertEquals(2, calls.get());
+        ArgumentCaptor<List<SummaryChunk>> savedCaptor = ArgumentCaptor.forClass(List.class);
+        verify(summaryChunkRepository).saveAll(savedCaptor.capture());
+        assertEquals(1, savedCaptor.getValue().size());
+    }
+
+    private String paragraph(char letter){
+        return (letter + "word ").repeat(15).strip() + ".";
+    }
+}
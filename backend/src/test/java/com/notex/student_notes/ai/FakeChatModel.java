@@ -0,0 +1,54 @@
+package com.notex.student_notes.ai;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class FakeChatModel implements ChatModel {
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private volatile Duration latency = Duration.ZERO;
+    private volatile RuntimeException error;
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        calls.incrementAndGet();
+        try {
+            Thread.sleep(latency.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Fake model call interrupted", e);
+        }
+        if (error != null) {
+            throw error;
+        }
+        return response("Fake response", 10, 5);
+    }
+
+    static ChatResponse response(String text, int promptTokens, int completionTokens) {
+        ChatResponseMetadata metadata = ChatResponseMetadata.builder()
+                .usage(new DefaultUsage(promptTokens, completionTokens))
+                .build();
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))), metadata);
+    }
+
+    void setLatency(Duration latency) {
+        this.latency = latency;
+    }
+
+    void failWith(RuntimeException error) {
+        this.error = error;
+    }
+
+    int getCalls() {
+        return calls.get();
+    }
+}
@@ -0,0 +1,93 @@
+package com.notex.student_notes.ai;
+
+import com.notex.student_notes.ai.summary.service.ImagePayloadService;
+import com.notex.student_notes.minio.service.MinioService;
+import com.notex.student_notes.note.model.NoteImage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.model.Media;
+import org.springframework.util.MimeTypeUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ImagePayloadServiceTests {
+
+    @Mock
+    private MinioService minioService;
+
+    private ImagePayloadService imagePayloadService;
+
+    @BeforeEach
+    void setUp(){
+        imagePayloadService = new ImagePayloadService(minioService, 768, 1, 2);
+    }
+
+    @AfterEach
+    void tearDown(){
+        imagePayloadService.shutdown();
+    }
+
+    @Test
+    void loadImages_ShouldSendDownscaledJpegInline() throws IOException {
+        when(minioService.downloadFile("photo.png")).thenReturn(png(2000, 1000));
+
+        List<Media> images = imagePayloadService.loadImages(List.of(noteImage("photo.png", "digest-1")));
+
+        assertEquals(1, images.size());
+        assertEquals(MimeTypeUtils.IMAGE_JPEG, images.get(0).getMimeType());
+        BufferedImage sent = ImageIO.read(new ByteArrayInputStream(images.get(0).getDataAsByteArray()));
+        assertEquals(768, sent.getWidth());
+        assertEquals(384, sent.getHeight());
+    }
+
+    @Test
+    void loadImages_ShouldReuseResizedImage_WhenDigestWasAlreadyLoaded() throws IOException {
+        when(minioService.downloadFile(anyString())).thenReturn(png(300, 200));
+
+        imagePayloadService.loadImages(List.of(noteImage("first.png", "same-digest"), noteImage("other.png", "other-digest")));
+        List<Media> images = imagePayloadService.loadImages(List.of(noteImage("copy.png", "same-digest")));
+
+        assertEquals(1, images.size());
+        verify(minioService, never()).downloadFile("copy.png");
+        verify(minioService, times(2)).downloadFile(anyString());
+    }
+
+    @Test
+    void loadImages_ShouldPassThroughImage_WhenFormatCannotBeDecoded(){
+        byte[] webp = {'R', 'I', 'F', 'F', 0x1a, 0, 0, 0, 'W', 'E', 'B', 'P', 'V', 'P', '8', 'L', 0x0d, 0, 0, 0, 0x2f, 0, 0, 0, 0x10, 0x07, 0x10, 0x11, 0x11, (byte) 0x88, (byte) 0x88, (byte) 0xfe, 0x07, 0};
+        when(minioService.downloadFile("sketch.webp")).thenReturn(webp);
+
+        List<Media> images = imagePayloadService.loadImages(List.of(noteImage("sketch.webp", "digest-webp")));
+
+        assertEquals(1, images.size());
+        assertEquals(MimeTypeUtils.parseMimeType("image/webp"), images.get(0).getMimeType());
+        assertArrayEquals(webp, images.get(0).getDataAsByteArray());
+    }
+
+    private NoteImage noteImage(String filename, String digest){
+        NoteImage noteImage = new NoteImage();
+        noteImage.setFilename(filename);
+        noteImage.setDigest(digest);
+        return noteImage;
+    }
+
+    private byte[] png(int width, int height) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB), "png", output);
+        return output.toByteArray();
+    }
+}
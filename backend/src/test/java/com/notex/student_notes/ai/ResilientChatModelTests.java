@@ -0,0 +1,115 @@
+package com.notex.student_notes.ai;
+
+import com.notex.student_notes.config.ai.AiCircuitBreaker;
+import com.notex.student_notes.config.ai.AiUnavailableException;
+import com.notex.student_notes.config.ai.ResilientChatModel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResilientChatModelTests {
+
+    private FakeChatModel fakeChatModel;
+    private AiCircuitBreaker circuitBreaker;
+    private SimpleMeterRegistry meterRegistry;
+    private ChatClient chatClient;
+    private ResilientChatModel resilientChatModel;
+
+    @BeforeEach
+    void setUp(){
+        fakeChatModel = new FakeChatModel();
+        circuitBreaker = new AiCircuitBreaker(4, 50, Duration.ofMillis(200));
+        meterRegistry = new SimpleMeterRegistry();
+        resilientChatModel = new ResilientChatModel(fakeChatModel, circuitBreaker, 1,
+                Duration.ofMillis(50), Duration.ofMillis(300), meterRegistry);
+        chatClient = ChatClient.builder(resilientChatModel).build();
+    }
+
+    @Test
+    void call_ShouldReturnResponse_WhenModelIsHealthy(){
+        assertEquals("Fake response", ask());
+        assertEquals(AiCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void call_ShouldFailFast_WhenModelIsSlowerThanTimeout(){
+        fakeChatModel.setLatency(Duration.ofSeconds(2));
+
+        long start = System.nanoTime();
+        assertThrows(AiUnavailableException.class, this::ask);
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(1)) < 0);
+        assertEquals(1.0, meterRegistry.get("ai.calls.timeout").counter().count());
+    }
+
+    @Test
+    void call_ShouldOpenCircuitAndSkipModel_WhenFailureRateIsExceeded(){
+        fakeChatModel.failWith(new IllegalStateException("Provider error"));
+        for (int i = 0; i < 4; i++) {
+            assertThrows(IllegalStateException.class, this::ask);
+        }
+
+        assertEquals(AiCircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertThrows(AiUnavailableException.class, this::ask);
+        assertEquals(4, fakeChatModel.getCalls());
+        assertEquals(1.0, meterRegistry.get("ai.calls.rejected").tag("reason", "circuit_open").counter().count());
+        assertEquals(1.0, meterRegistry.get("ai.circuit.state").gauge().value());
+    }
+
+    @Test
+    void call_ShouldCloseCircuit_WhenTrialCallSucceedsAfterOpenDuration() throws InterruptedException {
+        fakeChatModel.failWith(new IllegalStateException("Provider error"));
+        for (int i = 0; i < 4; i++) {
+            assertThrows(IllegalStateException.class, this::ask);
+        }
+        fakeChatModel.failWith(null);
+        Thread.sleep(250);
+
+        assertEquals("Fake response", ask());
+        assertEquals(AiCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void stream_ShouldNotTakeTrialPermit_UntilSubscribed() throws InterruptedException {
+        fakeChatModel.failWith(new IllegalStateException("Provider error"));
+        for (int i = 0; i < 4; i++) {
+            assertThrows(IllegalStateException.class, this::ask);
+        }
+        fakeChatModel.failWith(null);
+        Thread.sleep(250);
+
+        resilientChatModel.stream(new Prompt("Unused stream"));
+
+        assertEquals("Fake response", ask());
+        assertEquals(AiCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void call_ShouldRejectCall_WhenBulkheadIsFull(){
+        fakeChatModel.setLatency(Duration.ofMillis(200));
+        CompletableFuture<String> inFlight = CompletableFuture.supplyAsync(this::ask);
+        waitUntilInFlight();
+
+        assertThrows(AiUnavailableException.class, this::ask);
+        assertEquals("Fake response", inFlight.join());
+        assertEquals(1.0, meterRegistry.get("ai.calls.rejected").tag("reason", "bulkhead_full").counter().count());
+    }
+
+    private String ask(){
+        return chatClient.prompt().user("Summarize").call().content();
+    }
+
+    private void waitUntilInFlight(){
+        long deadline = System.nanoTime() + Duration.ofSeconds(1).toNanos();
+        while (meterRegistry.get("ai.bulkhead.active").gauge().value() < 1 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.notex.student_notes.ai;
+
+import com.notex.student_notes.ai.translations.dto.BatchTranslationResult;
+import com.notex.student_notes.ai.translations.language.Language;
+import com.notex.student_notes.config.ai.SimulatedChatModel;
+import com.notex.student_notes.config.ai.SimulatedChatModel.LatencyDistribution;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.retry.TransientAiException;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SimulatedChatModelTests {
+
+    private static final String PROMPT = "Summarize the following note: photosynthesis converts light energy into chemical energy stored in glucose.";
+
+    @Test
+    void call_ShouldReturnSameTextAndUsage_ForSamePrompt(){
+        SimulatedChatModel first = simulatedChatModel(0.0, 1);
+        SimulatedChatModel second = simulatedChatModel(0.0, 2);
+
+        ChatResponse response = first.call(new Prompt(PROMPT));
+
+        assertEquals(response.getResult().getOutput().getText(), second.call(new Prompt(PROMPT)).getResult().getOutput().getText());
+        assertNotEquals(response.getResult().getOutput().getText(), first.call(new Prompt(PROMPT + " Extra.")).getResult().getOutput().getText());
+        assertEquals(PROMPT.length() / 4, response.getMetadata().getUsage().getPromptTokens());
+        assertTrue(response.getMetadata().getUsage().getCompletionTokens() > 0);
+    }
+
+    @Test
+    void call_ShouldThrowTransientException_WhenErrorRateIsOne(){
+        assertThrows(TransientAiException.class, () -> simulatedChatModel(1.0, 1).call(new Prompt(PROMPT)));
+    }
+
+    @Test
+    void stream_ShouldEmitChunksFollowedByUsage(){
+        SimulatedChatModel simulatedChatModel = simulatedChatModel(0.0, 1);
+
+        List<ChatResponse> responses = simulatedChatModel.stream(new Prompt(PROMPT)).collectList().block();
+
+        assertNotNull(responses);
+        assertTrue(responses.size() > 2);
+        String streamed = responses.stream().map(r -> r.getResult().getOutput().getText()).reduce("", String::concat);
+        assertEquals(simulatedChatModel.call(new Prompt(PROMPT)).getResult().getOutput().getText(), streamed);
+        assertNotNull(responses.get(responses.size() - 1).getMetadata().getUsage());
+    }
+
+    @Test
+    void call_ShouldProduceTranslationsForEachRequestedLanguage_WhenStructuredOutputIsRequested(){
+        ChatClient chatClient = ChatClient.builder(simulatedChatModel(0.0, 1)).build();
+
+        BatchTranslationResult result = chatClient.prompt()
+                .user("Translate this note to each of these languages: Polish (PL), German (DE).\nNote text")
+                .call()
+                .entity(BatchTranslationResult.class);
+
+        assertNotNull(result);
+        assertEquals(List.of(Language.PL, Language.DE),
+                result.translations().stream().map(BatchTranslationResult.LanguageTranslation::language).toList());
+    }
+
+    private SimulatedChatModel simulatedChatModel(double errorRate, long seed){
+        return new SimulatedChatModel(LatencyDistribution.FIXED, Duration.ZERO, Duration.ZERO, Duration.ZERO, errorRate, seed);
+    }
+}
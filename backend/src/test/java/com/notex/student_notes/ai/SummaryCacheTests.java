@@ -0,0 +1,82 @@
+package com.notex.student_notes.ai;
+
+import com.notex.student_notes.ai.summary.cache.SummaryCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SummaryCacheTests {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SummaryCache summaryCache;
+
+    @BeforeEach
+    void setUp(){
+        meterRegistry = new SimpleMeterRegistry();
+        summaryCache = new SummaryCache(meterRegistry, 1);
+    }
+
+    @Test
+    void get_ShouldDropEntry_WhenSummaryExpired(){
+        summaryCache.put(1L, "Summary", LocalDateTime.now().plusNanos(1_000_000), summaryCache.generation());
+        summaryCache.put(2L, "Summary", LocalDateTime.now().plusDays(1), summaryCache.generation());
+
+        await(5);
+
+        assertEquals(Optional.empty(), summaryCache.get(1L));
+        assertEquals(Optional.of("Summary"), summaryCache.get(2L));
+        assertEquals(1, evictions("expired"));
+    }
+
+    @Test
+    void put_ShouldEvictLeastRecentlyUsed_WhenOverCapacity(){
+        String text = "x".repeat(200_000);
+        summaryCache.put(1L, text, LocalDateTime.now().plusDays(1), summaryCache.generation());
+        summaryCache.put(2L, text, LocalDateTime.now().plusDays(1), summaryCache.generation());
+        summaryCache.get(1L);
+
+        summaryCache.put(3L, text, LocalDateTime.now().plusDays(1), summaryCache.generation());
+
+        assertTrue(summaryCache.get(1L).isPresent());
+        assertTrue(summaryCache.get(2L).isEmpty());
+        assertTrue(summaryCache.get(3L).isPresent());
+        assertEquals(1, evictions("size"));
+    }
+
+    @Test
+    void put_ShouldBeSkipped_WhenNoteWasInvalidatedWhileLoading(){
+        long generation = summaryCache.generation();
+
+        summaryCache.evict(1L);
+        summaryCache.put(1L, "Summary of old content", LocalDateTime.now().plusDays(1), generation);
+
+        assertTrue(summaryCache.get(1L).isEmpty());
+    }
+
+    @Test
+    void evictAfterCommit_ShouldEvictImmediately_WithoutTransaction(){
+        summaryCache.put(1L, "Summary", LocalDateTime.now().plusDays(1), summaryCache.generation());
+
+        summaryCache.evictAfterCommit(1L);
+
+        assertTrue(summaryCache.get(1L).isEmpty());
+        assertEquals(1, evictions("invalidated"));
+    }
+
+    private double evictions(String cause){
+        return meterRegistry.get("ai.cache.evictions").tag("cause", cause).counter().count();
+    }
+
+    private static void await(long millis){
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.notex.student_notes.ai;
+
+import com.notex.student_notes.ai.summary.model.Summary;
+import com.notex.student_notes.ai.summary.repository.SummaryRepository;
+import com.notex.student_notes.ai.summary.service.SummaryPrewarmService;
+import com.notex.student_notes.ai.summary.service.SummaryService;
+import com.notex.student_notes.ai.summary.trending.TrendingNotesTracker;
+import com.notex.student_notes.config.ai.CallsLimitExceededException;
+import com.notex.student_notes.note.exceptions.NoteDeletedException;
+import com.notex.student_notes.note.model.Note;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SummaryPrewarmServiceTests {
+
+    @Mock
+    private SummaryService summaryService;
+    @Mock
+    private SummaryRepository summaryRepository;
+
+    private TrendingNotesTracker trendingNotesTracker;
+    private SummaryPrewarmService summaryPrewarmService;
+
+    @BeforeEach
+    void setUp(){
+        trendingNotesTracker = new TrendingNotesTracker(2);
+        summaryPrewarmService = new SummaryPrewarmService(trendingNotesTracker, summaryService, summaryRepository,
+                true, Duration.ofHours(6), 1000);
+    }
+
+    @Test
+    void trendingNotesTracker_ShouldKeepMostViewedNotes(){
+        viewNote(1L, 5);
+        viewNote(2L, 1);
+        viewNote(3L, 3);
+
+        assertEquals(List.of(1L, 3L), trendingNotesTracker.getTrendingNotes());
+    }
+
+    @Test
+    void prewarmTrendingSummaries_ShouldRefreshOnlyMissingOrExpiringSummaries(){
+        viewNote(1L, 3);
+        viewNote(2L, 2);
+        when(summaryRepository.findAllByNoteIdIn(anyCollection()))
+                .thenReturn(List.of(summaryExpiringAt(2L, LocalDateTime.now().plusDays(1))));
+        when(summaryService.refreshSummary(eq(1L), anyLong())).thenReturn(400L);
+
+        summaryPrewarmService.prewarmTrendingSummaries();
+
+        verify(summaryService).refreshSummary(1L, 1000L);
+        verify(summaryService, never()).refreshSummary(eq(2L), anyLong());
+    }
+
+    @Test
+    void prewarmTrendingSummaries_ShouldStop_WhenDailyBudgetIsExhausted(){
+        viewNote(1L, 3);
+        viewNote(2L, 2);
+        when(summaryRepository.findAllByNoteIdIn(anyCollection())).thenReturn(List.of());
+        when(summaryService.refreshSummary(1L, 1000L)).thenReturn(700L);
+        when(summaryService.refreshSummary(2L, 300L)).thenThrow(new CallsLimitExceededException("Summary token budget exhausted"));
+
+        summaryPrewarmService.prewarmTrendingSummaries();
+        summaryPrewarmService.prewarmTrendingSummaries();
+
+        verify(summaryService, times(1)).refreshSummary(1L, 1000L);
+        verify(summaryService, times(1)).refreshSummary(1L, 300L);
+        verify(summaryService, times(2)).refreshSummary(2L, 300L);
+    }
+
+    @Test
+    void prewarmTrendingSummaries_ShouldForgetDeletedNotes(){
+        viewNote(1L, 1);
+        when(summaryRepository.findAllByNoteIdIn(anyCollection())).thenReturn(List.of());
+        when(summaryService.refreshSummary(eq(1L), anyLong())).thenThrow(new NoteDeletedException("Note was deleted"));
+
+        summaryPrewarmService.prewarmTrendingSummaries();
+
+        assertTrue(trendingNotesTracker.getTrendingNotes().isEmpty());
+    }
+
+    private void viewNote(Long noteId, int views){
+        for (int i = 0; i < views; i++) {
+            trendingNotesTracker.recordView(noteId);
+        }
+    }
+
+    private Summary summaryExpiringAt(Long noteId, LocalDateTime expiresAt){
+        Note note = new Note();
+        note.setId(noteId);
+        Summary summary = new Summary();
+        summary.setNote(note);
+        summary.setExpiresAt(expiresAt);
+        return summary;
+    }
+}
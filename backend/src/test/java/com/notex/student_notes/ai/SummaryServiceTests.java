@@ -0,0 +1,197 @@
+package com.notex.student_notes.ai;
+
+import com.notex.student_notes.ai.quota.service.AiQuotaService;
+import com.notex.student_notes.ai.summary.cache.SummaryCache;
+import com.notex.student_notes.ai.summary.model.Summary;
+import com.notex.student_notes.ai.summary.repository.SummaryRepository;
+import com.notex.student_notes.ai.summary.service.ChunkSummaryService;
+import com.notex.student_notes.ai.summary.service.ImagePayloadService;
+import com.notex.student_notes.ai.summary.service.SummaryService;
+import com.notex.student_notes.config.ai.AiCallsLimitingService;
+import com.notex.student_notes.config.ai.AiUnavailableException;
+import com.notex.student_notes.config.ai.CallsLimitExceededException;
+import com.notex.student_notes.note.model.Note;
+import com.notex.student_notes.note.repository.NoteRepository;
+import com.notex.student_notes.user.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.chat.client.ChatClient;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Answers.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SummaryServiceTests {
+
+    @Mock
+    private ChatClient chatClient;
+    @Mock
+    private NoteRepository noteRepository;
+    @Mock
+    private SummaryRepository summaryRepository;
+    @Mock
+    private AiCallsLimitingService aiCallsLimitingService;
+    @Mock
+    private ChunkSummaryService chunkSummaryService;
+    @Mock
+    private AiQuotaService aiQuotaService;
+    @Mock
+    private ImagePayloadService imagePayloadService;
+    @Mock
+    private SummaryCache summaryCache;
+
+    @InjectMocks
+    private SummaryService summaryService;
+
+    private Note mockNote;
+    private User mockUser;
+
+    @BeforeEach
+    void setUp(){
+        mockUser = new User();
+        mockUser.setId(1L);
+        mockUser.setUsername("testuser");
+
+        mockNote = new Note();
+        mockNote.setId(1L);
+        mockNote.setTitle("Title");
+        mockNote.setContent("Some note content");
+        mockNote.setOwner(mockUser);
+    }
+
+    @Test
+    void summarizeNote_ShouldServeCachedSummary_WithoutTouchingDatabase(){
+        when(summaryCache.get(1L)).thenReturn(Optional.of("Cached summary"));
+
+        String result = summaryService.summarizeNote(1L, mockUser);
+
+        assertEquals("Cached summary", result);
+        verifyNoInteractions(noteRepository, summaryRepository, chatClient, aiCallsLimitingService, aiQuotaService);
+    }
+
+    @Test
+    void summarizeNote_ShouldReuseSummary_WhenAnotherNoteHasSameContent(){
+        Summary otherNoteSummary = new Summary();
+        otherNoteSummary.setText("Shared summary");
+
+        when(noteRepository.findById(1L)).thenReturn(Optional.of(mockNote));
+        when(summaryRepository.findByNoteId(1L)).thenReturn(Optional.empty());
+        when(summaryRepository.findFirstByContentHash(anyString())).thenReturn(Optional.of(otherNoteSummary));
+
+        String result = summaryService.summarizeNote(1L, mockUser);
+
+        assertEquals("Shared summary", result);
+        ArgumentCaptor<Summary> summaryCaptor = ArgumentCaptor.forClass(Summary.class);
+        verify(summaryRepository).save(summaryCaptor.capture());
+        assertEquals(mockNote, summaryCaptor.getValue().getNote());
+        assertNotNull(summaryCaptor.getValue().getContentHash());
+        verify(summaryCache).put(eq(1L), eq("Shared summary"), any(), anyLong());
+        verifyNoInteractions(chatClient, aiCallsLimitingService, aiQuotaService);
+    }
+
+    @Test
+    void summarizeNote_ShouldReturnExistingSummary_WhenContentUnchanged(){
+        when(noteRepository.findById(1L)).thenReturn(Optional.of(mockNote));
+        when(summaryRepository.findByNoteId(1L)).thenReturn(Optional.empty());
+        when(summaryRepository.findFirstByContentHash(anyString())).thenReturn(Optional.of(summaryWithText("First")));
+        summaryService.summarizeNote(1L, mockUser);
+
+        ArgumentCaptor<Summary> summaryCaptor = ArgumentCaptor.forClass(Summary.class);
+        verify(summaryRepository).save(summaryCaptor.capture());
+        Summary stored = summaryCaptor.getValue();
+
+        mockNote.setTitle("Only the title changed");
+        when(summaryRepository.findByNoteId(1L)).thenReturn(Optional.of(stored));
+
+        String result = summaryService.summarizeNote(1L, mockUser);
+
+        assertEquals("First", result);
+        verify(summaryRepository, times(1)).findFirstByContentHash(anyString());
+        verify(summaryRepository, times(1)).save(any(Summary.class));
+        verifyNoInteractions(chatClient, aiCallsLimitingService, aiQuotaService);
+    }
+
+    @Test
+    void refreshSummary_ShouldNotCallModel_WhenEstimateExceedsBudget(){
+        when(noteRepository.findById(1L)).thenReturn(Optional.of(mockNote));
+        when(summaryRepository.findByNoteId(1L)).thenReturn(Optional.empty());
+        when(summaryRepository.findFirstByContentHash(anyString())).thenReturn(Optional.empty());
+
+        assertThrows(CallsLimitExceededException.class, () -> summaryService.refreshSummary(1L, 10));
+        verify(summaryRepository, never()).save(any(Summary.class));
+        verifyNoInteractions(chatClient, aiCallsLimitingService, aiQuotaService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void refreshSummary_ShouldChargeChunkAndReduceCalls_WhenNoteIsChunked(){
+        when(noteRepository.findById(1L)).thenReturn(Optional.of(mockNote));
+        when(summaryRepository.findByNoteId(1L)).thenReturn(Optional.empty());
+        when(summaryRepository.findFirstByContentHash(anyString())).thenReturn(Optional.empty());
+        when(chunkSummaryService.needsChunking(anyString())).thenReturn(true);
+        when(chunkSummaryService.estimateTokens(anyString())).thenReturn(400L);
+        when(chunkSummaryService.summarizeChunks(anyString(), isNull(), any(AtomicLong.class))).thenAnswer(invocation -> {
+            invocation.<AtomicLong>getArgument(2).addAndGet(900);
+            return List.of("partial summary");
+        });
+        ChatClient.ChatClientRequestSpec request = mock(ChatClient.ChatClientRequestSpec.class, RETURNS_DEEP_STUBS);
+        when(chatClient.prompt()).thenReturn(request);
+        when(request.user(any(Consumer.class)).call().chatResponse()).thenReturn(FakeChatModel.response("Summary", 150, 50));
+
+        long spent = summaryService.refreshSummary(1L, 10_000);
+
+        assertEquals(1100, spent);
+    }
+
+    @Test
+    void refreshSummary_ShouldCountChunkCallsInEstimate_WhenNoteIsChunked(){
+        when(noteRepository.findById(1L)).thenReturn(Optional.of(mockNote));
+        when(summaryRepository.findByNoteId(1L)).thenReturn(Optional.empty());
+        when(summaryRepository.findFirstByContentHash(anyString())).thenReturn(Optional.empty());
+        when(chunkSummaryService.needsChunking(anyString())).thenReturn(true);
+        when(chunkSummaryService.estimateTokens(anyString())).thenReturn(5_000L);
+
+        assertThrows(CallsLimitExceededException.class, () -> summaryService.refreshSummary(1L, 5_000));
+        verify(chunkSummaryService, never()).summarizeChunks(anyString(), any(), any());
+        verifyNoInteractions(chatClient);
+    }
+
+    @Test
+    void summarizeNote_ShouldAttachOutdatedSummary_WhenAiIsUnavailable(){
+        Summary outdated = summaryWithText("Outdated");
+        outdated.setContentHash("old-hash");
+        when(noteRepository.findById(1L)).thenReturn(Optional.of(mockNote));
+        when(summaryRepository.findByNoteId(1L)).thenReturn(Optional.of(outdated));
+        when(summaryRepository.findFirstByContentHash(anyString())).thenReturn(Optional.empty());
+        when(chunkSummaryService.needsChunking(anyString())).thenReturn(false);
+        when(chatClient.prompt()).thenThrow(new AiUnavailableException("AI service is temporarily unavailable"));
+
+        AiUnavailableException exception = assertThrows(AiUnavailableException.class,
+                () -> summaryService.summarizeNote(1L, mockUser));
+
+        assertEquals("Outdated", exception.getStaleResult());
+        verify(summaryRepository, never()).save(any(Summary.class));
+    }
+
+    private Summary summaryWithText(String text){
+        Summary summary = new Summary();
+        summary.setText(text);
+        return summary;
+    }
+}
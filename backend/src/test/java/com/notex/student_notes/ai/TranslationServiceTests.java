@@ -0,0 +1,156 @@
+package com.notex.student_notes.ai;
+
+import com.notex.student_notes.ai.quota.service.AiQuotaService;
+import com.notex.student_notes.ai.translations.dto.BatchTranslationResult;
+import com.notex.student_notes.ai.translations.dto.BatchTranslationResult.LanguageTranslation;
+import com.notex.student_notes.ai.translations.exceptions.TranslationException;
+import com.notex.student_notes.ai.translations.language.Language;
+import com.notex.student_notes.ai.translations.model.Translation;
+import com.notex.student_notes.ai.translations.repository.TranslationRepository;
+import com.notex.student_notes.ai.translations.service.TranslationService;
+import com.notex.student_notes.config.ai.AiCallsLimitingService;
+import com.notex.student_notes.note.model.Note;
+import com.notex.student_notes.note.repository.NoteRepository;
+import com.notex.student_notes.user.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.client.ResponseEntity;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Answers.RETURNS_DEEP_STUBS;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TranslationServiceTests {
+
+    @Mock
+    private TranslationRepository translationRepository;
+    @Mock
+    private NoteRepository noteRepository;
+    @Mock(answer = RETURNS_DEEP_STUBS)
+    private ChatClient chatClient;
+    @Mock
+    private AiCallsLimitingService aiCallsLimitingService;
+    @Mock
+    private AiQuotaService aiQuotaService;
+    @Mock
+    private CacheManager cacheManager;
+
+    private TranslationService translationService;
+
+    private Note mockNote;
+    private User mockUser;
+
+    @BeforeEach
+    void setUp(){
+        translationService = new TranslationService(translationRepository, noteRepository, chatClient, aiCallsLimitingService, aiQuotaService, cacheManager);
+
+        mockUser = new User();
+        mockUser.setId(1L);
+        mockUser.setUsername("testuser");
+
+        mockNote = new Note();
+        mockNote.setId(1L);
+        mockNote.setTitle("Title");
+        mockNote.setContent("Some note content");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void translateNoteBatch_ShouldRequestAllMissingLanguagesInOneCall(){
+        when(noteRepository.findById(1L)).thenReturn(Optional.of(mockNote));
+        when(translationRepository.findAllByNoteId(1L)).thenReturn(List.of());
+        when(translationRepository.findAllByContentHashIn(anyCollection())).thenReturn(List.of());
+        ChatResponse chatResponse = FakeChatModel.response("", 120, 40);
+        when(chatClient.prompt().user(any(Consumer.class)).call().responseEntity(BatchTranslationResult.class))
+                .thenReturn(new ResponseEntity<>(chatResponse, new BatchTranslationResult(List.of(
+                        new LanguageTranslation(Language.PL, "Tekst"),
+                        new LanguageTranslation(Language.DE, "Text")))));
+
+        Map<Language, String> result = translationService.translateNoteBatch(1L, List.of(Language.PL, Language.DE), mockUser);
+
+        assertEquals("Tekst", result.get(Language.PL));
+        assertEquals("Text", result.get(Language.DE));
+        verify(aiCallsLimitingService, times(1)).checkAiCalls("testuser");
+        verify(aiQuotaService, times(1)).checkQuota(1L);
+        verify(aiQuotaService).recordUsage(1L, chatResponse);
+        ArgumentCaptor<List<Translation>> savedCaptor = ArgumentCaptor.forClass(List.class);
+        verify(translationRepository).saveAll(savedCaptor.capture());
+        assertEquals(2, savedCaptor.getValue().size());
+        assertTrue(savedCaptor.getValue().stream().allMatch(t -> t.getContentHash() != null));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void translateNoteBatch_ShouldThrowException_WhenResponseIsMissingLanguage(){
+        when(noteRepository.findById(1L)).thenReturn(Optional.of(mockNote));
+        when(translationRepository.findAllByNoteId(1L)).thenReturn(List.of());
+        when(translationRepository.findAllByContentHashIn(anyCollection())).thenReturn(List.of());
+        when(chatClient.prompt().user(any(Consumer.class)).call().responseEntity(BatchTranslationResult.class))
+                .thenReturn(new ResponseEntity<>(FakeChatModel.response("", 120, 20),
+                        new BatchTranslationResult(List.of(new LanguageTranslation(Language.PL, "Tekst")))));
+
+        assertThrows(TranslationException.class,
+                () -> translationService.translateNoteBatch(1L, List.of(Language.PL, Language.DE), mockUser));
+        verify(translationRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void translateNoteBatch_ShouldNotTouchOutdatedTranslation_UntilNewTextIsKnown(){
+        Translation outdated = new Translation();
+        outdated.setLanguage(Language.PL);
+        outdated.setContentHash("old-hash");
+        outdated.setTranslatedText("Stary tekst");
+        Cache cache = new ConcurrentMapCache("translations");
+        cache.put("1:PL", "Stary tekst");
+        when(cacheManager.getCache("translations")).thenReturn(cache);
+        when(noteRepository.findById(1L)).thenReturn(Optional.of(mockNote));
+        when(translationRepository.findAllByNoteId(1L)).thenReturn(List.of(outdated));
+        when(translationRepository.findAllByContentHashIn(anyCollection())).thenAnswer(invocation -> {
+            assertEquals("Stary tekst", outdated.getTranslatedText());
+            assertEquals("old-hash", outdated.getContentHash());
+            return List.of();
+        });
+        ChatResponse chatResponse = FakeChatModel.response("Nowy tekst", 120, 40);
+        when(chatClient.prompt().user(any(Consumer.class)).call().chatResponse()).thenReturn(chatResponse);
+
+        Map<Language, String> result = translationService.translateNoteBatch(1L, List.of(Language.PL), mockUser);
+
+        assertEquals("Nowy tekst", result.get(Language.PL));
+        assertEquals("Nowy tekst", outdated.getTranslatedText());
+        assertNotEquals("old-hash", outdated.getContentHash());
+        verify(translationRepository).saveAll(List.of(outdated));
+        assertEquals("Nowy tekst", cache.get("1:PL", String.class));
+    }
+
+    @Test
+    void evictCachedAfterCommit_ShouldEvictEveryLanguageOfNote(){
+        Cache cache = new ConcurrentMapCache("translations");
+        cache.put("1:PL", "Tekst");
+        cache.put("1:DE", "Text");
+        cache.put("2:PL", "Inny tekst");
+        when(cacheManager.getCache("translations")).thenReturn(cache);
+
+        translationService.evictCachedAfterCommit(1L);
+
+        assertNull(cache.get("1:PL"));
+        assertNull(cache.get("1:DE"));
+        assertEquals("Inny tekst", cache.get("2:PL", String.class));
+    }
+}
@@ -0,0 +1,147 @@
+package com.notex.student_notes.group;
+
+import com.notex.student_notes.group.dto.GroupActivityDto;
+import com.notex.student_notes.group.dto.GroupActivityPageDto;
+import com.notex.student_notes.group.model.GroupActivity;
+import com.notex.student_notes.group.model.GroupActivityType;
+import com.notex.student_notes.group.repository.GroupActivityRepository;
+import com.notex.student_notes.group.service.GroupActivityFeed;
+import com.notex.student_notes.message.dto.MessageDto;
+import com.notex.student_notes.message.service.RecentMessagesBuffer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class GroupActivityFeedTests {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Mock
+    private GroupActivityRepository groupActivityRepository;
+    @Mock
+    private RecentMessagesBuffer recentMessagesBuffer;
+
+    private GroupActivityFeed groupActivityFeed;
+
+    @BeforeEach
+    void setUp(){
+        groupActivityFeed = new GroupActivityFeed(groupActivityRepository, recentMessagesBuffer, new SimpleMeterRegistry(), 5, 100);
+    }
+
+    @Test
+    void page_ShouldServeNewestEntriesFromTail_AfterOneSeedQuery(){
+        when(groupActivityRepository.findByGroupIdOrderByIdDesc(1L, Limit.of(5))).thenReturn(activities(10, 6));
+        when(recentMessagesBuffer.before(eq(1L), anyLong(), anyInt())).thenReturn(List.of());
+
+        GroupActivityPageDto first = groupActivityFeed.page(1L, Long.MAX_VALUE, Long.MAX_VALUE, 3);
+        GroupActivityPageDto again = groupActivityFeed.page(1L, Long.MAX_VALUE, Long.MAX_VALUE, 3);
+
+        assertEquals(List.of(10L, 9L, 8L), ids(first));
+        assertEquals("8_" + Long.MAX_VALUE, first.getNextCursor());
+        assertEquals(ids(first), ids(again));
+        verify(groupActivityRepository, times(1)).findByGroupIdOrderByIdDesc(1L, Limit.of(5));
+        verify(groupActivityRepository, never()).findByGroupIdAndIdLessThanOrderByIdDesc(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void page_ShouldReadOlderEntriesFromTable_WhenTailCannotFillPage(){
+        when(groupActivityRepository.findByGroupIdOrderByIdDesc(1L, Limit.of(5))).thenReturn(activities(10, 6));
+        when(groupActivityRepository.findByGroupIdAndIdLessThanOrderByIdDesc(1L, 8L, Limit.of(4))).thenReturn(activities(7, 4));
+        when(recentMessagesBuffer.before(eq(1L), anyLong(), anyInt())).thenReturn(List.of());
+
+        GroupActivityPageDto older = groupActivityFeed.page(1L, 8L, Long.MAX_VALUE, 3);
+
+        assertEquals(List.of(7L, 6L, 5L), ids(older));
+        assertNotNull(older.getNextCursor());
+    }
+
+    @Test
+    void page_ShouldMergeMessagesByTime_AndKeepOneCursorPerSource(){
+        when(groupActivityRepository.findByGroupIdOrderByIdDesc(1L, Limit.of(5))).thenReturn(activities(2, 1));
+        when(recentMessagesBuffer.before(1L, Long.MAX_VALUE, 4)).thenReturn(List.of(
+                message(501L, START.plusMinutes(3)), message(500L, START.plusSeconds(90))));
+
+        GroupActivityPageDto page = groupActivityFeed.page(1L, Long.MAX_VALUE, Long.MAX_VALUE, 3);
+
+        assertEquals(List.of(GroupActivityType.MESSAGE_SENT, GroupActivityType.MEMBER_JOINED, GroupActivityType.MESSAGE_SENT),
+                page.getActivities().stream().map(GroupActivityDto::getType).toList());
+        assertEquals(List.of(501L, 500L), page.getActivities().stream()
+                .map(GroupActivityDto::getMessageId).filter(id -> id != null).toList());
+        assertEquals("2_500", page.getNextCursor());
+    }
+
+    @Test
+    void page_ShouldEnd_WhenBothSourcesAreExhausted(){
+        when(groupActivityRepository.findByGroupIdOrderByIdDesc(1L, Limit.of(5))).thenReturn(activities(2, 1));
+        when(recentMessagesBuffer.before(eq(1L), anyLong(), anyInt())).thenReturn(List.of(message(500L, START)));
+
+        GroupActivityPageDto page = groupActivityFeed.page(1L, Long.MAX_VALUE, Long.MAX_VALUE, 3);
+
+        assertEquals(3, page.getActivities().size());
+        assertNull(page.getNextCursor());
+        verify(groupActivityRepository, never()).findByGroupIdAndIdLessThanOrderByIdDesc(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void record_ShouldAppendToTail_InIdOrder_AndEvictOldest(){
+        when(groupActivityRepository.findByGroupIdOrderByIdDesc(1L, Limit.of(5))).thenReturn(activities(10, 6));
+        when(recentMessagesBuffer.before(eq(1L), anyLong(), anyInt())).thenReturn(List.of());
+        groupActivityFeed.page(1L, Long.MAX_VALUE, Long.MAX_VALUE, 3);
+        long[] nextIds = {12L, 11L};
+        int[] saved = {0};
+        when(groupActivityRepository.save(any(GroupActivity.class))).thenAnswer(invocation -> {
+            GroupActivity activity = invocation.getArgument(0);
+            activity.setId(nextIds[saved[0]++]);
+            activity.setCreatedAt(START.plusHours(activity.getId()));
+            return activity;
+        });
+
+        groupActivityFeed.record(1L, GroupActivityType.MEMBER_JOINED, "alice", null);
+        groupActivityFeed.record(1L, GroupActivityType.MEMBER_JOINED, "bob", null);
+
+        GroupActivityPageDto page = groupActivityFeed.page(1L, Long.MAX_VALUE, Long.MAX_VALUE, 4);
+        assertEquals(List.of(12L, 11L, 10L, 9L), ids(page));
+        when(groupActivityRepository.findByGroupIdAndIdLessThanOrderByIdDesc(1L, 9L, Limit.of(5))).thenReturn(activities(8, 4));
+        assertEquals(List.of(8L, 7L, 6L, 5L), ids(groupActivityFeed.page(1L, 9L, Long.MAX_VALUE, 4)));
+    }
+
+    private List<GroupActivity> activities(long newestId, long oldestId){
+        return LongStream.iterate(newestId, id -> id >= oldestId, id -> id - 1)
+                .mapToObj(id -> {
+                    GroupActivity activity = new GroupActivity(1L, GroupActivityType.MEMBER_JOINED, "user" + id, null);
+                    activity.setId(id);
+                    activity.setCreatedAt(START.plusMinutes(id));
+                    return activity;
+                })
+                .toList();
+    }
+
+    private MessageDto message(Long id, LocalDateTime createdAt){
+        MessageDto message = new MessageDto();
+        message.setId(id);
+        message.setGroupId(1L);
+        message.setAuthor("user" + id);
+        message.setCreatedAt(createdAt);
+        return message;
+    }
+
+    private List<Long> ids(GroupActivityPageDto page){
+        return page.getActivities().stream().map(GroupActivityDto::getId).toList();
+    }
+}
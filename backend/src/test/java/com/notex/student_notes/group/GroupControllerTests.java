@@ -12,6 +12,7 @@ import com.notex.student_notes.group.dto.UpdateGroupDto;
 import com.notex.student_notes.group.exceptions.UserNotGroupOwnerException;
 import com.notex.student_notes.group.model.Group;
 import com.notex.student_notes.group.service.GroupService;
+import com.notex.student_notes.user.dto.UserDto;
 import com.notex.student_notes.user.model.User;
 import com.notex.student_notes.user.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
@@ -20,15 +21,22 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
@@ -321,4 +329,44 @@ public class GroupControllerTests {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.message").value("User left group successfully"));
     }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = "USER")
+    void getUsersInGroup_ShouldReturnPageOfMembers() throws Exception {
+        UserDto member = new UserDto();
+        member.setId(7L);
+        member.setUsername("alice");
+
+        when(userService.getUserEntityByUsername(anyString())).thenReturn(mockUser);
+        when(groupService.getUsersInGroup(eq(1L), eq(5L), eq("al"), eq(20), eq(mockUser)))
+                .thenReturn(new SliceImpl<>(List.of(member), PageRequest.ofSize(20), true));
+
+        mockMvc.perform(get("/groups/1/members")
+                        .param("after", "5")
+                        .param("search", "al")
+                        .param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(7L))
+                .andExpect(jsonPath("$.content[0].username").value("alice"))
+                .andExpect(jsonPath("$.last").value(false));
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = "USER")
+    void exportUsersInGroup_ShouldStreamNdjson() throws Exception {
+        StreamingResponseBody export = out -> out.write("{\"id\":7,\"username\":\"alice\"}\n".getBytes(StandardCharsets.UTF_8));
+
+        when(userService.getUserEntityByUsername(anyString())).thenReturn(mockUser);
+        when(groupService.exportUsersInGroup(1L, mockUser)).thenReturn(export);
+
+        MvcResult result = mockMvc.perform(get("/groups/1/members/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"group-1-members.ndjson\""))
+                .andExpect(content().string("{\"id\":7,\"username\":\"alice\"}\n"));
+    }
 }
@@ -0,0 +1,115 @@
+package com.notex.student_notes.group;
+
+import com.notex.student_notes.group.repository.GroupRepository;
+import com.notex.student_notes.group.repository.GroupRepository.MembershipRef;
+import com.notex.student_notes.group.service.GroupMembershipIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class GroupMembershipIndexTests {
+
+    @Mock
+    private GroupRepository groupRepository;
+
+    private GroupMembershipIndex groupMembershipIndex;
+
+    @BeforeEach
+    void setUp(){
+        groupMembershipIndex = new GroupMembershipIndex(groupRepository, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void isMember_ShouldUseCombinedQuery_WhenIndexIsCold(){
+        when(groupRepository.isMemberOrOwner(1L, 2L)).thenReturn(true);
+
+        assertTrue(groupMembershipIndex.isMember(1L, 2L));
+        verify(groupRepository).isMemberOrOwner(1L, 2L);
+        verify(groupRepository, never()).existsByIdAndMembersId(anyLong(), anyLong());
+        verify(groupRepository, never()).existsByIdAndOwnerId(anyLong(), anyLong());
+    }
+
+    @Test
+    void isMember_ShouldAnswerFromMemory_AfterLoad(){
+        when(groupRepository.streamMembershipsOfActiveGroups())
+                .thenReturn(Stream.of(membership(1L, 1L), membership(1L, 2L), membership(2L, 3L)));
+
+        groupMembershipIndex.load();
+
+        assertTrue(groupMembershipIndex.isMember(1L, 2L));
+        assertFalse(groupMembershipIndex.isMember(1L, 3L));
+        assertTrue(groupMembershipIndex.isMember(2L, 3L));
+        verify(groupRepository, never()).isMemberOrOwner(anyLong(), anyLong());
+    }
+
+    @Test
+    void isMember_ShouldFollowJoinsLeavesAndDeletes(){
+        when(groupRepository.streamMembershipsOfActiveGroups()).thenReturn(Stream.of(membership(1L, 1L)));
+        groupMembershipIndex.load();
+
+        LongStream.rangeClosed(2, 1000).forEach(userId -> groupMembershipIndex.addAfterCommit(1L, userId));
+        LongStream.rangeClosed(2, 1000).filter(userId -> userId % 2 == 0)
+                .forEach(userId -> groupMembershipIndex.removeAfterCommit(1L, userId));
+        groupMembershipIndex.addGroupAfterCommit(5L, 7L);
+
+        assertTrue(groupMembershipIndex.isMember(1L, 999L));
+        assertFalse(groupMembershipIndex.isMember(1L, 998L));
+        assertTrue(groupMembershipIndex.isMember(5L, 7L));
+        verify(groupRepository, never()).isMemberOrOwner(anyLong(), anyLong());
+
+        groupMembershipIndex.removeGroupAfterCommit(1L);
+        groupMembershipIndex.isMember(1L, 999L);
+        verify(groupRepository).isMemberOrOwner(1L, 999L);
+    }
+
+    @Test
+    void memberGroupIds_ShouldQueryOnlyUnindexedGroups_InOneBatch(){
+        when(groupRepository.streamMembershipsOfActiveGroups())
+                .thenReturn(Stream.of(membership(1L, 2L), membership(2L, 3L)));
+        groupMembershipIndex.load();
+        when(groupRepository.findMemberGroupIds(List.of(3L, 4L), 2L)).thenReturn(List.of(4L));
+
+        Set<Long> memberOf = groupMembershipIndex.memberGroupIds(List.of(1L, 2L, 3L, 4L), 2L);
+
+        assertEquals(Set.of(1L, 4L), memberOf);
+        verify(groupRepository, times(1)).findMemberGroupIds(anyCollection(), anyLong());
+        verify(groupRepository, never()).isMemberOrOwner(anyLong(), anyLong());
+    }
+
+    @Test
+    void memberGroupIds_ShouldNotQuery_WhenAllGroupsAreIndexed(){
+        when(groupRepository.streamMembershipsOfActiveGroups()).thenReturn(Stream.of(membership(1L, 2L)));
+        groupMembershipIndex.load();
+
+        assertEquals(Set.of(1L), groupMembershipIndex.memberGroupIds(List.of(1L), 2L));
+        verify(groupRepository, never()).findMemberGroupIds(anyCollection(), anyLong());
+    }
+
+    private MembershipRef membership(Long groupId, Long userId){
+        return new MembershipRef() {
+            @Override
+            public Long getGroupId() {
+                return groupId;
+            }
+
+            @Override
+            public Long getUserId() {
+                return userId;
+            }
+        };
+    }
+}
@@ -0,0 +1,119 @@
+package com.notex.student_notes.group;
+
+import com.notex.student_notes.config.ratelimiting.RateLimitExceededException;
+import com.notex.student_notes.config.ratelimiting.RateLimitingService;
+import com.notex.student_notes.group.service.GroupPasswordVerifier;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class GroupPasswordVerifierTests {
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private GroupPasswordVerifier verifier;
+
+    @AfterEach
+    void tearDown(){
+        if (verifier != null){
+            verifier.shutdown();
+        }
+    }
+
+    @Test
+    void matches_ShouldRunBcryptOnce_ForRepeatedPassword(){
+        verifier = verifier(1, 4, Duration.ofSeconds(2));
+        when(passwordEncoder.matches("secret123", "hash")).thenReturn(true);
+
+        assertTrue(verifier.matches(1L, 10L, "secret123", "hash"));
+        assertTrue(verifier.matches(2L, 10L, "secret123", "hash"));
+        assertTrue(verifier.matches(3L, 10L, "secret123", "hash"));
+
+        verify(passwordEncoder, times(1)).matches("secret123", "hash");
+        assertEquals(2, meterRegistry.get("groups.join.password_verification.cache").tag("result", "hit").counter().count());
+        assertEquals(1, meterRegistry.get("groups.join.password_verification").timer().count());
+    }
+
+    @Test
+    void matches_ShouldVerifyAgain_WhenGroupPasswordChanges(){
+        verifier = verifier(1, 4, Duration.ofSeconds(2));
+        when(passwordEncoder.matches("secret123", "hash")).thenReturn(true);
+        when(passwordEncoder.matches("secret123", "newHash")).thenReturn(false);
+
+        assertTrue(verifier.matches(1L, 10L, "secret123", "hash"));
+        assertFalse(verifier.matches(2L, 10L, "secret123", "newHash"));
+    }
+
+    @Test
+    void matches_ShouldThrottleAttempts_PerUserAndGroup(){
+        verifier = verifier(1, 4, Duration.ofSeconds(2));
+        when(passwordEncoder.matches(anyString(), eq("hash"))).thenReturn(false);
+
+        for (int attempt = 0; attempt < 5; attempt++){
+            assertFalse(verifier.matches(1L, 10L, "guess" + attempt, "hash"));
+        }
+
+        assertThrows(RateLimitExceededException.class, ()->verifier.matches(1L, 10L, "guess5", "hash"));
+        assertFalse(verifier.matches(1L, 11L, "guess5", "hash"));
+        assertFalse(verifier.matches(2L, 10L, "guess6", "hash"));
+        verify(passwordEncoder, times(7)).matches(anyString(), eq("hash"));
+    }
+
+    @Test
+    void matches_ShouldRejectAttempt_WhenVerificationQueueIsFull() throws Exception {
+        verifier = verifier(1, 1, Duration.ofSeconds(5));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(passwordEncoder.matches(anyString(), eq("hash"))).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return false;
+        });
+
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> verifier.matches(1L, 10L, "first", "hash"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> verifier.matches(2L, 10L, "second", "hash"));
+        while (meterRegistry.get("groups.join.password_verification.queue").gauge().value() < 1){
+            Thread.onSpinWait();
+        }
+
+        assertThrows(RateLimitExceededException.class, ()->verifier.matches(3L, 10L, "third", "hash"));
+        assertEquals(1, meterRegistry.get("groups.join.password_verification.rejected").counter().count());
+
+        release.countDown();
+        assertFalse(running.get(5, TimeUnit.SECONDS));
+        assertFalse(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void matches_ShouldGiveUp_WhenVerificationTakesTooLong(){
+        verifier = verifier(1, 4, Duration.ofMillis(50));
+        when(passwordEncoder.matches("slow", "hash")).thenAnswer(invocation -> {
+            Thread.sleep(1000);
+            return true;
+        });
+
+        assertThrows(RateLimitExceededException.class, ()->verifier.matches(1L, 10L, "slow", "hash"));
+    }
+
+    private GroupPasswordVerifier verifier(int threads, int queueCapacity, Duration timeout){
+        return new GroupPasswordVerifier(passwordEncoder, new RateLimitingService(), meterRegistry,
+                5, 15, threads, queueCapacity, timeout, Duration.ofMinutes(10), 100);
+    }
+}
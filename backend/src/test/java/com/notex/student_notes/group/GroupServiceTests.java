@@ -2,26 +2,44 @@ package com.notex.student_notes.group;
 
 import com.notex.student_notes.group.dto.CreateGroupDto;
 import com.notex.student_notes.group.dto.GroupDto;
+import com.notex.student_notes.group.dto.GroupSearchPageDto;
 import com.notex.student_notes.group.dto.JoinGroupRequestDto;
 import com.notex.student_notes.group.dto.UpdateGroupDto;
 import com.notex.student_notes.group.exceptions.*;
 import com.notex.student_notes.group.model.Group;
+import com.notex.student_notes.group.model.GroupActivityType;
+import com.notex.student_notes.group.repository.GroupMemberExporter;
 import com.notex.student_notes.group.repository.GroupRepository;
+import com.notex.student_notes.group.repository.GroupRepository.MemberRef;
+import com.notex.student_notes.group.service.GroupActivityFeed;
+import com.notex.student_notes.group.service.GroupMembershipIndex;
+import com.notex.student_notes.group.service.GroupPasswordVerifier;
 import com.notex.student_notes.group.service.GroupService;
+import com.notex.student_notes.message.service.MessageStreamService;
+import com.notex.student_notes.user.dto.UserDto;
 import com.notex.student_notes.user.exceptions.UserNotFoundException;
+import com.notex.student_notes.user.model.Role;
 import com.notex.student_notes.user.model.User;
 import com.notex.student_notes.user.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -37,6 +55,16 @@ public class GroupServiceTests {
     private UserRepository userRepository;
     @Mock
     private PasswordEncoder passwordEncoder;
+    @Mock
+    private GroupMembershipIndex groupMembershipIndex;
+    @Mock
+    private GroupActivityFeed groupActivityFeed;
+    @Mock
+    private GroupMemberExporter groupMemberExporter;
+    @Mock
+    private GroupPasswordVerifier groupPasswordVerifier;
+    @Mock
+    private MessageStreamService messageStreamService;
 
     @InjectMocks
     private GroupService groupService;
@@ -292,16 +320,21 @@ public class GroupServiceTests {
         request.setPassword("password123");
 
         User joiningUser = new User();
+        joiningUser.setId(2L);
         joiningUser.setUsername("joininguser");
+        Set<User> members = largeGroupMembers();
+        mockGroup.setMembers(members);
 
         when(groupRepository.findById(1L)).thenReturn(Optional.of(mockGroup));
-        when(passwordEncoder.matches(anyString(), anyString())).thenReturn(true);
+        when(groupPasswordVerifier.matches(eq(2L), eq(1L), anyString(), anyString())).thenReturn(true);
 
         groupService.joinGroup(1L, request, joiningUser);
 
-        assertEquals(2, mockGroup.getMembers().size());
-        verify(groupRepository, times(1)).save(any(Group.class));
-        verify(passwordEncoder, times(1)).matches(anyString(), anyString());
+        verify(groupRepository, times(1)).joinMember(1L, 2L);
+        verify(groupRepository, never()).save(any(Group.class));
+        verify(groupMembershipIndex).addAfterCommit(1L, 2L);
+        verify(groupPasswordVerifier, times(1)).matches(any(), eq(1L), anyString(), anyString());
+        verifyNoInteractions(members);
 
     }
 
@@ -320,7 +353,7 @@ public class GroupServiceTests {
         assertEquals("Group not found", ex.getMessage());
         verify(groupRepository, times(1)).findById(1L);
         verify(groupRepository, never()).save(any(Group.class));
-        verify(passwordEncoder, never()).matches(anyString(), anyString());
+        verify(groupPasswordVerifier, never()).matches(any(), any(), any(), any());
     }
 
     @Test
@@ -334,14 +367,14 @@ public class GroupServiceTests {
 
         mockGroup.addMember(joiningUser);
 
-        when(groupRepository.existsByIdAndMembersId(anyLong(), anyLong())).thenReturn(true);
+        when(groupMembershipIndex.isMember(anyLong(), anyLong())).thenReturn(true);
         when(groupRepository.findById(1L)).thenReturn(Optional.of(mockGroup));
 
         UserAlreadyInGroupException ex = assertThrows(UserAlreadyInGroupException.class, ()->groupService.joinGroup(1L, request, joiningUser));
         assertEquals("User is already in group", ex.getMessage());
 
         verify(groupRepository, never()).save(any(Group.class));
-        verify(passwordEncoder, never()).matches(anyString(), anyString());
+        verify(groupPasswordVerifier, never()).matches(any(), any(), any(), any());
     }
 
     @Test
@@ -362,7 +395,7 @@ public class GroupServiceTests {
         assertEquals("Group was deleted", ex.getMessage());
         verify(groupRepository, times(1)).findById(1L);
         verify(groupRepository, never()).save(any(Group.class));
-        verify(passwordEncoder, never()).matches(anyString(), anyString());
+        verify(groupPasswordVerifier, never()).matches(any(), any(), any(), any());
     }
 
     @Test
@@ -376,28 +409,31 @@ public class GroupServiceTests {
         joiningUser.setUsername("joininguser");
 
         when(groupRepository.findById(1L)).thenReturn(Optional.of(mockGroup));
-        when(passwordEncoder.matches(anyString(), anyString())).thenReturn(false);
+        when(groupPasswordVerifier.matches(any(), eq(1L), anyString(), anyString())).thenReturn(false);
         AddUserRequestInvalidException ex = assertThrows(AddUserRequestInvalidException.class, ()->groupService.joinGroup(1L, request, joiningUser));
 
         assertEquals("Wrong password", ex.getMessage());
 
         verify(groupRepository, never()).save(any(Group.class));
-        verify(passwordEncoder, times(1)).matches(anyString(), anyString());
+        verify(groupPasswordVerifier, times(1)).matches(any(), eq(1L), anyString(), anyString());
     }
 
     @Test
     void addUserToGroup_ShouldAddUserToGroup_WhenGroupFound(){
         User userToAdd = new User();
         userToAdd.setUsername("userToAdd");
+        userToAdd.setId(2L);
 
         when(groupRepository.existsByIdAndOwnerId(anyLong(), anyLong())).thenReturn(true);
         when(groupRepository.findById(1L)).thenReturn(Optional.of(mockGroup));
         when(userRepository.findByUsername(anyString())).thenReturn(Optional.of(userToAdd));
+        when(groupRepository.insertMember(1L, 2L)).thenReturn(1);
 
         groupService.addUserToGroup(1L, "userToAdd", mockUser);
-        assertEquals(2, mockGroup.getMembers().size());
+        verify(groupRepository, times(1)).insertMember(1L, 2L);
+        verify(groupRepository).adjustMembersCount(1L, 1);
+        verify(groupRepository, never()).save(any(Group.class));
         verify(userRepository, times(1)).findByUsername(anyString());
-        verify(groupRepository, times(1)).save(any(Group.class));
     }
 
     @Test
@@ -430,6 +466,7 @@ public class GroupServiceTests {
         mockGroup.addMember(userToAdd);
 
         when(groupRepository.existsByIdAndOwnerId(anyLong(), anyLong())).thenReturn(true);
+        when(groupMembershipIndex.isMember(1L, 2L)).thenReturn(true);
         when(groupRepository.findById(1L)).thenReturn(Optional.of(mockGroup));
         when(userRepository.findByUsername(anyString())).thenReturn(Optional.of(userToAdd));
 
@@ -450,14 +487,17 @@ public class GroupServiceTests {
         when(groupRepository.findById(1L)).thenReturn(Optional.of(mockGroup));
         when(groupRepository.existsByIdAndOwnerId(1L, 1L)).thenReturn(true);
         when(userRepository.findByUsername(anyString())).thenReturn(Optional.of(userToRemove));
-        when(groupRepository.save(any(Group.class))).thenAnswer(i->i.getArgument(0));
-        when(groupRepository.existsByIdAndMembersId(1L, 2L)).thenReturn(true);
+        when(groupMembershipIndex.isMember(1L, 2L)).thenReturn(true);
+        when(groupRepository.deleteMember(1L, 2L)).thenReturn(1);
 
         groupService.removeUserFromGroup(1L, "usertoremove", mockUser);
-        assertEquals(1, mockGroup.getMembers().size());
+        verify(groupRepository).deleteMember(1L, 2L);
+        verify(groupRepository).adjustMembersCount(1L, -1);
+        verify(groupMembershipIndex).removeAfterCommit(1L, 2L);
+        verify(messageStreamService).closeAfterCommit(1L, "usertoremove");
+        verify(groupRepository, never()).save(any(Group.class));
         verify(groupRepository, times(1)).findById(1L);
         verify(userRepository, times(1)).findByUsername(anyString());
-        verify(groupRepository, times(1)).save(any(Group.class));
     }
 
     @Test
@@ -491,7 +531,7 @@ public class GroupServiceTests {
         when(groupRepository.existsByIdAndOwnerId(1L, 1L)).thenReturn(true);
         when(groupRepository.findById(1L)).thenReturn(Optional.of(mockGroup));
         when(userRepository.findByUsername(anyString())).thenReturn(Optional.of(userToRemove));
-        when(groupRepository.existsByIdAndMembersId(1L, 2L)).thenReturn(false);
+        when(groupMembershipIndex.isMember(1L, 2L)).thenReturn(false);
 
         UserNotInGroupException ex = assertThrows(UserNotInGroupException.class, ()->groupService.removeUserFromGroup(1L, "userToAdd", mockUser));
         assertEquals("User is not in group", ex.getMessage());
@@ -508,18 +548,21 @@ public class GroupServiceTests {
         mockGroup.addMember(leavingUser);
 
         when(groupRepository.findById(1L)).thenReturn(Optional.of(mockGroup));
-        when(groupRepository.existsByIdAndMembersId(anyLong(), anyLong())).thenReturn(true);
-        when(groupRepository.save(any(Group.class))).thenAnswer(i->i.getArgument(0));
+        when(groupMembershipIndex.isMember(anyLong(), anyLong())).thenReturn(true);
+        when(groupRepository.deleteMember(1L, 2L)).thenReturn(1);
 
         groupService.leaveGroup(1L, leavingUser);
 
-        assertEquals(1, mockGroup.getMembers().size());
-        verify(groupRepository, times(1)).save(any(Group.class));
+        verify(groupRepository, times(1)).deleteMember(1L, 2L);
+        verify(messageStreamService).closeAfterCommit(1L, "leavinguser");
+        verify(groupRepository).adjustMembersCount(1L, -1);
+        verify(groupRepository, never()).save(any(Group.class));
     }
 
     @Test
     void leaveGroup_ShouldDeleteGroup_WhenUserIsOwner(){
         when(groupRepository.findById(1L)).thenReturn(Optional.of(mockGroup));
+        when(groupMembershipIndex.isMember(1L, 1L)).thenReturn(true);
         when(groupRepository.existsByIdAndOwnerId(1L, 1L)).thenReturn(true);
         when(groupRepository.save(any(Group.class))).thenAnswer(i->i.getArgument(0));
 
@@ -537,7 +580,7 @@ public class GroupServiceTests {
         leavingUser.setUsername("leavinguser");
 
         when(groupRepository.findById(1L)).thenReturn(Optional.of(mockGroup));
-        when(groupRepository.existsByIdAndMembersId(1L, 2L)).thenReturn(false);
+        when(groupMembershipIndex.isMember(1L, 2L)).thenReturn(false);
 
         UserNotInGroupException ex = assertThrows(UserNotInGroupException.class, ()->groupService.leaveGroup(1L, leavingUser));
 
@@ -575,4 +618,245 @@ public class GroupServiceTests {
         assertEquals("Group was deleted", ex.getMessage());
         verify(groupRepository, never()).save(any(Group.class));
     }
+
+    @Test
+    void getUserGroups_ShouldUseMaintainedCount_WithoutTouchingMembers(){
+        Set<User> members = largeGroupMembers();
+        mockGroup.setMembersCount(5000);
+        mockGroup.setMembers(members);
+        when(groupRepository.findAllByMembersId(1L)).thenReturn(List.of(mockGroup));
+
+        List<GroupDto> result = groupService.getUserGroups(mockUser);
+
+        assertEquals(5000, result.getFirst().getMembersCount());
+        verifyNoInteractions(members);
+    }
+
+    @Test
+    void getGroupsByPartialName_ShouldUseMaintainedCount_WithoutTouchingMembers(){
+        Set<User> members = largeGroupMembers();
+        mockGroup.setMembersCount(5000);
+        mockGroup.setMembers(members);
+        when(groupRepository.findByNameContainingIgnoreCase("test")).thenReturn(List.of(mockGroup));
+        when(groupMembershipIndex.memberGroupIds(List.of(1L), 1L)).thenReturn(Set.of(1L));
+
+        List<GroupDto> result = groupService.getGroupsByPartialName("test", mockUser);
+
+        assertEquals(5000, result.getFirst().getMembersCount());
+        assertTrue(result.getFirst().isMember());
+        verifyNoInteractions(members);
+    }
+
+    @Test
+    void joinGroup_ShouldInsertMemberAndCountInOneStatement(){
+        JoinGroupRequestDto request = new JoinGroupRequestDto();
+        request.setPassword("password123");
+        User joiningUser = new User();
+        joiningUser.setId(2L);
+        joiningUser.setUsername("joininguser");
+
+        when(groupRepository.findById(1L)).thenReturn(Optional.of(mockGroup));
+        when(groupPasswordVerifier.matches(eq(2L), eq(1L), anyString(), anyString())).thenReturn(true);
+
+        groupService.joinGroup(1L, request, joiningUser);
+
+        verify(groupRepository).joinMember(1L, 2L);
+        verify(groupRepository, never()).insertMember(anyLong(), anyLong());
+        verify(groupRepository, never()).adjustMembersCount(anyLong(), anyInt());
+    }
+
+    @Test
+    void joinGroup_ShouldVerifyPassword_BeforeWritingMembership(){
+        JoinGroupRequestDto request = new JoinGroupRequestDto();
+        request.setPassword("password123");
+        User joiningUser = new User();
+        joiningUser.setId(2L);
+        joiningUser.setUsername("joininguser");
+
+        when(groupRepository.findById(1L)).thenReturn(Optional.of(mockGroup));
+        when(groupPasswordVerifier.matches(eq(2L), eq(1L), anyString(), anyString())).thenReturn(true);
+
+        groupService.joinGroup(1L, request, joiningUser);
+
+        InOrder inOrder = inOrder(groupRepository, groupPasswordVerifier, groupMembershipIndex);
+        inOrder.verify(groupRepository).findById(1L);
+        inOrder.verify(groupPasswordVerifier).matches(eq(2L), eq(1L), anyString(), anyString());
+        inOrder.verify(groupRepository).joinMember(1L, 2L);
+        inOrder.verify(groupMembershipIndex).addAfterCommit(1L, 2L);
+    }
+
+    @Test
+    void getUsersInGroup_ShouldReadPageOfMembers_WithEscapedSearchPrefix(){
+        MemberRef member = mock(MemberRef.class);
+        when(member.getId()).thenReturn(7L);
+        when(member.getUsername()).thenReturn("a_bc");
+        when(member.getRole()).thenReturn("ROLE_USER");
+        when(member.getEnabled()).thenReturn(true);
+
+        when(groupRepository.findById(1L)).thenReturn(Optional.of(mockGroup));
+        when(groupRepository.existsByIdAndOwnerId(1L, 1L)).thenReturn(true);
+        when(groupRepository.findMembers(1L, 5L, "a\\_b%", PageRequest.ofSize(20)))
+                .thenReturn(new SliceImpl<>(List.of(member), PageRequest.ofSize(20), true));
+
+        Slice<UserDto> members = groupService.getUsersInGroup(1L, 5L, " A_b ", 20, mockUser);
+
+        assertTrue(members.hasNext());
+        assertEquals(7L, members.getContent().getFirst().getId());
+        assertEquals(Role.ROLE_USER, members.getContent().getFirst().getRole());
+        assertTrue(members.getContent().getFirst().isEnabled());
+    }
+
+    @Test
+    void getUsersInGroup_ShouldStartFromFirstMember_WhenNoCursorOrSearch(){
+        when(groupRepository.findById(1L)).thenReturn(Optional.of(mockGroup));
+        when(groupRepository.existsByIdAndOwnerId(1L, 1L)).thenReturn(true);
+        when(groupRepository.findMembers(1L, 0L, "%", PageRequest.ofSize(50)))
+                .thenReturn(new SliceImpl<>(List.of(), PageRequest.ofSize(50), false));
+
+        Slice<UserDto> members = groupService.getUsersInGroup(1L, null, null, 50, mockUser);
+
+        assertFalse(members.hasNext());
+        verify(groupRepository, never()).findAllByMembersId(anyLong());
+    }
+
+    @Test
+    void exportUsersInGroup_ShouldThrowException_WhenUserNotOwner(){
+        when(groupRepository.findById(1L)).thenReturn(Optional.of(mockGroup));
+        when(groupRepository.existsByIdAndOwnerId(1L, 1L)).thenReturn(false);
+
+        assertThrows(UserNotGroupOwnerException.class, ()->groupService.exportUsersInGroup(1L, mockUser));
+
+        verifyNoInteractions(groupMemberExporter);
+    }
+
+    @Test
+    void getGroupsByPartialName_ShouldResolveMembershipInOneQuery_For100Groups(){
+        GroupService serviceWithIndex = new GroupService(groupRepository, userRepository, passwordEncoder,
+                new GroupMembershipIndex(groupRepository, new SimpleMeterRegistry()), groupMemberExporter, groupPasswordVerifier, groupActivityFeed, messageStreamService);
+        List<Group> groups = LongStream.rangeClosed(1, 100).mapToObj(this::groupWithId).toList();
+        List<Long> memberOf = LongStream.rangeClosed(1, 100).filter(id -> id % 2 == 0).boxed().toList();
+        when(groupRepository.findByNameContainingIgnoreCase("test")).thenReturn(groups);
+        when(groupRepository.findMemberGroupIds(anyCollection(), eq(1L))).thenReturn(memberOf);
+
+        List<GroupDto> result = serviceWithIndex.getGroupsByPartialName("test", mockUser);
+
+        assertEquals(100, result.size());
+        assertEquals(50, result.stream().filter(GroupDto::isMember).count());
+        assertTrue(result.stream().filter(GroupDto::isMember).allMatch(g -> g.getId() % 2 == 0));
+        verify(groupRepository).findByNameContainingIgnoreCase("test");
+        verify(groupRepository).findMemberGroupIds(anyCollection(), eq(1L));
+        verifyNoMoreInteractions(groupRepository);
+    }
+
+    @Test
+    void getGroupsByOwner_ShouldResolveMembershipInOneQuery_For100Groups(){
+        GroupService serviceWithIndex = new GroupService(groupRepository, userRepository, passwordEncoder,
+                new GroupMembershipIndex(groupRepository, new SimpleMeterRegistry()), groupMemberExporter, groupPasswordVerifier, groupActivityFeed, messageStreamService);
+        List<Group> groups = LongStream.rangeClosed(1, 100).mapToObj(this::groupWithId).toList();
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(mockUser));
+        when(groupRepository.findAllByOwner(mockUser)).thenReturn(groups);
+        when(groupRepository.findMemberGroupIds(anyCollection(), eq(1L)))
+                .thenReturn(LongStream.rangeClosed(1, 100).boxed().toList());
+
+        List<GroupDto> result = serviceWithIndex.getGroupsByOwner("testuser", mockUser);
+
+        assertTrue(result.stream().allMatch(GroupDto::isMember));
+        verify(groupRepository).findAllByOwner(mockUser);
+        verify(groupRepository).findMemberGroupIds(anyCollection(), eq(1L));
+        verifyNoMoreInteractions(groupRepository);
+    }
+
+    @Test
+    void searchGroups_ShouldKeepRankOrder_AndBuildCursorFromRankSnapshot(){
+        Group popular = groupWithId(2L);
+        popular.setMembersCount(40);
+        popular.setRecentMessages(2);
+        popular.setRankScore(42);
+        Group quiet = groupWithId(9L);
+        quiet.setMembersCount(5);
+        quiet.setRankScore(3);
+        when(groupRepository.searchActiveGroupIdsByRank("%50\\%%", Long.MAX_VALUE, Long.MAX_VALUE, 3))
+                .thenReturn(List.of(2L, 9L, 4L));
+        when(groupRepository.findAllByIdIn(List.of(2L, 9L))).thenReturn(List.of(quiet, popular));
+        when(groupMembershipIndex.memberGroupIds(List.of(2L, 9L), 1L)).thenReturn(Set.of(9L));
+
+        GroupSearchPageDto page = groupService.searchGroups(" 50% ", null, 2, mockUser);
+
+        assertEquals(List.of(2L, 9L), page.getGroups().stream().map(GroupDto::getId).toList());
+        assertTrue(page.getGroups().get(1).isMember());
+        assertEquals("3_9", page.getNextCursor());
+    }
+
+    @Test
+    void searchGroups_ShouldContinueAfterCursor_AndEndWithoutNextCursor(){
+        when(groupRepository.findActiveGroupIdsByRank(3L, 9L, 21)).thenReturn(List.of(4L));
+        when(groupRepository.findAllByIdIn(List.of(4L))).thenReturn(List.of(groupWithId(4L)));
+        when(groupMembershipIndex.memberGroupIds(List.of(4L), 1L)).thenReturn(Set.of());
+
+        GroupSearchPageDto page = groupService.searchGroups(null, "3_9", 20, mockUser);
+
+        assertEquals(1, page.getGroups().size());
+        assertNull(page.getNextCursor());
+        verify(groupRepository, never()).findByNameContainingIgnoreCase(anyString());
+    }
+
+    @Test
+    void searchGroups_ShouldThrowException_WhenTrimmedQueryIsTooShortForTrigramIndex(){
+        assertThrows(InvalidGroupSearchQueryException.class, ()->groupService.searchGroups("  ab  ", null, 20, mockUser));
+
+        verifyNoInteractions(groupRepository);
+    }
+
+    @Test
+    void searchGroups_ShouldThrowException_WhenCursorIsMalformed(){
+        assertThrows(InvalidGroupSearchCursorException.class, ()->groupService.searchGroups("test", "abc", 20, mockUser));
+
+        verifyNoInteractions(groupRepository);
+    }
+
+    @Test
+    void joinGroup_ShouldRecordActivity(){
+        JoinGroupRequestDto request = new JoinGroupRequestDto();
+        request.setPassword("password123");
+        User joiningUser = new User();
+        joiningUser.setId(2L);
+        joiningUser.setUsername("joininguser");
+
+        when(groupRepository.findById(1L)).thenReturn(Optional.of(mockGroup));
+        when(groupPasswordVerifier.matches(eq(2L), eq(1L), anyString(), anyString())).thenReturn(true);
+
+        groupService.joinGroup(1L, request, joiningUser);
+
+        verify(groupActivityFeed).record(1L, GroupActivityType.MEMBER_JOINED, "joininguser", null);
+    }
+
+    @Test
+    void getGroupActivity_ShouldThrowException_WhenUserNotMember(){
+        when(groupRepository.findById(1L)).thenReturn(Optional.of(mockGroup));
+        when(groupMembershipIndex.isMember(1L, 1L)).thenReturn(false);
+
+        assertThrows(UserNotInGroupException.class, ()->groupService.getGroupActivity(1L, null, 20, mockUser));
+
+        verifyNoInteractions(groupActivityFeed);
+    }
+
+    @Test
+    void getGroupActivity_ShouldThrowException_WhenCursorIsInvalid(){
+        assertThrows(InvalidGroupActivityCursorException.class, ()->groupService.getGroupActivity(1L, "12", 20, mockUser));
+
+        verifyNoInteractions(groupActivityFeed);
+    }
+
+    private Group groupWithId(long id){
+        Group group = new Group();
+        group.setId(id);
+        group.setName("test" + id);
+        group.setOwner(mockUser);
+        return group;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<User> largeGroupMembers(){
+        return mock(Set.class);
+    }
 }
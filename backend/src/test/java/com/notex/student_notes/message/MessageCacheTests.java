@@ -0,0 +1,133 @@
+package com.notex.student_notes.message;
+
+import com.notex.student_notes.config.cache.CacheConfig;
+import com.notex.student_notes.group.exceptions.UserNotInGroupException;
+import com.notex.student_notes.group.model.Group;
+import com.notex.student_notes.group.repository.GroupRepository;
+import com.notex.student_notes.group.service.GroupMembershipIndex;
+import com.notex.student_notes.message.dto.SendMessageDto;
+import com.notex.student_notes.message.model.Message;
+import com.notex.student_notes.message.repository.MessageRepository;
+import com.notex.student_notes.message.repository.ReadCursorRepository;
+import com.notex.student_notes.message.service.MessagePageGenerations;
+import com.notex.student_notes.message.service.MessagePageReader;
+import com.notex.student_notes.message.service.MessagePartitionService;
+import com.notex.student_notes.message.service.MessageService;
+import com.notex.student_notes.message.service.MessageStreamService;
+import com.notex.student_notes.message.service.MessageWriteBehindService;
+import com.notex.student_notes.message.service.RecentMessagesBuffer;
+import com.notex.student_notes.message.service.UnreadMessageCounter;
+import com.notex.student_notes.user.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig(MessageCacheTests.TestConfig.class)
+public class MessageCacheTests {
+
+    @Configuration
+    @EnableCaching
+    @Import({CacheConfig.class, MessageService.class, MessagePageReader.class})
+    static class TestConfig {
+        @Bean
+        MessagePageGenerations messagePageGenerations(){
+            return new MessagePageGenerations();
+        }
+
+        @Bean
+        MeterRegistry meterRegistry(){
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private MessageService messageService;
+    @MockitoBean
+    private MessageRepository messageRepository;
+    @MockitoBean
+    private GroupRepository groupRepository;
+    @MockitoBean
+    private GroupMembershipIndex groupMembershipIndex;
+    @MockitoBean
+    private MessageStreamService messageStreamService;
+    @MockitoBean
+    private RecentMessagesBuffer recentMessagesBuffer;
+    @MockitoBean
+    private MessageWriteBehindService messageWriteBehindService;
+    @MockitoBean
+    private MessagePartitionService messagePartitionService;
+    @MockitoBean
+    private ReadCursorRepository readCursorRepository;
+    @MockitoBean
+    private UnreadMessageCounter unreadMessageCounter;
+
+    private User mockUser;
+
+    @BeforeEach
+    void setUp(){
+        mockUser = new User();
+        mockUser.setId(1L);
+        mockUser.setUsername("testuser");
+        when(groupRepository.findById(anyLong())).thenAnswer(i -> Optional.of(group(i.getArgument(0))));
+        when(groupMembershipIndex.isMember(anyLong(), anyLong())).thenReturn(true);
+        when(messageRepository.findAllByGroupIdOrderByCreatedAtAsc(anyLong(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of()));
+        when(messageRepository.save(any(Message.class))).thenAnswer(i -> i.getArgument(0));
+    }
+
+    @Test
+    void sendMessage_ShouldInvalidateOnlyPagesOfItsGroup(){
+        Pageable firstPage = PageRequest.of(0, 20);
+        messageService.getMessagesByGroupId(10L, mockUser, firstPage);
+        messageService.getMessagesByGroupId(20L, mockUser, firstPage);
+
+        SendMessageDto message = new SendMessageDto();
+        message.setGroupId(10L);
+        message.setContent("Hello");
+        messageService.sendMessage(message, mockUser);
+
+        messageService.getMessagesByGroupId(10L, mockUser, firstPage);
+        messageService.getMessagesByGroupId(20L, mockUser, firstPage);
+
+        verify(messageRepository, times(2)).findAllByGroupIdOrderByCreatedAtAsc(eq(10L), any(Pageable.class));
+        verify(messageRepository, times(1)).findAllByGroupIdOrderByCreatedAtAsc(eq(20L), any(Pageable.class));
+    }
+
+    @Test
+    void getMessagesByGroupId_ShouldRejectNonMember_WhenPageIsCached(){
+        Pageable firstPage = PageRequest.of(0, 20);
+        messageService.getMessagesByGroupId(30L, mockUser, firstPage);
+        User outsider = new User();
+        outsider.setId(2L);
+        outsider.setUsername("outsider");
+        when(groupMembershipIndex.isMember(30L, 2L)).thenReturn(false);
+
+        assertThrows(UserNotInGroupException.class, () -> messageService.getMessagesByGroupId(30L, outsider, firstPage));
+        verify(messageRepository, times(1)).findAllByGroupIdOrderByCreatedAtAsc(eq(30L), any(Pageable.class));
+    }
+
+    private static Group group(Long id){
+        Group group = new Group();
+        group.setId(id);
+        group.setName("group" + id);
+        return group;
+    }
+}
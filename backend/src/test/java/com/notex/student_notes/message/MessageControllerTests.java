@@ -16,18 +16,25 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -110,4 +117,17 @@ public class MessageControllerTests {
                 .content(objectMapper.writeValueAsString(input)))
                 .andExpect(status().isTooManyRequests());
     }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = "USER")
+    void getMessageHistory_ShouldReturnNewestSlice_WhenBeforeIsOmitted() throws Exception {
+        when(userService.getUserEntityByUsername("testuser")).thenReturn(mockUser);
+        when(messageService.getMessageHistory(1L, null, 20, mockUser)).thenReturn(new SliceImpl<>(List.of()));
+
+        mockMvc.perform(get("/groups/1/messages/history"))
+                .andExpect(status().isOk());
+
+        verify(messageService).getMessageHistory(1L, null, 20, mockUser);
+        verify(messageService, never()).getMessagesByGroupId(anyLong(), any(), any());
+    }
 }
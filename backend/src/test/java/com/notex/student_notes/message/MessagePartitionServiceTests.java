@@ -0,0 +1,86 @@
+package com.notex.student_notes.message;
+
+import com.notex.student_notes.message.service.MessagePartitionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class MessagePartitionServiceTests {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private MessagePartitionService messagePartitionService;
+
+    @BeforeEach
+    void setUp(){
+        messagePartitionService = new MessagePartitionService(jdbcTemplate, new SimpleMeterRegistry(), 2, 12, "archive", 1);
+    }
+
+    @Test
+    void maintain_ShouldCreateMissingFuturePartitions(){
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class))).thenReturn(1);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class)))
+                .thenReturn(List.of("messages_legacy", "messages_p2026_10", "messages_default"));
+
+        messagePartitionService.maintain(LocalDate.of(2026, 10, 19));
+
+        verify(jdbcTemplate).execute("create table if not exists messages_p2026_11 partition of messages for values from ('2026-11-01T00:00') to ('2026-12-01T00:00')");
+        verify(jdbcTemplate).execute("create table if not exists messages_p2026_12 partition of messages for values from ('2026-12-01T00:00') to ('2027-01-01T00:00')");
+        verify(jdbcTemplate, never()).execute(contains("messages_p2026_10"));
+        verify(jdbcTemplate, never()).execute(contains("detach"));
+        assertTrue(messagePartitionService.recentSince().isPresent());
+    }
+
+    @Test
+    void maintain_ShouldArchivePartitionsOlderThanRetention(){
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class))).thenReturn(1);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class)))
+                .thenReturn(List.of("messages_legacy", "messages_p2025_09", "messages_p2025_10",
+                        "messages_p2026_10", "messages_p2026_11", "messages_p2026_12"));
+
+        messagePartitionService.maintain(LocalDate.of(2026, 10, 19));
+
+        verify(jdbcTemplate).execute("alter table messages detach partition messages_p2025_09");
+        verify(jdbcTemplate).execute("alter table messages_p2025_09 set schema archive");
+        verify(jdbcTemplate, never()).execute(contains("messages_p2025_10"));
+        verify(jdbcTemplate, never()).execute(contains("messages_legacy"));
+        verify(jdbcTemplate, never()).execute(startsWith("create table"));
+    }
+
+    @Test
+    void maintain_ShouldContinue_WhenOnePartitionFails(){
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class))).thenReturn(1);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class))).thenReturn(List.of());
+        doThrow(new DataAccessResourceFailureException("default partition has rows"))
+                .when(jdbcTemplate).execute(contains("messages_p2026_10"));
+
+        messagePartitionService.maintain(LocalDate.of(2026, 10, 19));
+
+        verify(jdbcTemplate).execute(contains("messages_p2026_11"));
+        verify(jdbcTemplate).execute(contains("messages_p2026_12"));
+    }
+
+    @Test
+    void maintain_ShouldDoNothing_WhenTableIsNotPartitioned(){
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class))).thenReturn(0);
+
+        messagePartitionService.maintain(LocalDate.of(2026, 10, 19));
+
+        verify(jdbcTemplate, never()).execute(anyString());
+        assertTrue(messagePartitionService.recentSince().isEmpty());
+    }
+}
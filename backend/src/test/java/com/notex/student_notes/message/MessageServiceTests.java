@@ -5,11 +5,22 @@ import com.notex.student_notes.group.exceptions.GroupNotFoundException;
 import com.notex.student_notes.group.exceptions.UserNotInGroupException;
 import com.notex.student_notes.group.model.Group;
 import com.notex.student_notes.group.repository.GroupRepository;
+import com.notex.student_notes.group.service.GroupMembershipIndex;
 import com.notex.student_notes.message.dto.MessageDto;
 import com.notex.student_notes.message.dto.SendMessageDto;
+import com.notex.student_notes.message.dto.UnreadCountDto;
 import com.notex.student_notes.message.model.Message;
+import com.notex.student_notes.message.model.ReadCursor;
 import com.notex.student_notes.message.repository.MessageRepository;
+import com.notex.student_notes.message.repository.ReadCursorRepository;
+import com.notex.student_notes.message.service.MessagePageGenerations;
+import com.notex.student_notes.message.service.MessagePageReader;
+import com.notex.student_notes.message.service.MessagePartitionService;
 import com.notex.student_notes.message.service.MessageService;
+import com.notex.student_notes.message.service.MessageStreamService;
+import com.notex.student_notes.message.service.MessageWriteBehindService;
+import com.notex.student_notes.message.service.RecentMessagesBuffer;
+import com.notex.student_notes.message.service.UnreadMessageCounter;
 import com.notex.student_notes.user.model.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,13 +29,18 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,6 +51,33 @@ public class MessageServiceTests {
     @Mock
     private GroupRepository groupRepository;
 
+    @Mock
+    private GroupMembershipIndex groupMembershipIndex;
+
+    @Mock
+    private MessageStreamService messageStreamService;
+
+    @Mock
+    private RecentMessagesBuffer recentMessagesBuffer;
+
+    @Mock
+    private MessagePageGenerations messagePageGenerations;
+
+    @Mock
+    private MessagePageReader messagePageReader;
+
+    @Mock
+    private MessageWriteBehindService messageWriteBehindService;
+
+    @Mock
+    private MessagePartitionService messagePartitionService;
+
+    @Mock
+    private ReadCursorRepository readCursorRepository;
+
+    @Mock
+    private UnreadMessageCounter unreadMessageCounter;
+
     @InjectMocks
     private MessageService messageService;
 
@@ -60,7 +103,7 @@ public class MessageServiceTests {
         input.setContent("Test message");
 
         when(groupRepository.findById(1L)).thenReturn(Optional.of(mockGroup));
-        when(groupRepository.existsByIdAndMembersId(anyLong(), anyLong())).thenReturn(true);
+        when(groupMembershipIndex.isMember(anyLong(), anyLong())).thenReturn(true);
         when(messageRepository.save(any(Message.class))).thenAnswer(i->i.getArgument(0));
         MessageDto response = messageService.sendMessage(input, mockUser);
 
@@ -69,6 +112,9 @@ public class MessageServiceTests {
         assertEquals("testuser", response.getAuthor());
 
         verify(messageRepository, times(1)).save(any(Message.class));
+        verify(messagePageGenerations).bumpAfterCommit(1L);
+        verify(recentMessagesBuffer).appendAfterCommit(response);
+        verify(messageStreamService).publishAfterCommit(response);
     }
 
     @Test
@@ -82,6 +128,7 @@ public class MessageServiceTests {
 
         assertEquals("Group not found", ex.getMessage());
         verify(messageRepository, never()).save(any(Message.class));
+        verifyNoInteractions(messageStreamService);
     }
 
     @Test
@@ -91,8 +138,7 @@ public class MessageServiceTests {
         input.setContent("Test message");
 
         when(groupRepository.findById(1L)).thenReturn(Optional.of(mockGroup));
-        when(groupRepository.existsByIdAndMembersId(anyLong(), anyLong())).thenReturn(false);
-        when(groupRepository.existsByIdAndOwnerId(anyLong(), anyLong())).thenReturn(false);
+        when(groupMembershipIndex.isMember(anyLong(), anyLong())).thenReturn(false);
 
         UserNotInGroupException ex = assertThrows(UserNotInGroupException.class, ()-> messageService.sendMessage(input, mockUser));
         assertEquals("User is not in group", ex.getMessage());
@@ -120,28 +166,140 @@ public class MessageServiceTests {
         Long groupId = 1L;
         Pageable pageable = mock(Pageable.class);
 
-        Message message = new Message("Hello", mockUser, mockGroup);
-        Page<Message> messagePage = Page.empty();
+        Page<MessageDto> messagePage = Page.empty();
         when(groupRepository.findById(groupId)).thenReturn(Optional.of(mockGroup));
-        when(groupRepository.existsByIdAndMembersId(groupId, mockUser.getId())).thenReturn(true);
-        when(messageRepository.findAllByGroupIdOrderByCreatedAtAsc(groupId, pageable)).thenReturn(messagePage);
+        when(groupMembershipIndex.isMember(groupId, mockUser.getId())).thenReturn(true);
+        when(messagePageReader.page(groupId, pageable)).thenReturn(messagePage);
 
         Page<MessageDto> result = messageService.getMessagesByGroupId(groupId, mockUser, pageable);
 
         assertNotNull(result);
         assertEquals(0, result.getTotalElements());
-        verify(messageRepository, times(1)).findAllByGroupIdOrderByCreatedAtAsc(groupId, pageable);
+        verify(messagePageReader, times(1)).page(groupId, pageable);
     }
 
     @Test
     void getMessagesByGroupId_ShouldThrowException_WhenUserNotInGroup(){
 
         when(groupRepository.findById(1L)).thenReturn(Optional.of(mockGroup));
-        when(groupRepository.existsByIdAndMembersId(anyLong(), anyLong())).thenReturn(false);
-        when(groupRepository.existsByIdAndOwnerId(anyLong(), anyLong())).thenReturn(false);
+        when(groupMembershipIndex.isMember(anyLong(), anyLong())).thenReturn(false);
 
         UserNotInGroupException ex = assertThrows(UserNotInGroupException.class, ()-> messageService.getMessagesByGroupId(1L, mockUser, mock(Pageable.class)));
         assertEquals("User is not in group", ex.getMessage());
-        verify(messageRepository, never()).findAllByGroupIdOrderByCreatedAtAsc(anyLong(), any(Pageable.class));
+        verifyNoInteractions(messagePageReader);
+    }
+
+    @Test
+    void getMessageHistory_ShouldReadSliceBeforeCursor_NewestFirst(){
+        Message newer = new Message("Newer", mockUser, mockGroup);
+        newer.setId(41L);
+        Message older = new Message("Older", mockUser, mockGroup);
+        older.setId(40L);
+        when(groupRepository.findById(1L)).thenReturn(Optional.of(mockGroup));
+        when(groupMembershipIndex.isMember(anyLong(), anyLong())).thenReturn(true);
+        when(messageRepository.findByGroupIdAndIdLessThanOrderByIdDesc(eq(1L), eq(42L), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(newer, older), PageRequest.ofSize(2), true));
+
+        Slice<MessageDto> result = messageService.getMessageHistory(1L, 42L, 2, mockUser);
+
+        assertEquals(List.of(41L, 40L), result.map(MessageDto::getId).getContent());
+        assertTrue(result.hasNext());
+        verifyNoInteractions(messagePageReader);
+    }
+
+    @Test
+    void getMessageHistory_ShouldReadNewestSlice_WhenNoCursorGiven(){
+        when(groupRepository.findById(1L)).thenReturn(Optional.of(mockGroup));
+        when(groupMembershipIndex.isMember(anyLong(), anyLong())).thenReturn(true);
+        when(messageRepository.findByGroupIdOrderByIdDesc(eq(1L), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(), PageRequest.ofSize(20), false));
+
+        Slice<MessageDto> result = messageService.getMessageHistory(1L, null, 20, mockUser);
+
+        assertTrue(result.isEmpty());
+        verify(messageRepository, never()).findByGroupIdAndIdLessThanOrderByIdDesc(anyLong(), anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void getMessageHistory_ShouldStayInRecentPartitions_WhenWindowFillsThePage(){
+        LocalDateTime since = LocalDateTime.of(2026, 9, 1, 0, 0);
+        Message recent = new Message("Recent", mockUser, mockGroup);
+        recent.setId(41L);
+        when(groupRepository.findById(1L)).thenReturn(Optional.of(mockGroup));
+        when(groupMembershipIndex.isMember(anyLong(), anyLong())).thenReturn(true);
+        when(messagePartitionService.recentSince()).thenReturn(Optional.of(since));
+        when(messageRepository.findByGroupIdAndIdLessThanAndCreatedAtGreaterThanEqualOrderByIdDesc(eq(1L), eq(42L), eq(since), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(recent), PageRequest.ofSize(1), true));
+
+        Slice<MessageDto> result = messageService.getMessageHistory(1L, 42L, 1, mockUser);
+
+        assertEquals(List.of(41L), result.map(MessageDto::getId).getContent());
+        verify(messageRepository, never()).findByGroupIdAndIdLessThanOrderByIdDesc(anyLong(), anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void getMessageHistory_ShouldReadAllPartitions_WhenWindowRunsOut(){
+        LocalDateTime since = LocalDateTime.of(2026, 9, 1, 0, 0);
+        Message recent = new Message("Recent", mockUser, mockGroup);
+        recent.setId(41L);
+        Message old = new Message("Old", mockUser, mockGroup);
+        old.setId(3L);
+        when(groupRepository.findById(1L)).thenReturn(Optional.of(mockGroup));
+        when(groupMembershipIndex.isMember(anyLong(), anyLong())).thenReturn(true);
+        when(messagePartitionService.recentSince()).thenReturn(Optional.of(since));
+        when(messageRepository.findByGroupIdAndCreatedAtGreaterThanEqualOrderByIdDesc(eq(1L), eq(since), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(recent), PageRequest.ofSize(2), false));
+        when(messageRepository.findByGroupIdOrderByIdDesc(eq(1L), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(recent, old), PageRequest.ofSize(2), false));
+
+        Slice<MessageDto> result = messageService.getMessageHistory(1L, null, 2, mockUser);
+
+        assertEquals(List.of(41L, 3L), result.map(MessageDto::getId).getContent());
+    }
+
+    @Test
+    void sendMessage_ShouldSkipInsert_WhenAcceptedForWriteBehind(){
+        SendMessageDto input = new SendMessageDto();
+        input.setGroupId(1L);
+        input.setContent("Test message");
+
+        when(groupRepository.findById(1L)).thenReturn(Optional.of(mockGroup));
+        when(groupMembershipIndex.isMember(anyLong(), anyLong())).thenReturn(true);
+        when(messageWriteBehindService.trySubmit(any(Message.class))).thenAnswer(i -> {
+            Message message = i.getArgument(0);
+            message.setId(500L);
+            return true;
+        });
+
+        MessageDto response = messageService.sendMessage(input, mockUser);
+
+        assertEquals(500L, response.getId());
+        verify(messageRepository, never()).save(any(Message.class));
+        verify(messageStreamService).publishAfterCommit(response);
+    }
+
+    @Test
+    void getUnreadCounts_ShouldCountEveryGroupFromMemory_WithOneCursorQuery(){
+        ReadCursor cursor = new ReadCursor();
+        cursor.setGroupId(1L);
+        cursor.setLastReadMessageId(40L);
+        when(readCursorRepository.findAllByUserId(1L)).thenReturn(List.of(cursor));
+        when(groupRepository.findActiveGroupIdsByMemberId(1L)).thenReturn(List.of(1L, 2L));
+        when(unreadMessageCounter.count(1L, 1L, 40L)).thenReturn(new UnreadCountDto(1L, 40L, 3, false));
+        when(unreadMessageCounter.count(2L, 1L, null)).thenReturn(new UnreadCountDto(2L, null, 500, true));
+
+        List<UnreadCountDto> result = messageService.getUnreadCounts(mockUser);
+
+        assertEquals(List.of(3, 500), result.stream().map(UnreadCountDto::getUnreadCount).toList());
+        verifyNoInteractions(messageRepository);
+    }
+
+    @Test
+    void markMessagesRead_ShouldThrow_WhenUserNotInGroup(){
+        when(groupRepository.findById(1L)).thenReturn(Optional.of(mockGroup));
+        when(groupMembershipIndex.isMember(anyLong(), anyLong())).thenReturn(false);
+
+        assertThrows(UserNotInGroupException.class, () -> messageService.markMessagesRead(1L, 42L, mockUser));
+        verify(readCursorRepository, never()).advance(anyLong(), anyLong(), anyLong());
     }
 }
@@ -0,0 +1,130 @@
+package com.notex.student_notes.message;
+
+import com.notex.student_notes.message.dto.MessageDto;
+import com.notex.student_notes.message.service.MessageStreamService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+public class MessageStreamServiceTests {
+
+    private SimpleMeterRegistry meterRegistry;
+    private MessageStreamService messageStreamService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp(){
+        meterRegistry = new SimpleMeterRegistry();
+        messageStreamService = new MessageStreamService(meterRegistry, Duration.ofMinutes(1), 4);
+        mockMvc = MockMvcBuilders.standaloneSetup(new StreamController(messageStreamService)).build();
+    }
+
+    @AfterEach
+    void tearDown(){
+        messageStreamService.shutdown();
+    }
+
+    @Test
+    void publish_ShouldFanOutToAllSubscribersOfGroup() throws Exception {
+        MvcResult first = subscribe(1L, "alice");
+        MvcResult second = subscribe(1L, "bob");
+        MvcResult otherGroup = subscribe(2L, "carol");
+        assertEquals(3, messageStreamService.getConnectionCount());
+
+        messageStreamService.publish(message(10L, 1L, "Hello group"));
+
+        awaitContent(first, "Hello group");
+        awaitContent(second, "Hello group");
+        assertFalse(otherGroup.getResponse().getContentAsString().contains("Hello group"));
+        assertTrue(first.getResponse().getContentAsString().contains("id:10"));
+        awaitDeliveries(2);
+    }
+
+    @Test
+    void subscriberCompletion_ShouldDecrementConnectionCount() throws Exception {
+        MvcResult result = subscribe(1L, "alice");
+
+        result.getRequest().getAsyncContext().complete();
+
+        assertEquals(0, messageStreamService.getConnectionCount());
+        assertEquals(0.0, meterRegistry.get("messages.stream.connections").gauge().value());
+    }
+
+    @Test
+    void close_ShouldEndStreamsOfRemovedMemberOnly() throws Exception {
+        MvcResult removed = subscribe(1L, "alice");
+        MvcResult otherTab = subscribe(1L, "alice");
+        MvcResult stays = subscribe(1L, "bob");
+
+        messageStreamService.close(1L, "alice");
+        messageStreamService.publish(message(11L, 1L, "After removal"));
+
+        awaitContent(stays, "After removal");
+        assertEquals(1, messageStreamService.getConnectionCount());
+        assertFalse(removed.getResponse().getContentAsString().contains("After removal"));
+        assertFalse(otherTab.getResponse().getContentAsString().contains("After removal"));
+    }
+
+    private MvcResult subscribe(Long groupId, String username) throws Exception {
+        return mockMvc.perform(get("/groups/{groupId}/stream/{username}", groupId, username))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private static void awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (!result.getResponse().getContentAsString().contains(expected)) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Expected stream to contain " + expected + " but was " + result.getResponse().getContentAsString());
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private void awaitDeliveries(long expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (meterRegistry.get("messages.stream.fanout").timer().count() < expected) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Expected " + expected + " recorded deliveries");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static MessageDto message(Long id, Long groupId, String content){
+        MessageDto message = new MessageDto();
+        message.setId(id);
+        message.setGroupId(groupId);
+        message.setContent(content);
+        message.setAuthor("alice");
+        return message;
+    }
+
+    @RestController
+    static class StreamController {
+        private final MessageStreamService messageStreamService;
+
+        StreamController(MessageStreamService messageStreamService){
+            this.messageStreamService = messageStreamService;
+        }
+
+        @GetMapping("/groups/{groupId}/stream/{username}")
+        SseEmitter stream(@PathVariable Long groupId, @PathVariable String username){
+            return messageStreamService.subscribe(groupId, username);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.notex.student_notes.message;
+
+import com.notex.student_notes.group.model.Group;
+import com.notex.student_notes.message.model.Message;
+import com.notex.student_notes.message.model.PendingMessage;
+import com.notex.student_notes.message.repository.MessageBatchWriter;
+import com.notex.student_notes.message.service.MessagePageGenerations;
+import com.notex.student_notes.message.service.MessageWriteBehindService;
+import com.notex.student_notes.user.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class MessageWriteBehindServiceTests {
+
+    @Mock
+    private MessageBatchWriter messageBatchWriter;
+
+    @TempDir
+    private Path journalDir;
+
+    private final MessagePageGenerations messagePageGenerations = new MessagePageGenerations();
+    private final List<MessageWriteBehindService> services = new ArrayList<>();
+    private User mockUser;
+    private Group mockGroup;
+
+    @BeforeEach
+    void setUp(){
+        mockUser = new User();
+        mockUser.setId(1L);
+        mockUser.setUsername("testuser");
+
+        mockGroup = new Group();
+        mockGroup.setId(7L);
+        mockGroup.setName("testgroup");
+    }
+
+    @AfterEach
+    void tearDown(){
+        services.forEach(MessageWriteBehindService::shutdown);
+    }
+
+    @Test
+    void trySubmit_ShouldAssignSequenceIds_AndFlushInBatches() throws IOException {
+        when(messageBatchWriter.allocateId()).thenReturn(100L, 101L, 102L);
+        MessageWriteBehindService service = newService(true, 2);
+
+        List<Message> messages = List.of(message("a"), message("b"), message("c"));
+        messages.forEach(message -> assertTrue(service.trySubmit(message)));
+        service.flush();
+
+        assertEquals(List.of(100L, 101L, 102L), messages.stream().map(Message::getId).toList());
+        verify(messageBatchWriter, times(3)).allocateId();
+        assertEquals(List.of(100L, 101L, 102L), insertedIds(2));
+        assertEquals(0, service.getPendingCount());
+        assertTrue(messagePageGenerations.current(7L) > 0);
+        assertEquals(1, journalSegments().size());
+    }
+
+    @Test
+    void start_ShouldReplayJournal_WhenPreviousInstanceCrashedBeforeFlushing() throws IOException {
+        when(messageBatchWriter.allocateId()).thenReturn(200L, 201L);
+        MessageWriteBehindService crashed = newService(true, 10);
+        assertTrue(crashed.trySubmit(message("first")));
+        assertTrue(crashed.trySubmit(message("second")));
+        services.remove(crashed);
+        verify(messageBatchWriter, never()).insertAll(anyList());
+
+        newService(false, 10);
+
+        assertEquals(List.of(200L, 201L), insertedIds(1));
+        assertTrue(journalSegments().isEmpty());
+        assertEquals(1, messagePageGenerations.current(7L));
+    }
+
+    @Test
+    void flush_ShouldKeepMessagesPending_WhenDatabaseWriteFails(){
+        when(messageBatchWriter.allocateId()).thenReturn(300L);
+        doThrow(new RuntimeException("connection refused")).when(messageBatchWriter).insertAll(anyList());
+        MessageWriteBehindService service = newService(true, 10);
+
+        assertTrue(service.trySubmit(message("kept")));
+        service.flush();
+
+        assertEquals(1, service.getPendingCount());
+    }
+
+    @Test
+    void flush_ShouldBackOff_AfterFailedFlush(){
+        when(messageBatchWriter.allocateId()).thenReturn(310L);
+        doThrow(new RuntimeException("connection refused")).when(messageBatchWriter).insertAll(anyList());
+        MessageWriteBehindService service = newService(true, 10);
+
+        assertTrue(service.trySubmit(message("kept")));
+        service.flush();
+        service.flush();
+        service.flush();
+
+        verify(messageBatchWriter, times(1)).insertAll(anyList());
+        assertEquals(1, service.getPendingCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_ShouldMovePoisonMessageToDeadLetter_AndInsertTheRest() throws IOException {
+        when(messageBatchWriter.allocateId()).thenReturn(500L, 501L, 502L, 503L);
+        doAnswer(invocation -> {
+            List<PendingMessage> batch = invocation.getArgument(0);
+            if (batch.stream().anyMatch(message -> message.id() == 502L)) {
+                throw new DataIntegrityViolationException("violates foreign key constraint");
+            }
+            return null;
+        }).when(messageBatchWriter).insertAll(anyList());
+        MessageWriteBehindService service = newService(true, 10);
+
+        List.of("a", "b", "poison", "d").forEach(content -> assertTrue(service.trySubmit(message(content))));
+        service.flush();
+
+        ArgumentCaptor<List<PendingMessage>> captor = ArgumentCaptor.forClass(List.class);
+        verify(messageBatchWriter, atLeastOnce()).insertAll(captor.capture());
+        List<Long> inserted = captor.getAllValues().stream()
+                .filter(batch -> batch.stream().noneMatch(message -> message.id() == 502L))
+                .flatMap(List::stream)
+                .map(PendingMessage::id)
+                .toList();
+        assertEquals(List.of(500L, 501L, 503L), inserted);
+        assertEquals(0, service.getPendingCount());
+        String deadLetters = Files.readString(journalDir.resolve("dead-letter.journal"));
+        assertTrue(deadLetters.contains("\"id\":502"));
+        assertFalse(deadLetters.contains("\"id\":501"));
+    }
+
+    @Test
+    void trySubmit_ShouldJournalOnlyAfterCommit() throws IOException {
+        when(messageBatchWriter.allocateId()).thenReturn(400L, 401L);
+        MessageWriteBehindService service = newService(true, 10);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            Message committed = message("committed");
+            assertTrue(service.trySubmit(committed));
+            assertEquals(400L, committed.getId());
+            assertEquals(0, service.getPendingCount());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertTrue(service.trySubmit(message("rolled back")));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        service.flush();
+
+        assertEquals(List.of(400L), insertedIds(1));
+    }
+
+    @Test
+    void trySubmit_ShouldReturnFalse_WhenDisabled(){
+        MessageWriteBehindService service = newService(false, 10);
+
+        assertFalse(service.trySubmit(message("sync")));
+        verifyNoInteractions(messageBatchWriter);
+    }
+
+    private MessageWriteBehindService newService(boolean enabled, int batchSize){
+        MessageWriteBehindService service = new MessageWriteBehindService(messageBatchWriter, messagePageGenerations,
+                new SimpleMeterRegistry(), enabled, journalDir, false, Duration.ofHours(1), batchSize, 100, Duration.ofSeconds(30));
+        service.start();
+        services.add(service);
+        return service;
+    }
+
+    private Message message(String content){
+        return new Message(content, mockUser, mockGroup);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Long> insertedIds(int expectedBatches){
+        ArgumentCaptor<List<PendingMessage>> captor = ArgumentCaptor.forClass(List.class);
+        verify(messageBatchWriter, times(expectedBatches)).insertAll(captor.capture());
+        return captor.getAllValues().stream().flatMap(List::stream).map(PendingMessage::id).toList();
+    }
+
+    private List<Path> journalSegments() throws IOException {
+        try (Stream<Path> files = Files.list(journalDir)) {
+            return files.toList();
+        }
+    }
+}
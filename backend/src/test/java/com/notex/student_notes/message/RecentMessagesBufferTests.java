@@ -0,0 +1,165 @@
+package com.notex.student_notes.message;
+
+import com.notex.student_notes.group.model.Group;
+import com.notex.student_notes.message.dto.MessageDto;
+import com.notex.student_notes.message.model.Message;
+import com.notex.student_notes.message.repository.MessageRepository;
+import com.notex.student_notes.message.service.RecentMessagesBuffer;
+import com.notex.student_notes.user.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RecentMessagesBufferTests {
+
+    @Mock
+    private MessageRepository messageRepository;
+
+    private RecentMessagesBuffer recentMessagesBuffer;
+    private Group mockGroup;
+    private User mockUser;
+
+    @BeforeEach
+    void setUp(){
+        recentMessagesBuffer = new RecentMessagesBuffer(messageRepository, new SimpleMeterRegistry(), 3, 10, 1, 100, Duration.ofSeconds(25));
+
+        mockUser = new User();
+        mockUser.setId(1L);
+        mockUser.setUsername("testuser");
+
+        mockGroup = new Group();
+        mockGroup.setId(1L);
+        mockGroup.setName("testgroup");
+    }
+
+    @Test
+    void poll_ShouldServeCatchUpFromBuffer_AfterSeeding(){
+        when(messageRepository.findByGroupIdOrderByIdDesc(eq(1L), any(Limit.class)))
+                .thenReturn(List.of(message(12L), message(11L)));
+
+        DeferredResult<List<MessageDto>> first = recentMessagesBuffer.poll(1L, 10L);
+        DeferredResult<List<MessageDto>> second = recentMessagesBuffer.poll(1L, 11L);
+
+        assertEquals(List.of(11L, 12L), ids(first));
+        assertEquals(List.of(12L), ids(second));
+        verify(messageRepository, times(1)).findByGroupIdOrderByIdDesc(eq(1L), any(Limit.class));
+        verify(messageRepository, never()).findByGroupIdAndIdGreaterThanOrderByIdAsc(any(), any(), any());
+    }
+
+    @Test
+    void poll_ShouldParkUntilNewMessageArrives(){
+        when(messageRepository.findByGroupIdOrderByIdDesc(eq(1L), any(Limit.class))).thenReturn(List.of(message(11L)));
+
+        DeferredResult<List<MessageDto>> result = recentMessagesBuffer.poll(1L, 11L);
+        assertFalse(result.hasResult());
+
+        recentMessagesBuffer.append(new MessageDto(message(12L)));
+
+        assertEquals(List.of(12L), ids(result));
+    }
+
+    @Test
+    void poll_ShouldFallBackToDatabase_WhenCursorIsOlderThanBuffer(){
+        when(messageRepository.findByGroupIdOrderByIdDesc(eq(1L), any(Limit.class)))
+                .thenReturn(List.of(message(30L), message(29L), message(28L)));
+        when(messageRepository.findByGroupIdAndIdGreaterThanOrderByIdAsc(eq(1L), eq(5L), any(Limit.class)))
+                .thenReturn(List.of(message(6L), message(7L)));
+
+        DeferredResult<List<MessageDto>> result = recentMessagesBuffer.poll(1L, 5L);
+
+        assertEquals(List.of(6L, 7L), ids(result));
+    }
+
+    @Test
+    void append_ShouldEvictOldestMessage_WhenBufferIsFull(){
+        when(messageRepository.findByGroupIdOrderByIdDesc(eq(1L), any(Limit.class)))
+                .thenReturn(List.of(message(3L), message(2L), message(1L)));
+        recentMessagesBuffer.poll(1L, 3L);
+
+        recentMessagesBuffer.append(new MessageDto(message(4L)));
+
+        assertEquals(List.of(3L, 4L), ids(recentMessagesBuffer.poll(1L, 2L)));
+        recentMessagesBuffer.poll(1L, 0L);
+        verify(messageRepository).findByGroupIdAndIdGreaterThanOrderByIdAsc(eq(1L), eq(0L), any(Limit.class));
+    }
+
+    @Test
+    void poll_ShouldEvictGroupWithWaiters_AndCompleteThemEmpty_WhenTooManyGroups(){
+        when(messageRepository.findByGroupIdOrderByIdDesc(any(), any(Limit.class))).thenReturn(List.of());
+        List<DeferredResult<List<MessageDto>>> parked = LongStream.rangeClosed(1, 11)
+                .mapToObj(groupId -> recentMessagesBuffer.poll(groupId, 0L))
+                .toList();
+
+        assertEquals(List.of(), ids(parked.getFirst()));
+        assertTrue(parked.subList(1, 11).stream().noneMatch(DeferredResult::hasResult));
+
+        recentMessagesBuffer.poll(1L, 0L);
+        verify(messageRepository, times(2)).findByGroupIdOrderByIdDesc(eq(1L), any(Limit.class));
+    }
+
+    @Test
+    void before_ShouldServeNewestFromBuffer_AndOlderFromDatabase(){
+        when(messageRepository.findByGroupIdOrderByIdDesc(eq(1L), any(Limit.class)))
+                .thenReturn(List.of(message(30L), message(29L), message(28L)));
+        when(messageRepository.findByGroupIdAndIdLessThanOrderByIdDesc(eq(1L), eq(29L), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(message(28L), message(27L))));
+
+        List<MessageDto> newest = recentMessagesBuffer.before(1L, Long.MAX_VALUE, 2);
+        List<MessageDto> older = recentMessagesBuffer.before(1L, 29L, 2);
+
+        assertEquals(List.of(30L, 29L), newest.stream().map(MessageDto::getId).toList());
+        assertEquals(List.of(28L, 27L), older.stream().map(MessageDto::getId).toList());
+        verify(messageRepository, times(1)).findByGroupIdAndIdLessThanOrderByIdDesc(any(), any(), any());
+    }
+
+    @Test
+    void poll_ShouldEvictLeastRecentGroups_WhenBuffersExceedByteBudget(){
+        recentMessagesBuffer = new RecentMessagesBuffer(messageRepository, new SimpleMeterRegistry(), 500, 10, 1, 100, Duration.ofSeconds(25));
+        List<Message> largeMessages = LongStream.rangeClosed(1, 500)
+                .map(id -> 501 - id)
+                .mapToObj(id -> {
+                    Message message = new Message("x".repeat(500), mockUser, mockGroup);
+                    message.setId(id);
+                    return message;
+                })
+                .toList();
+        when(messageRepository.findByGroupIdOrderByIdDesc(any(), any(Limit.class))).thenReturn(largeMessages);
+
+        recentMessagesBuffer.poll(1L, 500L);
+        recentMessagesBuffer.poll(2L, 500L);
+        recentMessagesBuffer.poll(2L, 500L);
+        recentMessagesBuffer.poll(1L, 500L);
+
+        verify(messageRepository, times(1)).findByGroupIdOrderByIdDesc(eq(2L), any(Limit.class));
+        verify(messageRepository, times(2)).findByGroupIdOrderByIdDesc(eq(1L), any(Limit.class));
+    }
+
+    private Message message(Long id){
+        Message message = new Message("Message " + id, mockUser, mockGroup);
+        message.setId(id);
+        return message;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Long> ids(DeferredResult<List<MessageDto>> result){
+        assertTrue(result.hasResult());
+        return ((List<MessageDto>) result.getResult()).stream().map(MessageDto::getId).toList();
+    }
+}
@@ -0,0 +1,140 @@
+package com.notex.student_notes.message;
+
+import com.notex.student_notes.message.dto.UnreadCountDto;
+import com.notex.student_notes.message.repository.MessageRepository;
+import com.notex.student_notes.message.repository.MessageRepository.MessageRef;
+import com.notex.student_notes.message.service.UnreadMessageCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UnreadMessageCounterTests {
+
+    @Mock
+    private MessageRepository messageRepository;
+
+    private UnreadMessageCounter unreadMessageCounter;
+
+    @BeforeEach
+    void setUp(){
+        unreadMessageCounter = new UnreadMessageCounter(messageRepository, new SimpleMeterRegistry(), 3, 2);
+    }
+
+    @Test
+    void count_ShouldSkipOwnMessages_AndMessagesUpToCursor(){
+        when(messageRepository.findRefsByGroupId(eq(1L), any(Limit.class)))
+                .thenReturn(List.of(ref(1L, 12L, 2L), ref(1L, 11L, 1L), ref(1L, 10L, 2L)));
+
+        UnreadCountDto count = unreadMessageCounter.count(1L, 1L, 10L);
+
+        assertEquals(1, count.getUnreadCount());
+        assertFalse(count.isCapped());
+    }
+
+    @Test
+    void count_ShouldIncludeRecordedMessages_WithoutQueryingAgain(){
+        when(messageRepository.findRefsByGroupId(eq(1L), any(Limit.class))).thenReturn(List.of(ref(1L, 10L, 2L)));
+        unreadMessageCounter.count(1L, 1L, 10L);
+
+        unreadMessageCounter.record(1L, 11L, 2L);
+        unreadMessageCounter.record(1L, 11L, 2L);
+        UnreadCountDto count = unreadMessageCounter.count(1L, 1L, 10L);
+
+        assertEquals(1, count.getUnreadCount());
+        verify(messageRepository, times(1)).findRefsByGroupId(eq(1L), any(Limit.class));
+    }
+
+    @Test
+    void count_ShouldCap_WhenCursorIsOlderThanKeptTail(){
+        when(messageRepository.findRefsByGroupId(eq(1L), any(Limit.class)))
+                .thenReturn(List.of(ref(1L, 12L, 2L), ref(1L, 11L, 2L), ref(1L, 10L, 2L)));
+        unreadMessageCounter.count(1L, 1L, null);
+
+        unreadMessageCounter.record(1L, 13L, 2L);
+        UnreadCountDto fromStart = unreadMessageCounter.count(1L, 1L, null);
+        UnreadCountDto recent = unreadMessageCounter.count(1L, 1L, 11L);
+
+        assertEquals(3, fromStart.getUnreadCount());
+        assertTrue(fromStart.isCapped());
+        assertEquals(2, recent.getUnreadCount());
+        assertFalse(recent.isCapped());
+    }
+
+    @Test
+    void count_ShouldLoadGroupsLazily_AndEvictLeastRecentlyCounted(){
+        when(messageRepository.findRefsByGroupId(any(), any(Limit.class))).thenReturn(List.of());
+
+        unreadMessageCounter.count(1L, 1L, null);
+        unreadMessageCounter.count(2L, 1L, null);
+        unreadMessageCounter.count(1L, 1L, null);
+        unreadMessageCounter.count(3L, 1L, null);
+        unreadMessageCounter.count(1L, 1L, null);
+        unreadMessageCounter.count(2L, 1L, null);
+
+        assertEquals(2, unreadMessageCounter.size());
+        verify(messageRepository, times(1)).findRefsByGroupId(eq(1L), any(Limit.class));
+        verify(messageRepository, times(2)).findRefsByGroupId(eq(2L), any(Limit.class));
+    }
+
+    @Test
+    void record_ShouldBeReplayed_WhenMadeWhileGroupIsSeeding() throws Exception {
+        CountDownLatch querying = new CountDownLatch(1);
+        CountDownLatch recorded = new CountDownLatch(1);
+        when(messageRepository.findRefsByGroupId(eq(1L), any(Limit.class))).thenAnswer(invocation -> {
+            querying.countDown();
+            recorded.await(5, TimeUnit.SECONDS);
+            return List.of(ref(1L, 10L, 2L));
+        });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<UnreadCountDto> first = executor.submit(() -> unreadMessageCounter.count(1L, 1L, null));
+            assertTrue(querying.await(5, TimeUnit.SECONDS));
+            Thread recorder = new Thread(() -> unreadMessageCounter.record(1L, 11L, 2L));
+            recorder.start();
+            recorder.join(200);
+            recorded.countDown();
+            recorder.join(5000);
+
+            assertEquals(2, first.get(5, TimeUnit.SECONDS).getUnreadCount());
+            assertEquals(2, unreadMessageCounter.count(1L, 1L, null).getUnreadCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private MessageRef ref(Long groupId, Long id, Long senderId){
+        return new MessageRef() {
+            @Override
+            public Long getGroupId() {
+                return groupId;
+            }
+
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getSenderId() {
+                return senderId;
+            }
+        };
+    }
+}
@@ -1,5 +1,8 @@
 package com.notex.student_notes.note;
 
+import com.notex.student_notes.ai.summary.cache.SummaryCache;
+import com.notex.student_notes.ai.summary.trending.TrendingNotesTracker;
+import com.notex.student_notes.ai.translations.service.TranslationService;
 import com.notex.student_notes.auth.dto.NoChangesProvidedException;
 import com.notex.student_notes.config.metrics.CustomMetrics;
 import com.notex.student_notes.minio.service.MinioService;
@@ -41,6 +44,12 @@ public class NoteServiceTests {
     private NoteImageRepository noteImageRepository;
     @Mock
     private CustomMetrics customMetrics;
+    @Mock
+    private TrendingNotesTracker trendingNotesTracker;
+    @Mock
+    private SummaryCache summaryCache;
+    @Mock
+    private TranslationService translationService;
 
     private NoteService noteService;
 
@@ -75,7 +84,10 @@ public class NoteServiceTests {
             userRepository,
             noteMapper,
             minio,
-            customMetrics
+            customMetrics,
+            trendingNotesTracker,
+            summaryCache,
+            translationService
         );
         
         System.out.println("Mock user ID: " + mockUser.getId());
@@ -140,6 +152,8 @@ public class NoteServiceTests {
         verify(noteRepository).findById(1L);
         verify(noteRepository).save(any(Note.class));
         verify(noteMapper).toDto(any(Note.class));
+        verify(summaryCache).evictAfterCommit(1L);
+        verify(translationService).evictCachedAfterCommit(1L);
     }
 
     @Test
@@ -154,6 +168,8 @@ public class NoteServiceTests {
         verify(noteRepository).findById(1L);
         verify(noteRepository).save(any(Note.class));
         verify(customMetrics).incrementNoteDeletedCounter();
+        verify(summaryCache).evictAfterCommit(1L);
+        verify(translationService).evictCachedAfterCommit(1L);
     }
 
     @Test